@@ -1,6 +1,7 @@
 package com.example.stockvisualiser;
 
 import com.example.stockvisualiser.database.DatabaseManager;
+import com.example.stockvisualiser.service.StockDataService;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -27,6 +28,9 @@ public class StockVisualiserApp extends Application {
         
         primaryStage.setTitle("Stock Visualiser - Portfolio Management System");
         primaryStage.setOnCloseRequest(event -> {
+            System.out.println("Historical price cache: " + StockDataService.getHistoricalPricesCacheStats());
+            System.out.println("Price fetches: " + StockDataService.getPriceFetchesSent() + " sent, "
+                + StockDataService.getPriceFetchesDeduplicated() + " shared with one in flight");
             // Close database connection on application exit
             DatabaseManager.getInstance().closeConnection();
         });
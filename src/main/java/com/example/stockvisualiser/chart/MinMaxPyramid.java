@@ -0,0 +1,148 @@
+package com.example.stockvisualiser.chart;
+
+import java.util.Arrays;
+
+/**
+ * MinMaxPyramid - Index of the lowest and highest value in every bucket of a series, at doubling bucket sizes
+ * Level 0 has buckets of 8 points, each level above twice as many, so for a range of any length a
+ * level exists with about one bucket per pixel. Any range is covered by the full buckets of that level
+ * plus a few smaller ones at its edges, and the extremes of those buckets hold every peak and trough in
+ * the range. Built once per series in one pass; the levels together hold n / 2 ints.
+ */
+final class MinMaxPyramid {
+    private static final int BASE = 8;
+    // Candidates per point of the budget before a coarser level is used
+    private static final int CANDIDATES_PER_POINT = 4;
+
+    private final int[][] minIndex;
+    private final int[][] maxIndex;
+
+    MinMaxPyramid(double[] values) {
+        int levels = 0;
+        while ((long) BASE << levels <= values.length) {
+            levels++;
+        }
+        minIndex = new int[levels][];
+        maxIndex = new int[levels][];
+        for (int level = 0; level < levels; level++) {
+            int size = BASE << level;
+            int buckets = (values.length + size - 1) / size;
+            int[] min = new int[buckets];
+            int[] max = new int[buckets];
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                if (level == 0) {
+                    int start = bucket * BASE;
+                    int end = Math.min(start + BASE, values.length);
+                    min[bucket] = start;
+                    max[bucket] = start;
+                    for (int i = start + 1; i < end; i++) {
+                        if (values[i] < values[min[bucket]]) {
+                            min[bucket] = i;
+                        }
+                        if (values[i] > values[max[bucket]]) {
+                            max[bucket] = i;
+                        }
+                    }
+                } else {
+                    // Combine the two halves from the level below; the second may be missing at the end
+                    int[] lowerMin = minIndex[level - 1];
+                    int[] lowerMax = maxIndex[level - 1];
+                    int left = bucket * 2;
+                    int right = Math.min(left + 1, lowerMin.length - 1);
+                    min[bucket] = values[lowerMin[right]] < values[lowerMin[left]] ? lowerMin[right] : lowerMin[left];
+                    max[bucket] = values[lowerMax[right]] > values[lowerMax[left]] ? lowerMax[right] : lowerMax[left];
+                }
+            }
+            minIndex[level] = min;
+            maxIndex[level] = max;
+        }
+    }
+
+    /**
+     * Points of a range worth drawing: its first and last points and the extremes of the buckets covering it
+     * @param from First index of the range, inclusive
+     * @param to End of the range, exclusive
+     * @param budget Number of points the caller will draw, usually the plot width in pixels
+     * @return Ascending indices; every index in the range if it holds at most 4 * budget points,
+     *         otherwise at most about that many
+     */
+    int[] candidates(int from, int to, int budget) {
+        int length = to - from;
+        if (length <= 0) {
+            return new int[0];
+        }
+        budget = Math.max(budget, 1);
+        // Every point if few enough, else the finest level with at most two buckets per point of the budget
+        int level = -1;
+        if (length > CANDIDATES_PER_POINT * budget && minIndex.length > 0) {
+            level = 0;
+            while (level + 1 < minIndex.length && length / (BASE << level) > CANDIDATES_PER_POINT / 2 * budget) {
+                level++;
+            }
+        }
+        Indices out = new Indices(Math.min(length, CANDIDATES_PER_POINT * budget + 64));
+        out.add(from);
+        if (length > 1) {
+            cover(from + 1, to - 1, level, out);
+            out.add(to - 1);
+        }
+        return out.toArray();
+    }
+
+    /**
+     * Add the extremes of [from, to) in index order, using full buckets of the level and finer ones at the edges
+     */
+    private void cover(int from, int to, int level, Indices out) {
+        if (from >= to) {
+            return;
+        }
+        if (level < 0) {
+            for (int i = from; i < to; i++) {
+                out.add(i);
+            }
+            return;
+        }
+        int size = BASE << level;
+        int first = (from + size - 1) / size;
+        int last = to / size;
+        if (first >= last) {
+            cover(from, to, level - 1, out);
+            return;
+        }
+        cover(from, first * size, level - 1, out);
+        int[] min = minIndex[level];
+        int[] max = maxIndex[level];
+        for (int bucket = first; bucket < last; bucket++) {
+            int a = Math.min(min[bucket], max[bucket]);
+            int b = Math.max(min[bucket], max[bucket]);
+            out.add(a);
+            if (b != a) {
+                out.add(b);
+            }
+        }
+        cover(last * size, to, level - 1, out);
+    }
+
+    /**
+     * Growable int list, so a range's candidates are collected without boxing
+     */
+    private static final class Indices {
+        private int[] items;
+        private int size;
+
+        Indices(int capacity) {
+            items = new int[Math.max(capacity, 2)];
+        }
+
+        void add(int index) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = index;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.example.stockvisualiser.chart;
+
+import com.example.stockvisualiser.util.LttbDownsampler;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.geometry.VPos;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.Stop;
+import javafx.scene.shape.StrokeLineJoin;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * PriceChart - Canvas-rendered time-series line chart with pan, zoom and a crosshair readout
+ * The whole chart is two canvases: one for the grid, labels and line, redrawn at most once per
+ * pulse when the data, view or size changes, and one for the crosshair, redrawn on every mouse
+ * move. The line is drawn from the TimeSeries arrays: the series' min/max pyramid narrows the visible
+ * range to a few candidates per pixel, keeping every peak and trough, and LTTB reduces those to about
+ * one point per pixel. A redraw therefore costs the same for a million points as for a thousand.
+ *
+ * Scroll to zoom around the cursor, drag to pan, double-click to show the whole series.
+ */
+public class PriceChart extends Region {
+    // Space around the plot area for the axis labels
+    private static final double LEFT = 64;
+    private static final double RIGHT = 16;
+    private static final double TOP = 12;
+    private static final double BOTTOM = 28;
+
+    private static final double ZOOM_FACTOR = 1.25;
+    // Zooming in stops once this many points are visible
+    private static final int MIN_VISIBLE_POINTS = 5;
+    private static final double X_LABEL_SPACING = 110;
+    private static final int Y_TICKS = 6;
+    private static final double DAY_MILLIS = 86_400_000;
+
+    private static final Paint PLOT_BACKGROUND = new LinearGradient(0, 0, 0, 1, true, CycleMethod.NO_CYCLE,
+        new Stop(0, Color.web("#fafbfc")), new Stop(1, Color.WHITE));
+    private static final Color GRID = Color.web("#e8eaed");
+    private static final Color AXIS_LABEL = Color.web("#666666");
+    private static final Color CROSSHAIR = Color.web("#9e9e9e");
+    private static final Color READOUT_BACKGROUND = Color.rgb(0, 0, 0, 0.8);
+    private static final Font LABEL_FONT = Font.font(11);
+    private static final Font READOUT_FONT = Font.font(12);
+
+    private static final DateTimeFormatter TIME_LABEL = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DAY_LABEL = DateTimeFormatter.ofPattern("MMM dd");
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy");
+    private static final DateTimeFormatter DAY_READOUT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    private static final DateTimeFormatter TIME_READOUT = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+
+    private final Canvas plot = new Canvas();
+    private final Canvas overlay = new Canvas();
+    private final ObjectProperty<Color> lineColor = new SimpleObjectProperty<>(this, "lineColor", Color.web("#4caf50"));
+    // Used to measure readout text
+    private final Text measure = new Text();
+
+    private TimeSeries series = TimeSeries.EMPTY;
+    private ZoneId zone = ZoneOffset.UTC;
+    // Visible time range, in epoch milliseconds
+    private double viewStart;
+    private double viewEnd = 1;
+    // Visible value range, padded
+    private double valueMin;
+    private double valueMax = 1;
+    // Times and values of the candidate points, reused between redraws
+    private double[] candidateTimes = new double[0];
+    private double[] candidateValues = new double[0];
+    // Screen coordinates of the drawn line, reused between redraws
+    private double[] lineX = new double[0];
+    private double[] lineY = new double[0];
+    private boolean plotValid;
+
+    private double mouseX = Double.NaN;
+    private double dragX;
+    private double dragViewStart;
+    private double dragViewEnd;
+
+    public PriceChart() {
+        getStyleClass().add("price-chart");
+        plot.setManaged(false);
+        overlay.setManaged(false);
+        overlay.setMouseTransparent(true);
+        getChildren().addAll(plot, overlay);
+        setCursor(Cursor.CROSSHAIR);
+
+        setOnScroll(this::handleScroll);
+        setOnMousePressed(this::handleMousePressed);
+        setOnMouseDragged(this::handleMouseDragged);
+        setOnMouseMoved(event -> {
+            mouseX = event.getX();
+            drawOverlay();
+        });
+        setOnMouseExited(event -> {
+            mouseX = Double.NaN;
+            drawOverlay();
+        });
+        setOnMouseClicked(event -> {
+            if (event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
+                resetZoom();
+            }
+        });
+        lineColor.addListener((observable, oldColor, newColor) -> invalidatePlot());
+    }
+
+    /**
+     * Show a series, zoomed out to all of it
+     */
+    public void setSeries(TimeSeries series) {
+        this.series = series;
+        resetZoom();
+    }
+
+    public TimeSeries getSeries() {
+        return series;
+    }
+
+    public void clear() {
+        setSeries(TimeSeries.EMPTY);
+    }
+
+    /**
+     * Time zone for the date labels; UTC by default, which suits daily bars stored as dates
+     */
+    public void setZone(ZoneId zone) {
+        this.zone = zone;
+        invalidatePlot();
+    }
+
+    public ObjectProperty<Color> lineColorProperty() {
+        return lineColor;
+    }
+
+    public Color getLineColor() {
+        return lineColor.get();
+    }
+
+    public void setLineColor(Color color) {
+        lineColor.set(color);
+    }
+
+    /**
+     * Zoom out to show the whole series
+     */
+    public void resetZoom() {
+        int size = series.size();
+        if (size == 0) {
+            viewStart = 0;
+            viewEnd = 1;
+        } else if (size == 1) {
+            viewStart = series.getTime(0) - DAY_MILLIS;
+            viewEnd = series.getTime(0) + DAY_MILLIS;
+        } else {
+            viewStart = series.getTime(0);
+            viewEnd = series.getTime(size - 1);
+        }
+        invalidatePlot();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = snapSizeX(getWidth());
+        double height = snapSizeY(getHeight());
+        if (plot.getWidth() != width || plot.getHeight() != height) {
+            plot.setWidth(width);
+            plot.setHeight(height);
+            overlay.setWidth(width);
+            overlay.setHeight(height);
+            plotValid = false;
+        }
+        if (!plotValid) {
+            plotValid = true;
+            drawPlot();
+            drawOverlay();
+        }
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return 600;
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return 400;
+    }
+
+    @Override
+    protected double computeMinWidth(double height) {
+        return LEFT + RIGHT + 100;
+    }
+
+    @Override
+    protected double computeMinHeight(double width) {
+        return TOP + BOTTOM + 60;
+    }
+
+    /**
+     * Redraw the plot in the next layout pass, so several changes in one pulse cost one redraw
+     */
+    private void invalidatePlot() {
+        plotValid = false;
+        requestLayout();
+    }
+
+    private void drawPlot() {
+        GraphicsContext g = plot.getGraphicsContext2D();
+        g.clearRect(0, 0, plot.getWidth(), plot.getHeight());
+        double plotWidth = plotWidth();
+        double plotHeight = plotHeight();
+        if (series.isEmpty() || plotWidth < 1 || plotHeight < 1) {
+            return;
+        }
+        g.setFill(PLOT_BACKGROUND);
+        g.fillRect(LEFT, TOP, plotWidth, plotHeight);
+
+        // Visible points plus one on either side, so the line runs to the edges
+        int from = Math.max(0, series.indexAtOrBefore(viewStart));
+        int to = Math.min(series.size(), series.indexAtOrBefore(viewEnd) + 2);
+        int[] candidates = series.pyramid.candidates(from, to, (int) plotWidth);
+        if (candidateTimes.length < candidates.length) {
+            candidateTimes = new double[candidates.length];
+            candidateValues = new double[candidates.length];
+        }
+        for (int i = 0; i < candidates.length; i++) {
+            candidateTimes[i] = series.times[candidates[i]];
+            candidateValues[i] = series.values[candidates[i]];
+        }
+        fitValues(candidates.length);
+        drawGrid(g, plotWidth, plotHeight);
+
+        int[] kept = LttbDownsampler.selectIndices(candidateTimes, candidateValues, 0, candidates.length, (int) plotWidth);
+        if (lineX.length < kept.length) {
+            lineX = new double[kept.length];
+            lineY = new double[kept.length];
+        }
+        for (int i = 0; i < kept.length; i++) {
+            lineX[i] = toScreenX(candidateTimes[kept[i]]);
+            lineY[i] = toScreenY(candidateValues[kept[i]]);
+        }
+
+        g.save();
+        g.beginPath();
+        g.rect(LEFT, TOP, plotWidth, plotHeight);
+        g.clip();
+        g.setStroke(lineColor.get());
+        g.setFill(lineColor.get());
+        g.setLineWidth(2);
+        g.setLineJoin(StrokeLineJoin.ROUND);
+        if (kept.length == 1) {
+            g.fillOval(lineX[0] - 3, lineY[0] - 3, 6, 6);
+        } else {
+            g.strokePolyline(lineX, lineY, kept.length);
+        }
+        g.restore();
+    }
+
+    /**
+     * Set the value range to the first count candidates, with 5% padding
+     * The candidates hold the extremes of the visible range, so this is the range of all visible points.
+     */
+    private void fitValues(int count) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            double value = candidateValues[i];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        double padding = max > min ? (max - min) * 0.05 : Math.max(1, Math.abs(max) * 0.01);
+        valueMin = min - padding;
+        valueMax = max + padding;
+    }
+
+    private void drawGrid(GraphicsContext g, double plotWidth, double plotHeight) {
+        g.setStroke(GRID);
+        g.setLineWidth(1);
+        g.setLineDashes(5, 5);
+        g.setFill(AXIS_LABEL);
+        g.setFont(LABEL_FONT);
+
+        // Value lines at round numbers
+        double step = niceStep((valueMax - valueMin) / Y_TICKS);
+        int decimals = (int) Math.max(0, Math.min(4, -Math.floor(Math.log10(step))));
+        g.setTextAlign(TextAlignment.RIGHT);
+        g.setTextBaseline(VPos.CENTER);
+        for (double value = Math.ceil(valueMin / step) * step; value <= valueMax; value += step) {
+            double y = crisp(toScreenY(value));
+            g.strokeLine(LEFT, y, LEFT + plotWidth, y);
+            g.fillText(String.format("%,." + decimals + "f", value), LEFT - 8, y);
+        }
+
+        // Time lines at even spacing, labelled to suit the visible span
+        double span = viewEnd - viewStart;
+        DateTimeFormatter format = span < 2 * DAY_MILLIS ? TIME_LABEL : span < 365 * DAY_MILLIS ? DAY_LABEL : MONTH_LABEL;
+        int labels = Math.max(1, (int) (plotWidth / X_LABEL_SPACING));
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.TOP);
+        for (int i = 0; i < labels; i++) {
+            double x = crisp(LEFT + plotWidth * (i + 0.5) / labels);
+            g.strokeLine(x, TOP, x, TOP + plotHeight);
+            g.fillText(format.format(Instant.ofEpochMilli((long) toTime(x)).atZone(zone)), x, TOP + plotHeight + 8);
+        }
+        g.setLineDashes((double[]) null);
+    }
+
+    /**
+     * Draw the crosshair and readout for the point nearest the mouse
+     */
+    private void drawOverlay() {
+        GraphicsContext g = overlay.getGraphicsContext2D();
+        g.clearRect(0, 0, overlay.getWidth(), overlay.getHeight());
+        double plotWidth = plotWidth();
+        double plotHeight = plotHeight();
+        if (Double.isNaN(mouseX) || series.isEmpty() || mouseX < LEFT || mouseX > LEFT + plotWidth) {
+            return;
+        }
+        int index = series.nearestIndex(toTime(mouseX));
+        double x = toScreenX(series.getTime(index));
+        double y = toScreenY(series.getValue(index));
+        if (x < LEFT || x > LEFT + plotWidth) {
+            return;
+        }
+
+        g.setStroke(CROSSHAIR);
+        g.setLineWidth(1);
+        g.setLineDashes(4, 4);
+        g.strokeLine(crisp(x), TOP, crisp(x), TOP + plotHeight);
+        g.strokeLine(LEFT, crisp(y), LEFT + plotWidth, crisp(y));
+        g.setLineDashes((double[]) null);
+        g.setFill(lineColor.get());
+        g.fillOval(x - 4, y - 4, 8, 8);
+
+        Instant time = Instant.ofEpochMilli((long) series.getTime(index));
+        DateTimeFormatter format = isIntraday() ? TIME_READOUT : DAY_READOUT;
+        String text = format.format(time.atZone(zone)) + "   $" + String.format("%,.2f", series.getValue(index));
+        measure.setFont(READOUT_FONT);
+        measure.setText(text);
+        double boxWidth = measure.getLayoutBounds().getWidth() + 16;
+        double boxHeight = measure.getLayoutBounds().getHeight() + 10;
+        double boxX = x + 12 + boxWidth > LEFT + plotWidth ? x - 12 - boxWidth : x + 12;
+        double boxY = Math.max(TOP, y - boxHeight - 12);
+
+        g.setFill(READOUT_BACKGROUND);
+        g.fillRoundRect(boxX, boxY, boxWidth, boxHeight, 6, 6);
+        g.setFill(Color.WHITE);
+        g.setFont(READOUT_FONT);
+        g.setTextAlign(TextAlignment.LEFT);
+        g.setTextBaseline(VPos.TOP);
+        g.fillText(text, boxX + 8, boxY + 5);
+    }
+
+    private void handleScroll(ScrollEvent event) {
+        if (event.getDeltaY() == 0 || series.size() < 2) {
+            return;
+        }
+        double factor = event.getDeltaY() > 0 ? 1 / ZOOM_FACTOR : ZOOM_FACTOR;
+        double anchor = toTime(Math.max(LEFT, Math.min(event.getX(), LEFT + plotWidth())));
+        setView(anchor - (anchor - viewStart) * factor, anchor + (viewEnd - anchor) * factor);
+        event.consume();
+    }
+
+    private void handleMousePressed(MouseEvent event) {
+        dragX = event.getX();
+        dragViewStart = viewStart;
+        dragViewEnd = viewEnd;
+    }
+
+    private void handleMouseDragged(MouseEvent event) {
+        if (series.size() < 2 || plotWidth() < 1) {
+            return;
+        }
+        double shift = (dragX - event.getX()) / plotWidth() * (dragViewEnd - dragViewStart);
+        mouseX = event.getX();
+        setView(dragViewStart + shift, dragViewEnd + shift);
+    }
+
+    /**
+     * Change the visible time range, kept within the series and above the minimum zoom
+     */
+    private void setView(double start, double end) {
+        int size = series.size();
+        double first = series.getTime(0);
+        double last = series.getTime(size - 1);
+        double full = last - first;
+        if (full <= 0) {
+            return;
+        }
+        double minSpan = Math.min(full, full * MIN_VISIBLE_POINTS / (size - 1));
+        double span = Math.max(minSpan, Math.min(full, end - start));
+        // Clamping the span keeps the requested range centred
+        start += (end - start - span) / 2;
+        start = Math.max(first, Math.min(start, last - span));
+        viewStart = start;
+        viewEnd = start + span;
+        invalidatePlot();
+    }
+
+    private boolean isIntraday() {
+        int size = series.size();
+        return size > 1 && (series.getTime(size - 1) - series.getTime(0)) / (size - 1) < DAY_MILLIS / 2;
+    }
+
+    private double plotWidth() {
+        return Math.max(0, plot.getWidth() - LEFT - RIGHT);
+    }
+
+    private double plotHeight() {
+        return Math.max(0, plot.getHeight() - TOP - BOTTOM);
+    }
+
+    private double toScreenX(double time) {
+        return LEFT + (time - viewStart) / (viewEnd - viewStart) * plotWidth();
+    }
+
+    private double toTime(double screenX) {
+        return viewStart + (screenX - LEFT) / plotWidth() * (viewEnd - viewStart);
+    }
+
+    private double toScreenY(double value) {
+        return TOP + (valueMax - value) / (valueMax - valueMin) * plotHeight();
+    }
+
+    /**
+     * Centre a 1px line on a pixel so it is drawn crisp
+     */
+    private static double crisp(double position) {
+        return Math.floor(position) + 0.5;
+    }
+
+    /**
+     * Round a step up to 1, 2 or 5 times a power of ten
+     */
+    private static double niceStep(double raw) {
+        double magnitude = Math.pow(10, Math.floor(Math.log10(raw)));
+        double fraction = raw / magnitude;
+        double nice = fraction <= 1 ? 1 : fraction <= 2 ? 2 : fraction <= 5 ? 5 : 10;
+        return nice * magnitude;
+    }
+}
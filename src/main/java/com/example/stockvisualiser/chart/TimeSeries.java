@@ -0,0 +1,81 @@
+package com.example.stockvisualiser.chart;
+
+/**
+ * TimeSeries - Immutable series of (time, value) points held in primitive arrays
+ * Times are epoch milliseconds in ascending order. The arrays are taken over, not copied, so a
+ * million-point series costs 16 MB plus 2 MB for its min/max pyramid; callers must not change them
+ * afterwards. Building the pyramid is one pass over the values, so large series are best created
+ * off the FX thread.
+ */
+public final class TimeSeries {
+    public static final TimeSeries EMPTY = new TimeSeries(new double[0], new double[0]);
+
+    final double[] times;
+    final double[] values;
+    final MinMaxPyramid pyramid;
+
+    /**
+     * @param times Ascending epoch milliseconds
+     * @param values Value at each time
+     */
+    public TimeSeries(double[] times, double[] values) {
+        if (times.length != values.length) {
+            throw new IllegalArgumentException("times and values differ in length");
+        }
+        this.times = times;
+        this.values = values;
+        this.pyramid = new MinMaxPyramid(values);
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    public boolean isEmpty() {
+        return times.length == 0;
+    }
+
+    public double getTime(int index) {
+        return times[index];
+    }
+
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Index of the last point at or before a time
+     * @return The index, or -1 if every point is later
+     */
+    public int indexAtOrBefore(double time) {
+        int low = 0;
+        int high = times.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Index of the point closest in time
+     * @return The index, or -1 for an empty series
+     */
+    public int nearestIndex(double time) {
+        if (times.length == 0) {
+            return -1;
+        }
+        int before = indexAtOrBefore(time);
+        if (before < 0) {
+            return 0;
+        }
+        if (before == times.length - 1) {
+            return before;
+        }
+        return time - times[before] <= times[before + 1] - time ? before : before + 1;
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.stockvisualiser.controller;
 
 import com.example.stockvisualiser.StockVisualiserApp;
+import com.example.stockvisualiser.chart.PriceChart;
+import com.example.stockvisualiser.chart.TimeSeries;
+import com.example.stockvisualiser.market.LivePrices;
+import com.example.stockvisualiser.market.PriceFeed;
+import com.example.stockvisualiser.market.SimulatedPriceFeed;
 import com.example.stockvisualiser.model.*;
 import com.example.stockvisualiser.service.*;
+import com.example.stockvisualiser.util.BackgroundTasks;
 import com.example.stockvisualiser.util.SceneManager;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -11,10 +17,19 @@ import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
 
 import java.io.IOException;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * DashboardController - Main dashboard with analytics, portfolio, and transaction management
@@ -24,6 +39,7 @@ public class DashboardController {
     // Services
     private final PortfolioService portfolioService;
     private final StockService stockService;
+    private final DashboardSnapshotService dashboardSnapshotService;
     private final TransactionService transactionService;
     private final WatchlistService watchlistService;
     private final AuthenticationService authService;
@@ -34,6 +50,7 @@ public class DashboardController {
 
     // FXML Components - Dashboard Tab
     @FXML private Label welcomeLabel;
+    @FXML private ProgressIndicator loadingIndicator;
     @FXML private Label portfolioValueLabel;
     @FXML private Label investmentLabel;
     @FXML private Label profitLossLabel;
@@ -56,6 +73,7 @@ public class DashboardController {
     @FXML private TableColumn<Portfolio, Double> portPurchasePriceCol;
     @FXML private TableColumn<Portfolio, Double> portCurrentPriceCol;
     @FXML private TableColumn<Portfolio, String> portProfitLossCol;
+    @FXML private Button sellButton;
 
     // FXML Components - Stocks Tab (with real-time search)
     @FXML private TableView<Stock> stocksTable;
@@ -73,8 +91,10 @@ public class DashboardController {
     @FXML private Label publicSearchStatus;
     @FXML private Label selectedStockLabel;
     @FXML private TextField buyQuantityField;
-    @FXML private LineChart<String, Number> stockPriceChart;
+    @FXML private Button buyButton;
+    @FXML private PriceChart stockPriceChart;
     @FXML private javafx.scene.text.Text chartTitleText;
+    @FXML private ComboBox<StockDataService.HistoryRange> chartRangeBox;
 
     // FXML Components - Transactions Tab (with search)
     @FXML private TextField transactionSearchField;
@@ -117,8 +137,19 @@ public class DashboardController {
     @FXML private Label totalTradesLabel;
 
     private ObservableList<Stock> allStocks;
+    private Map<Integer, Stock> allStocksById = new HashMap<>();
+    private long stockCatalogVersion = -1;
     private ObservableList<Transaction> allTransactions;
 
+    // Background work; only touched on the FX thread
+    private int tasksInFlight;
+    private long dashboardLoadId;
+    private String chartSymbol;
+    // The admin price refresh while it runs
+    private PriceRefreshTask priceRefreshTask;
+    // Streams price changes into the rows of allStocks
+    private LivePrices livePrices;
+
     public DashboardController() {
         this.portfolioService = new PortfolioService();
         this.stockService = new StockService();
@@ -126,6 +157,7 @@ public class DashboardController {
         this.watchlistService = new WatchlistService();
         this.authService = new AuthenticationService();
         this.stockDataService = new StockDataService();
+        this.dashboardSnapshotService = new DashboardSnapshotService();
     }
 
     @FXML
@@ -269,6 +301,17 @@ public class DashboardController {
                 }
             });
         }
+
+        // Chart range - the whole stored history unless the user narrows it
+        if (chartRangeBox != null) {
+            chartRangeBox.getItems().addAll(StockDataService.HistoryRange.values());
+            chartRangeBox.setValue(StockDataService.HistoryRange.ALL);
+            chartRangeBox.valueProperty().addListener((obs, oldRange, newRange) -> {
+                if (chartSymbol != null) {
+                    updateStockPriceChart(chartSymbol);
+                }
+            });
+        }
     }
 
     private void setupTransactionsTab() {
@@ -362,19 +405,43 @@ public class DashboardController {
         System.out.println("ℹ️  Admin panel removed from UI (stock search now in Stocks tab for all users)");
     }
 
-    private void loadDashboardData() {
-        loadPortfolioStats();
-        loadPortfolioTable();
-        loadStocksTable();
-        loadTransactionsTable();
-        loadWatchlistTable();
-        loadCharts();
-        loadRecentTransactions();
+    /**
+     * Load everything the dashboard shows in one consistent snapshot and hand it to each widget
+     */
+    private CompletableFuture<Void> loadDashboardData() {
+        long loadId = ++dashboardLoadId;
+        return runInBackground(dashboardSnapshotService.loadSnapshotAsync(currentUser.getUserId()), snapshot -> {
+            // A newer load was started while this one ran; its result wins
+            if (loadId != dashboardLoadId) {
+                return;
+            }
+            if (snapshot == null) {
+                showError("Could not load dashboard data. Please try again.");
+                return;
+            }
+            showDashboard(snapshot);
+        }, "Could not load dashboard data. Please try again.");
     }
 
-    private void loadPortfolioStats() {
-        PortfolioService.PortfolioStats stats = portfolioService.getPortfolioStats(currentUser.getUserId());
-        
+    private void showDashboard(DashboardSnapshot snapshot) {
+        showPortfolioStats(snapshot.getStats());
+        portfolioTable.setItems(FXCollections.observableArrayList(snapshot.getHoldings()));
+        showStocks(snapshot.getCatalog());
+        allTransactions = FXCollections.observableArrayList(snapshot.getTransactions());
+        transactionsTable.setItems(allTransactions);
+        watchlistTable.setItems(FXCollections.observableArrayList(snapshot.getWatchlist()));
+        showPortfolioAllocationChart(snapshot.getHoldings());
+        showStockComparisonChart(snapshot.getHoldings());
+        recentTransactionsTable.setItems(FXCollections.observableArrayList(snapshot.getRecentTransactions(5)));
+
+        // Keep the charts the user is most likely to open cached
+        List<String> pinned = new ArrayList<>();
+        snapshot.getHoldings().forEach(holding -> pinned.add(holding.getSymbol()));
+        snapshot.getWatchlist().forEach(item -> pinned.add(item.getSymbol()));
+        stockDataService.pinHistoricalPrices(pinned);
+    }
+
+    private void showPortfolioStats(PortfolioService.PortfolioStats stats) {
         portfolioValueLabel.setText(String.format("$%.2f", stats.getTotalValue()));
         investmentLabel.setText(String.format("$%.2f", stats.getTotalInvestment()));
         profitLossLabel.setText(String.format("$%.2f", stats.getProfitLoss()));
@@ -390,38 +457,62 @@ public class DashboardController {
         }
     }
 
-    private void loadPortfolioTable() {
-        ObservableList<Portfolio> portfolio = portfolioService.getUserPortfolio(currentUser.getUserId());
-        portfolioTable.setItems(portfolio);
-    }
-
     private void loadStocksTable() {
-        allStocks = stockService.getAllStocks();
-        stocksTable.setItems(allStocks);
+        runInBackground(stockService.getCatalogSnapshotAsync(), this::showStocks, "Could not load stocks");
     }
 
-    private void loadTransactionsTable() {
-        allTransactions = transactionService.getUserTransactions(currentUser.getUserId());
-        transactionsTable.setItems(allTransactions);
-    }
+    private void showStocks(StockCatalog.Snapshot snapshot) {
+        if (snapshot == null) {
+            // Catalog unavailable; keep whatever rows are already on screen
+            if (allStocks == null) {
+                allStocks = FXCollections.observableArrayList();
+            }
+        } else if (allStocks == null || snapshot.getVersion() != stockCatalogVersion) {
+            // Rebuild the rows only when the catalog changed since the last load
+            allStocks = FXCollections.observableArrayList();
+            allStocksById = new HashMap<>(snapshot.size() * 2);
+            for (StockCatalog.Entry entry : snapshot.getEntries()) {
+                Stock stock = entry.toStock();
+                allStocks.add(stock);
+                allStocksById.put(stock.getStockId(), stock);
+            }
+            stockCatalogVersion = snapshot.getVersion();
+            startLivePrices();
+        }
+        stocksTable.setItems(allStocks);
 
-    private void loadWatchlistTable() {
-        ObservableList<Watchlist> watchlist = watchlistService.getUserWatchlist(currentUser.getUserId());
-        watchlistTable.setItems(watchlist);
+        if (adminStocksTable != null) {
+            adminStocksTable.setItems(allStocks);
+            updateAdminStats();
+        }
     }
 
-    private void loadRecentTransactions() {
-        ObservableList<Transaction> recent = transactionService.getRecentTransactions(currentUser.getUserId(), 5);
-        recentTransactionsTable.setItems(recent);
+    /**
+     * Follow the prices of the stock rows now on screen
+     * By default stored prices are polled from the catalog; with -Dstockvisualiser.live.feed=simulated
+     * prices come from a seeded simulator instead, at stockvisualiser.live.ticksPerSecond.
+     */
+    private void startLivePrices() {
+        if (livePrices != null) {
+            livePrices.stop();
+        }
+        PriceFeed feed;
+        if ("simulated".equals(System.getProperty("stockvisualiser.live.feed"))) {
+            feed = SimulatedPriceFeed.forStocks(Long.getLong("stockvisualiser.live.seed", 1L), allStocks,
+                Integer.getInteger("stockvisualiser.live.ticksPerSecond", 1000), 60);
+        } else {
+            feed = new PolledPriceFeed(stockService, allStocks);
+        }
+        livePrices = new LivePrices(allStocks, feed);
+        livePrices.start();
     }
 
-    private void loadCharts() {
-        loadPortfolioAllocationChart();
-        loadStockComparisonChart();
+    private void loadWatchlistTable() {
+        runInBackground(watchlistService.getUserWatchlistAsync(currentUser.getUserId()),
+            watchlist -> watchlistTable.setItems(watchlist), "Could not load watchlist");
     }
 
-    private void loadPortfolioAllocationChart() {
-        ObservableList<Portfolio> portfolio = portfolioService.getUserPortfolio(currentUser.getUserId());
+    private void showPortfolioAllocationChart(List<Portfolio> portfolio) {
         ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
         
         // Group by stock symbol
@@ -437,9 +528,7 @@ public class DashboardController {
     }
 
     @SuppressWarnings("unchecked")
-    private void loadStockComparisonChart() {
-        ObservableList<Portfolio> portfolio = portfolioService.getUserPortfolio(currentUser.getUserId());
-        
+    private void showStockComparisonChart(List<Portfolio> portfolio) {
         CategoryAxis xAxis = (CategoryAxis) stockComparisonChart.getXAxis();
         NumberAxis yAxis = (NumberAxis) stockComparisonChart.getYAxis();
         
@@ -467,12 +556,11 @@ public class DashboardController {
             stocksTable.setItems(allStocks);
         } else {
             ObservableList<Stock> filteredStocks = FXCollections.observableArrayList();
-            String lowerCaseFilter = searchTerm.toLowerCase();
-            
-            for (Stock stock : allStocks) {
-                if (stock.getSymbol().toLowerCase().contains(lowerCaseFilter) ||
-                    stock.getCompanyName().toLowerCase().contains(lowerCaseFilter) ||
-                    stock.getSector().toLowerCase().contains(lowerCaseFilter)) {
+
+            // Ranked matches from the search index, mapped back to the rows already on screen
+            for (int stockId : stockService.searchStockIds(searchTerm)) {
+                Stock stock = allStocksById.get(stockId);
+                if (stock != null) {
                     filteredStocks.add(stock);
                 }
             }
@@ -534,20 +622,21 @@ public class DashboardController {
             
             Optional<ButtonType> result = confirmation.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                boolean success = transactionService.buyStock(
+                setTradingEnabled(false);
+                runInBackground(transactionService.buyStockAsync(
                     currentUser.getUserId(),
                     selected.getStockId(),
                     quantity,
                     selected.getCurrentPrice()
-                );
-                
-                if (success) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Stock purchased successfully!");
-                    buyQuantityField.clear();
-                    loadDashboardData();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to purchase stock");
-                }
+                ), success -> {
+                    if (success) {
+                        showAlert(Alert.AlertType.INFORMATION, "Success", "Stock purchased successfully!");
+                        buyQuantityField.clear();
+                        loadDashboardData();
+                    } else {
+                        showAlert(Alert.AlertType.ERROR, "Error", "Failed to purchase stock");
+                    }
+                }, "Failed to purchase stock").whenComplete((ignored, error) -> setTradingEnabled(true));
             }
         } catch (NumberFormatException e) {
             showAlert(Alert.AlertType.WARNING, "Invalid Input", "Please enter a valid number");
@@ -589,19 +678,20 @@ public class DashboardController {
                 
                 Optional<ButtonType> confirmResult = confirmation.showAndWait();
                 if (confirmResult.isPresent() && confirmResult.get() == ButtonType.OK) {
-                    boolean success = transactionService.sellStock(
+                    setTradingEnabled(false);
+                    runInBackground(transactionService.sellStockAsync(
                         currentUser.getUserId(),
                         selected.getStockId(),
                         quantity,
                         selected.getCurrentPrice()
-                    );
-                    
-                    if (success) {
-                        showAlert(Alert.AlertType.INFORMATION, "Success", "Stock sold successfully!");
-                        loadDashboardData();
-                    } else {
-                        showAlert(Alert.AlertType.ERROR, "Error", "Failed to sell stock");
-                    }
+                    ), success -> {
+                        if (success) {
+                            showAlert(Alert.AlertType.INFORMATION, "Success", "Stock sold successfully!");
+                            loadDashboardData();
+                        } else {
+                            showAlert(Alert.AlertType.ERROR, "Error", "Failed to sell stock");
+                        }
+                    }, "Failed to sell stock").whenComplete((ignored, error) -> setTradingEnabled(true));
                 }
             } catch (NumberFormatException e) {
                 showAlert(Alert.AlertType.WARNING, "Invalid Input", "Please enter a valid number");
@@ -617,13 +707,14 @@ public class DashboardController {
             return;
         }
         
-        boolean success = watchlistService.addToWatchlist(currentUser.getUserId(), selected.getStockId());
-        if (success) {
-            showAlert(Alert.AlertType.INFORMATION, "Success", "Stock added to watchlist!");
-            loadWatchlistTable();
-        } else {
-            showAlert(Alert.AlertType.WARNING, "Already Added", "This stock is already in your watchlist");
-        }
+        runInBackground(watchlistService.addToWatchlistAsync(currentUser.getUserId(), selected.getStockId()), success -> {
+            if (success) {
+                showAlert(Alert.AlertType.INFORMATION, "Success", "Stock added to watchlist!");
+                loadWatchlistTable();
+            } else {
+                showAlert(Alert.AlertType.WARNING, "Already Added", "This stock is already in your watchlist");
+            }
+        }, "Failed to add stock to watchlist");
     }
 
     @FXML
@@ -634,13 +725,14 @@ public class DashboardController {
             return;
         }
         
-        boolean success = watchlistService.removeFromWatchlist(selected.getWatchlistId());
-        if (success) {
-            showAlert(Alert.AlertType.INFORMATION, "Success", "Stock removed from watchlist!");
-            loadWatchlistTable();
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to remove stock from watchlist");
-        }
+        runInBackground(watchlistService.removeFromWatchlistAsync(selected.getWatchlistId()), success -> {
+            if (success) {
+                showAlert(Alert.AlertType.INFORMATION, "Success", "Stock removed from watchlist!");
+                loadWatchlistTable();
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to remove stock from watchlist");
+            }
+        }, "Failed to remove stock from watchlist");
     }
 
     @FXML
@@ -662,17 +754,18 @@ public class DashboardController {
                 return;
             }
             
-            boolean success = stockService.addStock(symbol.toUpperCase(), company, sector, price);
-            if (success) {
-                showAlert(Alert.AlertType.INFORMATION, "Success", "Stock added successfully!");
-                newStockSymbol.clear();
-                newStockCompany.clear();
-                newStockSector.clear();
-                newStockPrice.clear();
-                loadStocksTable();
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to add stock");
-            }
+            runInBackground(stockService.addStockAsync(symbol.toUpperCase(), company, sector, price), success -> {
+                if (success) {
+                    showAlert(Alert.AlertType.INFORMATION, "Success", "Stock added successfully!");
+                    newStockSymbol.clear();
+                    newStockCompany.clear();
+                    newStockSector.clear();
+                    newStockPrice.clear();
+                    loadStocksTable();
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to add stock");
+                }
+            }, "Failed to add stock");
         } catch (NumberFormatException e) {
             showAlert(Alert.AlertType.WARNING, "Invalid Price", "Please enter a valid price");
         }
@@ -680,12 +773,16 @@ public class DashboardController {
 
     @FXML
     private void handleRefresh() {
-        loadDashboardData();
-        showAlert(Alert.AlertType.INFORMATION, "Refreshed", "Dashboard data refreshed successfully!");
+        loadDashboardData().thenRun(() ->
+            showAlert(Alert.AlertType.INFORMATION, "Refreshed", "Dashboard data refreshed successfully!"));
     }
 
     @FXML
     private void handleLogout() {
+        if (livePrices != null) {
+            livePrices.stop();
+            livePrices = null;
+        }
         authService.logout();
         SceneManager.setCurrentUser(null);
         try {
@@ -697,108 +794,60 @@ public class DashboardController {
 
     /**
      * Update the stock price chart with historical data
+     * The history is fetched in the background; if another stock is selected meanwhile, the
+     * stale result is dropped.
      */
-    private void updateStockPriceChart(String symbol) {
+    private CompletableFuture<Void> updateStockPriceChart(String symbol) {
         if (stockPriceChart == null || chartTitleText == null) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
-        
+
+        StockDataService.HistoryRange range = chartRangeBox != null && chartRangeBox.getValue() != null
+            ? chartRangeBox.getValue()
+            : StockDataService.HistoryRange.ALL;
+        chartSymbol = symbol;
+        chartTitleText.setText("Loading " + symbol + " price history...");
+
+        return runInBackground(stockDataService.getHistoricalPricesAsync(symbol, range), historicalData -> {
+            if (symbol.equals(chartSymbol)) {
+                showPriceHistory(symbol, range, historicalData);
+            }
+        }, error -> {
+            if (symbol.equals(chartSymbol)) {
+                chartTitleText.setText("Error loading data for " + symbol);
+            }
+        });
+    }
+
+    private void showPriceHistory(String symbol, StockDataService.HistoryRange range,
+                                  List<StockDataService.PriceData> historicalData) {
         try {
-            // Update chart title
-            chartTitleText.setText(symbol + " - 30 Day Price History");
-            
-            // Fetch historical price data
-            ObservableList<StockDataService.PriceData> historicalData = stockDataService.getHistoricalPrices(symbol);
-            
             if (historicalData.isEmpty()) {
                 chartTitleText.setText("No data available for " + symbol);
-                stockPriceChart.getData().clear();
+                stockPriceChart.clear();
                 return;
             }
             
-            // Find min and max prices for better Y-axis scaling
-            double minPrice = Double.MAX_VALUE;
+            // The chart draws straight from primitive arrays: epoch milliseconds and prices
+            double[] times = new double[historicalData.size()];
+            double[] prices = new double[historicalData.size()];
             double maxPrice = Double.MIN_VALUE;
-            for (StockDataService.PriceData priceData : historicalData) {
-                minPrice = Math.min(minPrice, priceData.getPrice());
-                maxPrice = Math.max(maxPrice, priceData.getPrice());
-            }
-            
-            // Add 5% padding to min/max for better visualization
-            double padding = (maxPrice - minPrice) * 0.05;
-            double yAxisMin = minPrice - padding;
-            double yAxisMax = maxPrice + padding;
-            
-            // Set Y-axis range dynamically
-            NumberAxis yAxis = (NumberAxis) stockPriceChart.getYAxis();
-            yAxis.setAutoRanging(false);
-            yAxis.setLowerBound(yAxisMin);
-            yAxis.setUpperBound(yAxisMax);
-            yAxis.setTickUnit((yAxisMax - yAxisMin) / 8); // ~8 tick marks
-            
-            // Create series for the chart
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName(symbol + " Price");
-            
-            // Sample every 5th point to prevent X-axis label crowding (30 days → 6 labels)
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMM dd");
-            for (int i = 0; i < historicalData.size(); i += 5) {
+            for (int i = 0; i < times.length; i++) {
                 StockDataService.PriceData priceData = historicalData.get(i);
-                String dateStr = priceData.getDate().format(dateFormatter);
-                series.getData().add(new XYChart.Data<>(dateStr, priceData.getPrice()));
-            }
-            
-            // Always add the last point to show most recent data
-            if (historicalData.size() % 5 != 0) {
-                StockDataService.PriceData lastPoint = historicalData.get(historicalData.size() - 1);
-                String dateStr = lastPoint.getDate().format(dateFormatter);
-                series.getData().add(new XYChart.Data<>(dateStr, lastPoint.getPrice()));
+                times[i] = priceData.getDate().atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+                prices[i] = priceData.getPrice();
+                maxPrice = Math.max(maxPrice, prices[i]);
             }
+            stockPriceChart.setSeries(new TimeSeries(times, prices));
             
-            // Update chart
-            stockPriceChart.getData().clear();
-            stockPriceChart.getData().add(series);
-            
-            // Apply modern gradient styling to the line
             String priceChange = maxPrice > historicalData.get(0).getPrice() ? "up" : "down";
-            String lineColor = priceChange.equals("up") ? "#4caf50" : "#f44336";
-            series.getNode().setStyle(
-                "-fx-stroke: " + lineColor + ";" +
-                "-fx-stroke-width: 3px;" +
-                "-fx-effect: dropshadow(gaussian, " + lineColor + "80, 6, 0.5, 0, 2);"
-            );
-            
-            // Add tooltips and style data points
-            for (XYChart.Data<String, Number> data : series.getData()) {
-                Tooltip tooltip = new Tooltip(
-                    "📅 " + data.getXValue() + "\n" +
-                    "💰 $" + String.format("%.2f", data.getYValue())
-                );
-                tooltip.setStyle(
-                    "-fx-font-size: 12px;" +
-                    "-fx-background-color: rgba(0, 0, 0, 0.8);" +
-                    "-fx-text-fill: white;" +
-                    "-fx-background-radius: 6px;" +
-                    "-fx-padding: 8px;"
-                );
-                Tooltip.install(data.getNode(), tooltip);
-                
-                // Style data points with gradient
-                if (data.getNode() != null) {
-                    data.getNode().setStyle(
-                        "-fx-background-color: " + lineColor + ";" +
-                        "-fx-background-radius: 6px;" +
-                        "-fx-padding: 4px;" +
-                        "-fx-effect: dropshadow(gaussian, rgba(0, 0, 0, 0.4), 4, 0, 0, 1);"
-                    );
-                }
-            }
+            stockPriceChart.setLineColor(Color.web(priceChange.equals("up") ? "#4caf50" : "#f44336"));
             
             // Update chart title with price info
             double priceChangePercent = ((maxPrice - historicalData.get(0).getPrice()) / historicalData.get(0).getPrice()) * 100;
             String arrow = priceChangePercent >= 0 ? "📈" : "📉";
-            chartTitleText.setText(String.format("%s %s - 30 Day History (%+.2f%%)", 
-                symbol, arrow, priceChangePercent));
+            chartTitleText.setText(String.format("%s %s - %s (%+.2f%%)",
+                symbol, arrow, describeShownRange(range, historicalData), priceChangePercent));
             
         } catch (Exception e) {
             System.err.println("Error updating price chart: " + e.getMessage());
@@ -807,6 +856,19 @@ public class DashboardController {
         }
     }
 
+    /**
+     * Name the span a chart actually shows
+     * The range's own name is used only when the stored history fills it; otherwise the first day shown.
+     */
+    private static String describeShownRange(StockDataService.HistoryRange range,
+                                             List<StockDataService.PriceData> historicalData) {
+        if (range != StockDataService.HistoryRange.ALL && historicalData.size() >= range.getTradingDays()) {
+            return range.getLabel() + " History";
+        }
+        return String.format("%d Day History since %s", historicalData.size(),
+            historicalData.get(0).getDate().format(DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.US)));
+    }
+
     /**
      * Refresh the currently displayed stock chart
      */
@@ -814,9 +876,9 @@ public class DashboardController {
     private void handleRefreshChart() {
         Stock selectedStock = stocksTable.getSelectionModel().getSelectedItem();
         if (selectedStock != null) {
-            updateStockPriceChart(selectedStock.getSymbol());
-            showAlert(Alert.AlertType.INFORMATION, "Chart Refreshed", 
-                     "Price chart updated for " + selectedStock.getSymbol());
+            updateStockPriceChart(selectedStock.getSymbol()).thenRun(() ->
+                showAlert(Alert.AlertType.INFORMATION, "Chart Refreshed", 
+                         "Price chart updated for " + selectedStock.getSymbol()));
         } else {
             showError("Please select a stock first");
         }
@@ -833,6 +895,58 @@ public class DashboardController {
     private void showError(String message) {
         showAlert(Alert.AlertType.ERROR, "Error", message);
     }
+
+    // ============ BACKGROUND TASKS ============
+
+    /**
+     * Show the loading indicator until a background task finishes, then hand its result to onSuccess
+     * on the FX thread; a failure is logged and reported with errorMessage.
+     */
+    private <T> CompletableFuture<Void> runInBackground(CompletableFuture<T> task, Consumer<? super T> onSuccess,
+                                                        String errorMessage) {
+        return runInBackground(task, onSuccess, error -> showError(errorMessage));
+    }
+
+    private <T> CompletableFuture<Void> runInBackground(CompletableFuture<T> task, Consumer<? super T> onSuccess,
+                                                        Consumer<Throwable> onFailure) {
+        taskStarted();
+        return BackgroundTasks.onFxThread(task, (result, error) -> {
+            taskFinished();
+            if (error != null) {
+                System.err.println("Background task failed: " + error.getMessage());
+                error.printStackTrace();
+                onFailure.accept(error);
+            } else {
+                onSuccess.accept(result);
+            }
+        });
+    }
+
+    private void taskStarted() {
+        tasksInFlight++;
+        if (loadingIndicator != null) {
+            loadingIndicator.setVisible(true);
+        }
+    }
+
+    private void taskFinished() {
+        tasksInFlight--;
+        if (loadingIndicator != null) {
+            loadingIndicator.setVisible(tasksInFlight > 0);
+        }
+    }
+
+    /**
+     * Disable the buy and sell buttons while a trade is being written, so it cannot be submitted twice
+     */
+    private void setTradingEnabled(boolean enabled) {
+        if (buyButton != null) {
+            buyButton.setDisable(!enabled);
+        }
+        if (sellButton != null) {
+            sellButton.setDisable(!enabled);
+        }
+    }
     
     // ============ PUBLIC STOCK SEARCH METHODS (ALL USERS) ============
     
@@ -849,17 +963,10 @@ public class DashboardController {
         
         publicSearchStatus.setText("Searching...");
         
-        // Run search in background thread to avoid blocking UI
-        new Thread(() -> {
-            ObservableList<com.example.stockvisualiser.model.ApiStockResult> results = 
-                stockDataService.searchStocks(keywords);
-            
-            // Update UI on JavaFX thread
-            javafx.application.Platform.runLater(() -> {
-                publicSearchResultsTable.setItems(results);
-                publicSearchStatus.setText("Found " + results.size() + " results");
-            });
-        }).start();
+        runInBackground(stockDataService.searchStocksAsync(keywords), results -> {
+            publicSearchResultsTable.setItems(results);
+            publicSearchStatus.setText("Found " + results.size() + " results");
+        }, error -> publicSearchStatus.setText("Search failed"));
     }
     
     /**
@@ -875,23 +982,34 @@ public class DashboardController {
             return;
         }
         
-        // Get current price for this stock
-        double currentPrice = stockDataService.getCurrentPrice(selected.getSymbol());
-        if (currentPrice == 0.0) {
-            currentPrice = 100.0; // Default price if can't fetch
-        }
-        
-        // Add to database
-        if (stockService.addStock(selected.getSymbol(), selected.getName(), "Unknown", currentPrice)) {
-            showAlert(Alert.AlertType.INFORMATION, "Success", 
-                     "Stock " + selected.getSymbol() + " added to your stocks!");
-            loadStocksTable();
-            publicSearchResultsTable.getItems().clear();
-            publicStockSearchField.clear();
+        publicSearchStatus.setText("Adding " + selected.getSymbol() + "...");
+
+        runInBackground(addApiStockAsync(selected), success -> {
+            if (success) {
+                showAlert(Alert.AlertType.INFORMATION, "Success", 
+                         "Stock " + selected.getSymbol() + " added to your stocks!");
+                loadStocksTable();
+                publicSearchResultsTable.getItems().clear();
+                publicStockSearchField.clear();
+                publicSearchStatus.setText("");
+            } else {
+                publicSearchStatus.setText("");
+                showError("Failed to add stock. It may already exist in your list.");
+            }
+        }, error -> {
             publicSearchStatus.setText("");
-        } else {
             showError("Failed to add stock. It may already exist in your list.");
-        }
+        });
+    }
+
+    /**
+     * Fetch the current price for a search result, then add it to the database
+     */
+    private CompletableFuture<Boolean> addApiStockAsync(com.example.stockvisualiser.model.ApiStockResult selected) {
+        return stockDataService.getCurrentPriceAsync(selected.getSymbol()).thenCompose(price -> {
+            double currentPrice = price == 0.0 ? 100.0 : price; // Default price if can't fetch
+            return stockService.addStockAsync(selected.getSymbol(), selected.getName(), "Unknown", currentPrice);
+        });
     }
     
     // ============ ADMIN PANEL METHODS ============
@@ -909,17 +1027,10 @@ public class DashboardController {
         
         apiSearchStatus.setText("Searching...");
         
-        // Run search in background thread to avoid blocking UI
-        new Thread(() -> {
-            ObservableList<com.example.stockvisualiser.model.ApiStockResult> results = 
-                stockDataService.searchStocks(keywords);
-            
-            // Update UI on JavaFX thread
-            javafx.application.Platform.runLater(() -> {
-                apiSearchResultsTable.setItems(results);
-                apiSearchStatus.setText("Found " + results.size() + " results");
-            });
-        }).start();
+        runInBackground(stockDataService.searchStocksAsync(keywords), results -> {
+            apiSearchResultsTable.setItems(results);
+            apiSearchStatus.setText("Found " + results.size() + " results");
+        }, error -> apiSearchStatus.setText("Search failed"));
     }
     
     /**
@@ -935,25 +1046,20 @@ public class DashboardController {
             return;
         }
         
-        // Get current price for this stock
-        double currentPrice = stockDataService.getCurrentPrice(selected.getSymbol());
-        if (currentPrice == 0.0) {
-            currentPrice = 100.0; // Default price if can't fetch
-        }
-        
-        // Add to database using StockService method signature
-        if (stockService.addStock(selected.getSymbol(), selected.getName(), "Unknown", currentPrice)) {
-            showAlert(Alert.AlertType.INFORMATION, "Success", 
-                     "Stock " + selected.getSymbol() + " added successfully!");
-            loadStocksTable();
-            adminStocksTable.setItems(allStocks);
-            updateAdminStats();
-            apiSearchResultsTable.getItems().clear();
-            stockSearchApiField.clear();
+        apiSearchStatus.setText("Adding " + selected.getSymbol() + "...");
+
+        runInBackground(addApiStockAsync(selected), success -> {
             apiSearchStatus.setText("");
-        } else {
-            showError("Failed to add stock. It may already exist.");
-        }
+            if (success) {
+                showAlert(Alert.AlertType.INFORMATION, "Success", 
+                         "Stock " + selected.getSymbol() + " added successfully!");
+                loadStocksTable();
+                apiSearchResultsTable.getItems().clear();
+                stockSearchApiField.clear();
+            } else {
+                showError("Failed to add stock. It may already exist.");
+            }
+        }, "Failed to add stock. It may already exist.");
     }
     
     /**
@@ -974,23 +1080,35 @@ public class DashboardController {
         
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                if (stockService.deleteStock(selected.getStockId())) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Stock deleted successfully!");
-                    loadStocksTable();
-                    adminStocksTable.setItems(allStocks);
-                    updateAdminStats();
-                } else {
-                    showError("Failed to delete stock");
-                }
+                runInBackground(stockService.deleteStockAsync(selected.getStockId()), success -> {
+                    if (success) {
+                        showAlert(Alert.AlertType.INFORMATION, "Success", "Stock deleted successfully!");
+                        loadStocksTable();
+                    } else {
+                        showError("Failed to delete stock");
+                    }
+                }, "Failed to delete stock");
             }
         });
     }
     
     /**
      * Refresh stock prices from API
+     * Runs as a PriceRefreshTask whose progress is shown on the loading indicator; choosing this
+     * again while it runs offers to stop it, and the outcome is reported once the fetched prices are saved.
      */
     @FXML
     private void handleRefreshStockPrices() {
+        if (priceRefreshTask != null && priceRefreshTask.isRunning()) {
+            Alert cancel = new Alert(Alert.AlertType.CONFIRMATION);
+            cancel.setTitle("Refresh Prices");
+            cancel.setHeaderText("Refresh in progress");
+            cancel.setContentText(priceRefreshTask.getMessage() + ". Cancel the refresh?");
+            cancel.showAndWait().filter(response -> response == ButtonType.OK)
+                .ifPresent(response -> priceRefreshTask.stop());
+            return;
+        }
+
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Refresh Prices");
         confirm.setHeaderText("Update Stock Prices");
@@ -998,22 +1116,56 @@ public class DashboardController {
         
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                int updated = 0;
+                Map<Integer, String> symbols = new HashMap<>();
                 for (Stock stock : allStocks) {
-                    double newPrice = stockDataService.getCurrentPrice(stock.getSymbol());
-                    if (newPrice > 0) {
-                        stock.setCurrentPrice(newPrice);
-                        stockService.updateStockPrice(stock.getStockId(), newPrice);
-                        updated++;
-                    }
+                    symbols.put(stock.getStockId(), stock.getSymbol());
                 }
-                
-                showAlert(Alert.AlertType.INFORMATION, "Success", 
-                         "Updated " + updated + " stock prices!");
-                loadStocksTable();
-                adminStocksTable.refresh();
+                startPriceRefresh(new PriceRefreshTask(stockService, stockDataService, symbols));
+            }
+        });
+    }
+
+    private void startPriceRefresh(PriceRefreshTask task) {
+        priceRefreshTask = task;
+        taskStarted();
+        if (loadingIndicator != null) {
+            loadingIndicator.progressProperty().bind(task.progressProperty());
+        }
+
+        task.setOnSucceeded(event -> {
+            priceRefreshFinished();
+            PriceRefreshTask.Result result = task.getValue();
+            String message = result.isCancelled()
+                ? "Saved the prices fetched before cancelling; updated " + result.getUpdated() + " stock prices."
+                : "Updated " + result.getUpdated() + " stock prices!";
+            if (result.getUnchanged() > 0) {
+                message += "\n" + result.getUnchanged() + " prices were already current.";
+            }
+            if (result.getStale() > 0) {
+                message += "\n" + result.getStale() + " quotes are from before the last market close.";
+            }
+            if (!result.getFailed().isEmpty()) {
+                message += "\nNo price available for: " + String.join(", ", result.getFailed());
             }
+            // The new prices stream into the rows on screen through livePrices
+            showAlert(Alert.AlertType.INFORMATION, result.isCancelled() ? "Refresh Cancelled" : "Success", message);
         });
+        task.setOnFailed(event -> {
+            priceRefreshFinished();
+            System.err.println("Price refresh failed: " + task.getException());
+            showError("Failed to refresh stock prices");
+        });
+
+        BackgroundTasks.start(task);
+    }
+
+    private void priceRefreshFinished() {
+        if (loadingIndicator != null) {
+            loadingIndicator.progressProperty().unbind();
+            loadingIndicator.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+        }
+        taskFinished();
+        priceRefreshTask = null;
     }
     
     /**
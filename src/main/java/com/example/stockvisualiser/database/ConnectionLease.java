@@ -0,0 +1,116 @@
+package com.example.stockvisualiser.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ConnectionLease - A connection borrowed from the ConnectionPool
+ * Must be closed (ideally with try-with-resources) to hand the connection back
+ */
+public class ConnectionLease implements AutoCloseable {
+    private final ConnectionPool pool;
+    private final PooledConnection connection;
+    private final boolean writer;
+    private boolean released;
+
+    ConnectionLease(ConnectionPool pool, PooledConnection connection, boolean writer) {
+        this.pool = pool;
+        this.connection = connection;
+        this.writer = writer;
+    }
+
+    /**
+     * Get the leased connection
+     * Callers must not close it; closing the lease returns it to the pool
+     */
+    public Connection getConnection() {
+        return connection.getConnection();
+    }
+
+    /**
+     * Get a cached prepared statement for the SQL text
+     * The statement stays owned by the connection's cache: close its ResultSets, never the statement
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return connection.getStatementCache().prepare(sql);
+    }
+
+    /**
+     * Start a read transaction on this reader lease
+     * Every query run through the lease afterwards sees the same consistent database snapshot,
+     * even if writers commit in between; the transaction ends when the lease is closed.
+     */
+    public void beginReadTransaction() throws SQLException {
+        if (writer) {
+            throw new SQLException("Read transactions are only available on reader leases");
+        }
+        Connection conn = getConnection();
+        if (conn.getAutoCommit()) {
+            conn.setAutoCommit(false);
+        }
+    }
+
+    /**
+     * Run a query and map every row
+     * The ResultSet is always closed, including when the mapper throws
+     */
+    public <T> List<T> query(String sql, ParameterBinder binder, RowMapper<T> mapper) throws SQLException {
+        PreparedStatement pstmt = prepare(sql);
+        binder.bind(pstmt);
+        List<T> rows = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                rows.add(mapper.map(rs));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Run a query and map the first row
+     * @return The mapped row, or null if the query returned nothing
+     */
+    public <T> T queryFirst(String sql, ParameterBinder binder, RowMapper<T> mapper) throws SQLException {
+        PreparedStatement pstmt = prepare(sql);
+        binder.bind(pstmt);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? mapper.map(rs) : null;
+        }
+    }
+
+    /**
+     * Run an INSERT, UPDATE or DELETE
+     * @return Number of rows affected
+     */
+    public int update(String sql, ParameterBinder binder) throws SQLException {
+        PreparedStatement pstmt = prepare(sql);
+        binder.bind(pstmt);
+        return pstmt.executeUpdate();
+    }
+
+    /**
+     * Check if this lease holds the writer connection
+     */
+    public boolean isWriter() {
+        return writer;
+    }
+
+    PooledConnection getPooledConnection() {
+        return connection;
+    }
+
+    /**
+     * Return the connection to the pool
+     */
+    @Override
+    public void close() {
+        if (!released) {
+            released = true;
+            pool.release(this);
+        }
+    }
+}
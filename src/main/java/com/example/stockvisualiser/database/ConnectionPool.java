@@ -0,0 +1,255 @@
+package com.example.stockvisualiser.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConnectionPool - Pool of SQLite connections with a reader/writer split
+ * Many read-only connections can be leased concurrently, while a single dedicated
+ * writer connection is leased exclusively. The writer lease is reentrant for the
+ * owning thread so nested service calls share the same transaction.
+ */
+public class ConnectionPool {
+    private final String url;
+    private final DatabaseProfile profile;
+    private final int maxReaders;
+    private final long acquireTimeoutMillis;
+    private final int statementCacheSize;
+
+    // Reader connections
+    private final LinkedBlockingQueue<PooledConnection> idleReaders = new LinkedBlockingQueue<>();
+    private final AtomicInteger openReaders = new AtomicInteger();
+    private final AtomicInteger activeReaders = new AtomicInteger();
+
+    // Writer connection
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private PooledConnection writer;
+
+    // Statistics
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, DatabaseProfile profile, int maxReaders, long acquireTimeoutMillis,
+                          int statementCacheSize) {
+        this.url = url;
+        this.profile = profile;
+        this.maxReaders = Math.max(1, maxReaders);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.statementCacheSize = Math.max(1, statementCacheSize);
+    }
+
+    /**
+     * Lease a read-only connection
+     * Opens a new connection while below the reader limit, otherwise waits for one to be returned
+     * @throws SQLException if the pool is closed or no reader becomes available in time
+     */
+    public ConnectionLease acquireReader() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+
+        PooledConnection connection = idleReaders.poll();
+        if (connection == null && reserveReaderSlot()) {
+            try {
+                connection = openConnection(true);
+            } catch (SQLException e) {
+                openReaders.decrementAndGet();
+                throw e;
+            }
+        }
+        if (connection == null) {
+            try {
+                connection = idleReaders.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a reader connection", e);
+            }
+            if (connection == null) {
+                timeouts.increment();
+                throw new SQLException("Timed out after " + acquireTimeoutMillis + "ms waiting for a reader connection");
+            }
+        }
+
+        activeReaders.incrementAndGet();
+        recordWait(start);
+        return new ConnectionLease(this, connection, false);
+    }
+
+    /**
+     * Lease the writer connection
+     * Blocks while another thread holds it; reentrant for the thread that already holds it
+     * @throws SQLException if the pool is closed or the writer does not become available in time
+     */
+    public ConnectionLease acquireWriter() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+
+        try {
+            if (!writerLock.tryLock(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLException("Timed out after " + acquireTimeoutMillis + "ms waiting for the writer connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the writer connection", e);
+        }
+
+        try {
+            if (writer == null || writer.isClosed()) {
+                writer = openConnection(false);
+            }
+        } catch (SQLException e) {
+            writerLock.unlock();
+            throw e;
+        }
+
+        recordWait(start);
+        return new ConnectionLease(this, writer, true);
+    }
+
+    /**
+     * Return a leased connection to the pool
+     */
+    void release(ConnectionLease lease) {
+        PooledConnection connection = lease.getPooledConnection();
+        if (lease.isWriter()) {
+            try {
+                // The outermost lease resets any transaction left open by the caller
+                if (writerLock.getHoldCount() == 1) {
+                    resetTransactionState(connection);
+                }
+            } finally {
+                writerLock.unlock();
+            }
+            return;
+        }
+
+        activeReaders.decrementAndGet();
+        resetTransactionState(connection);
+        if (closed || !idleReaders.offer(connection)) {
+            openReaders.decrementAndGet();
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Get the pragma profile applied to pooled connections
+     */
+    public DatabaseProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Get a snapshot of pool statistics
+     */
+    public PoolStats getStats() {
+        return new PoolStats(
+            openReaders.get(),
+            activeReaders.get(),
+            writerLock.isLocked(),
+            acquisitions.sum(),
+            timeouts.sum(),
+            totalWaitNanos.sum(),
+            maxWaitNanos.get(),
+            statementCounters.hits.sum(),
+            statementCounters.misses.sum(),
+            statementCounters.evictions.sum()
+        );
+    }
+
+    /**
+     * Close all idle connections and the writer
+     * Readers still on lease are closed when they are returned
+     */
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idleReaders.poll()) != null) {
+            openReaders.decrementAndGet();
+            closeQuietly(connection);
+        }
+
+        writerLock.lock();
+        try {
+            if (writer != null) {
+                closeQuietly(writer);
+                writer = null;
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    private PooledConnection openConnection(boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try {
+            profile.applyTo(connection, readOnly);
+            if (readOnly) {
+                // SQLite cannot switch read-only mode after opening, so enforce it per connection
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("PRAGMA query_only = ON");
+                }
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return new PooledConnection(connection, statementCacheSize, statementCounters);
+    }
+
+    private boolean reserveReaderSlot() {
+        int current;
+        do {
+            current = openReaders.get();
+            if (current >= maxReaders) {
+                return false;
+            }
+        } while (!openReaders.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void recordWait(long start) {
+        long waited = System.nanoTime() - start;
+        acquisitions.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    private void resetTransactionState(PooledConnection pooled) {
+        try {
+            Connection connection = pooled.getConnection();
+            if (!connection.isClosed() && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error resetting pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+    }
+
+    private void closeQuietly(PooledConnection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+}
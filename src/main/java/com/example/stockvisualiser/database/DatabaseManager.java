@@ -1,26 +1,33 @@
 package com.example.stockvisualiser.database;
 
+import com.example.stockvisualiser.util.EpochTime;
+
 import java.sql.*;
 import java.time.LocalDateTime;
 
 /**
- * DatabaseManager - Singleton class for managing SQLite database connection and operations
- * Implements the Singleton pattern to ensure only one database connection exists
+ * DatabaseManager - Singleton class for managing SQLite database connections and operations
+ * Implements the Singleton pattern to ensure only one connection pool exists
  */
 public class DatabaseManager {
     private static DatabaseManager instance;
-    private Connection connection;
-    private static final String DB_URL = "jdbc:sqlite:stockvisualiser.db";
+    private final ConnectionPool pool;
+    private static final String DB_URL = System.getProperty("stockvisualiser.db.url", "jdbc:sqlite:stockvisualiser.db");
+    private static final int MAX_READERS = Integer.getInteger("stockvisualiser.db.readers", 4);
+    private static final long ACQUIRE_TIMEOUT_MS = Long.getLong("stockvisualiser.db.acquireTimeoutMs", 5000);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("stockvisualiser.db.statementCacheSize", 64);
 
     /**
      * Private constructor to prevent instantiation
-     * Initializes database connection and creates tables
+     * Initializes the connection pool and migrates the schema
      */
     private DatabaseManager() {
-        try {
-            connection = DriverManager.getConnection(DB_URL);
-            createTables();
-            System.out.println("Database connection established successfully.");
+        DatabaseProfile profile = DatabaseProfile.fromSystemProperties();
+        pool = new ConnectionPool(DB_URL, profile, MAX_READERS, ACQUIRE_TIMEOUT_MS, STATEMENT_CACHE_SIZE);
+        // Open the writer first so the journal mode is switched before any reader connects
+        try (ConnectionLease lease = pool.acquireWriter()) {
+            createTables(lease.getConnection());
+            System.out.println("Database connection established successfully (" + profile + ").");
         } catch (SQLException e) {
             System.err.println("Error connecting to database: " + e.getMessage());
             e.printStackTrace();
@@ -39,103 +46,50 @@ public class DatabaseManager {
     }
 
     /**
-     * Get the database connection
-     * @return Connection object
+     * Lease a read-only connection from the pool
+     * Close the lease (try-with-resources) to return the connection
+     * @return ConnectionLease for a reader connection
+     */
+    public ConnectionLease acquireReader() throws SQLException {
+        return pool.acquireReader();
+    }
+
+    /**
+     * Lease the dedicated writer connection
+     * Nested leases on the same thread share the connection and its transaction
+     * @return ConnectionLease for the writer connection
+     */
+    public ConnectionLease acquireWriter() throws SQLException {
+        return pool.acquireWriter();
+    }
+
+    /**
+     * Get the pragma profile applied to every connection
      */
-    public Connection getConnection() {
-        return connection;
+    public DatabaseProfile getProfile() {
+        return pool.getProfile();
     }
 
     /**
-     * Create all necessary database tables
+     * Get connection pool statistics (wait time, active leases, timeouts, statement cache hits/misses)
      */
-    private void createTables() {
+    public PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Bring the schema up to the latest version, then seed default data
+     */
+    private void createTables(Connection connection) {
         try {
-            Statement stmt = connection.createStatement();
-
-            // Users table with role-based access
-            String usersTable = """
-                CREATE TABLE IF NOT EXISTS users (
-                    user_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    username TEXT UNIQUE NOT NULL,
-                    password_hash TEXT NOT NULL,
-                    email TEXT UNIQUE NOT NULL,
-                    full_name TEXT NOT NULL,
-                    role TEXT NOT NULL CHECK(role IN ('ADMIN', 'TRADER')),
-                    created_at TEXT NOT NULL,
-                    last_login TEXT
-                );
-            """;
-
-            // Stocks table for storing stock information
-            String stocksTable = """
-                CREATE TABLE IF NOT EXISTS stocks (
-                    stock_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    symbol TEXT UNIQUE NOT NULL,
-                    company_name TEXT NOT NULL,
-                    sector TEXT,
-                    current_price REAL NOT NULL,
-                    last_updated TEXT NOT NULL
-                );
-            """;
-
-            // Portfolio table for user's stock holdings
-            String portfolioTable = """
-                CREATE TABLE IF NOT EXISTS portfolio (
-                    portfolio_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    user_id INTEGER NOT NULL,
-                    stock_id INTEGER NOT NULL,
-                    quantity INTEGER NOT NULL,
-                    purchase_price REAL NOT NULL,
-                    purchase_date TEXT NOT NULL,
-                    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
-                    FOREIGN KEY (stock_id) REFERENCES stocks(stock_id) ON DELETE CASCADE
-                );
-            """;
-
-            // Transactions table for buy/sell history
-            String transactionsTable = """
-                CREATE TABLE IF NOT EXISTS transactions (
-                    transaction_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    user_id INTEGER NOT NULL,
-                    stock_id INTEGER NOT NULL,
-                    transaction_type TEXT NOT NULL CHECK(transaction_type IN ('BUY', 'SELL')),
-                    quantity INTEGER NOT NULL,
-                    price_per_share REAL NOT NULL,
-                    total_amount REAL NOT NULL,
-                    transaction_date TEXT NOT NULL,
-                    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
-                    FOREIGN KEY (stock_id) REFERENCES stocks(stock_id) ON DELETE CASCADE
-                );
-            """;
-
-            // Watchlist table for stocks user wants to monitor
-            String watchlistTable = """
-                CREATE TABLE IF NOT EXISTS watchlist (
-                    watchlist_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    user_id INTEGER NOT NULL,
-                    stock_id INTEGER NOT NULL,
-                    added_date TEXT NOT NULL,
-                    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
-                    FOREIGN KEY (stock_id) REFERENCES stocks(stock_id) ON DELETE CASCADE,
-                    UNIQUE(user_id, stock_id)
-                );
-            """;
-
-            // Execute table creation
-            stmt.execute(usersTable);
-            stmt.execute(stocksTable);
-            stmt.execute(portfolioTable);
-            stmt.execute(transactionsTable);
-            stmt.execute(watchlistTable);
+            int version = new SchemaMigrator(SchemaMigrations.all()).migrate(connection);
 
             // Insert default admin user and sample stocks
-            insertDefaultData();
+            insertDefaultData(connection);
 
-            stmt.close();
-            System.out.println("Database tables created successfully.");
+            System.out.println("Database schema is at version " + version + ".");
         } catch (SQLException e) {
-            System.err.println("Error creating tables: " + e.getMessage());
+            System.err.println("Error migrating database schema: " + e.getMessage());
             e.printStackTrace();
         }
     }
@@ -143,7 +97,7 @@ public class DatabaseManager {
     /**
      * Insert default data for testing and demonstration
      */
-    private void insertDefaultData() {
+    private void insertDefaultData(Connection connection) {
         try {
             // Check if admin exists
             String checkAdmin = "SELECT COUNT(*) FROM users WHERE username = 'admin'";
@@ -217,7 +171,7 @@ public class DatabaseManager {
                     pstmt.setString(2, stock[1]);
                     pstmt.setString(3, stock[2]);
                     pstmt.setDouble(4, Double.parseDouble(stock[3]));
-                    pstmt.setString(5, LocalDateTime.now().toString());
+                    pstmt.setLong(5, EpochTime.nowMillis());
                     pstmt.executeUpdate();
                     pstmt.close();
                 }
@@ -233,17 +187,11 @@ public class DatabaseManager {
     }
 
     /**
-     * Close the database connection
+     * Close all pooled database connections
      */
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
-            e.printStackTrace();
-        }
+        System.out.println("Closing database connections: " + pool.getStats());
+        pool.close();
+        System.out.println("Database connection closed.");
     }
 }
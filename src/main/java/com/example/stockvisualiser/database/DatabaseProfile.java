@@ -0,0 +1,154 @@
+package com.example.stockvisualiser.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * DatabaseProfile - SQLite pragma settings applied to every pooled connection when it is opened
+ * Ships with a "durable" preset (fsync on every commit) and a "fast" preset (fsync at checkpoints).
+ * Select a preset with -Dstockvisualiser.db.profile=durable|fast and override single pragmas
+ * with the matching property, e.g. -Dstockvisualiser.db.synchronous=FULL
+ */
+public class DatabaseProfile {
+    private static final String PROPERTY_PREFIX = "stockvisualiser.db.";
+
+    /**
+     * SQLite journal modes
+     */
+    public enum JournalMode {
+        DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF
+    }
+
+    /**
+     * SQLite synchronous levels
+     */
+    public enum Synchronous {
+        OFF, NORMAL, FULL, EXTRA
+    }
+
+    /**
+     * SQLite temporary storage locations
+     */
+    public enum TempStore {
+        DEFAULT, FILE, MEMORY
+    }
+
+    /**
+     * Safest settings: WAL for reader/writer concurrency, but a full fsync on every commit
+     */
+    public static final DatabaseProfile DURABLE = new DatabaseProfile(
+        "durable", JournalMode.WAL, Synchronous.FULL, 16 * 1024, 64L * 1024 * 1024,
+        TempStore.MEMORY, 5000, true
+    );
+
+    /**
+     * Fastest safe settings: WAL with synchronous=NORMAL only syncs at checkpoints,
+     * so a power loss may drop the last commits but never corrupts the database
+     */
+    public static final DatabaseProfile FAST = new DatabaseProfile(
+        "fast", JournalMode.WAL, Synchronous.NORMAL, 64 * 1024, 256L * 1024 * 1024,
+        TempStore.MEMORY, 5000, true
+    );
+
+    private final String name;
+    private final JournalMode journalMode;
+    private final Synchronous synchronous;
+    private final int cacheSizeKib;
+    private final long mmapSizeBytes;
+    private final TempStore tempStore;
+    private final int busyTimeoutMillis;
+    private final boolean foreignKeys;
+
+    public DatabaseProfile(String name, JournalMode journalMode, Synchronous synchronous, int cacheSizeKib,
+                           long mmapSizeBytes, TempStore tempStore, int busyTimeoutMillis, boolean foreignKeys) {
+        this.name = name;
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSizeKib = cacheSizeKib;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.tempStore = tempStore;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.foreignKeys = foreignKeys;
+    }
+
+    /**
+     * Look up a preset by name
+     * @throws IllegalArgumentException if no preset has that name
+     */
+    public static DatabaseProfile forName(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "durable" -> DURABLE;
+            case "fast" -> FAST;
+            default -> throw new IllegalArgumentException("Unknown database profile: " + name);
+        };
+    }
+
+    /**
+     * Build the profile selected by system properties
+     * Starts from the named preset (durable by default) and applies any per-pragma overrides
+     */
+    public static DatabaseProfile fromSystemProperties() {
+        DatabaseProfile preset = forName(System.getProperty(PROPERTY_PREFIX + "profile", DURABLE.name));
+        return new DatabaseProfile(
+            preset.name,
+            enumProperty("journalMode", JournalMode.class, preset.journalMode),
+            enumProperty("synchronous", Synchronous.class, preset.synchronous),
+            Integer.getInteger(PROPERTY_PREFIX + "cacheSizeKib", preset.cacheSizeKib),
+            Long.getLong(PROPERTY_PREFIX + "mmapSizeBytes", preset.mmapSizeBytes),
+            enumProperty("tempStore", TempStore.class, preset.tempStore),
+            Integer.getInteger(PROPERTY_PREFIX + "busyTimeoutMs", preset.busyTimeoutMillis),
+            Boolean.parseBoolean(System.getProperty(PROPERTY_PREFIX + "foreignKeys", String.valueOf(preset.foreignKeys)))
+        );
+    }
+
+    /**
+     * Apply the pragmas to a freshly opened connection
+     * The journal mode is a property of the database file, so only the writer sets it
+     * @param connection Newly opened connection
+     * @param readOnly true for reader connections
+     */
+    public void applyTo(Connection connection, boolean readOnly) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            // Set busy_timeout first so the remaining pragmas wait out a concurrent writer
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            if (!readOnly) {
+                try (ResultSet rs = stmt.executeQuery("PRAGMA journal_mode = " + journalMode)) {
+                    if (rs.next() && !journalMode.name().equalsIgnoreCase(rs.getString(1))) {
+                        System.err.println("SQLite refused journal_mode " + journalMode + ", using " + rs.getString(1));
+                    }
+                }
+            }
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            // A negative cache_size is interpreted by SQLite as KiB instead of pages
+            stmt.execute("PRAGMA cache_size = " + (-cacheSizeKib));
+            stmt.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+            stmt.execute("PRAGMA foreign_keys = " + (foreignKeys ? "ON" : "OFF"));
+        }
+    }
+
+    private static <E extends Enum<E>> E enumProperty(String key, Class<E> type, E defaultValue) {
+        String value = System.getProperty(PROPERTY_PREFIX + key);
+        return value == null ? defaultValue : Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public String getName() { return name; }
+    public JournalMode getJournalMode() { return journalMode; }
+    public Synchronous getSynchronous() { return synchronous; }
+    public int getCacheSizeKib() { return cacheSizeKib; }
+    public long getMmapSizeBytes() { return mmapSizeBytes; }
+    public TempStore getTempStore() { return tempStore; }
+    public int getBusyTimeoutMillis() { return busyTimeoutMillis; }
+    public boolean isForeignKeys() { return foreignKeys; }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "DatabaseProfile[%s: journal_mode=%s, synchronous=%s, cache_size=%dKiB, mmap_size=%d, temp_store=%s, busy_timeout=%dms, foreign_keys=%s]",
+            name, journalMode, synchronous, cacheSizeKib, mmapSizeBytes, tempStore, busyTimeoutMillis, foreignKeys ? "ON" : "OFF"
+        );
+    }
+}
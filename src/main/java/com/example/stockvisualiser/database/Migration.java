@@ -0,0 +1,70 @@
+package com.example.stockvisualiser.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Migration - A single versioned schema change applied by the SchemaMigrator
+ */
+public class Migration {
+    private final int version;
+    private final String description;
+    private final boolean foreignKeysDisabled;
+    private final Step step;
+
+    /**
+     * Work performed by a migration inside its own transaction
+     */
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    public Migration(int version, String description, Step step) {
+        this(version, description, false, step);
+    }
+
+    /**
+     * @param foreignKeysDisabled Run with foreign key enforcement off, as required when rebuilding a
+     *                            table that other tables reference; integrity is re-checked before commit
+     */
+    public Migration(int version, String description, boolean foreignKeysDisabled, Step step) {
+        this.version = version;
+        this.description = description;
+        this.foreignKeysDisabled = foreignKeysDisabled;
+        this.step = step;
+    }
+
+    /**
+     * Create a migration that executes a fixed list of SQL statements in order
+     */
+    public static Migration ofStatements(int version, String description, String... statements) {
+        return new Migration(version, description, executeAll(statements));
+    }
+
+    /**
+     * Create a table-rebuild migration that executes its statements with foreign keys disabled
+     */
+    public static Migration ofRebuildStatements(int version, String description, String... statements) {
+        return new Migration(version, description, true, executeAll(statements));
+    }
+
+    private static Step executeAll(String... statements) {
+        return connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : statements) {
+                    stmt.execute(sql);
+                }
+            }
+        };
+    }
+
+    public int getVersion() { return version; }
+    public String getDescription() { return description; }
+    public boolean isForeignKeysDisabled() { return foreignKeysDisabled; }
+
+    void apply(Connection connection) throws SQLException {
+        step.apply(connection);
+    }
+}
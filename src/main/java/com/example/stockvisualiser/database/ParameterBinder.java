@@ -0,0 +1,14 @@
+package com.example.stockvisualiser.database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * ParameterBinder - Sets the parameters of a prepared statement before it runs
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+    ParameterBinder NONE = pstmt -> { };
+
+    void bind(PreparedStatement pstmt) throws SQLException;
+}
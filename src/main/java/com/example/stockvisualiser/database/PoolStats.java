@@ -0,0 +1,70 @@
+package com.example.stockvisualiser.database;
+
+/**
+ * PoolStats - Point-in-time snapshot of ConnectionPool usage
+ */
+public class PoolStats {
+    private final int openReaders;
+    private final int activeReaders;
+    private final boolean writerActive;
+    private final long acquisitions;
+    private final long timeouts;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    public PoolStats(int openReaders, int activeReaders, boolean writerActive, long acquisitions,
+                     long timeouts, long totalWaitNanos, long maxWaitNanos,
+                     long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+        this.openReaders = openReaders;
+        this.activeReaders = activeReaders;
+        this.writerActive = writerActive;
+        this.acquisitions = acquisitions;
+        this.timeouts = timeouts;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+    public int getOpenReaders() { return openReaders; }
+    public int getActiveReaders() { return activeReaders; }
+    public boolean isWriterActive() { return writerActive; }
+    public int getActiveLeases() { return activeReaders + (writerActive ? 1 : 0); }
+    public long getAcquisitions() { return acquisitions; }
+    public long getTimeouts() { return timeouts; }
+    public long getTotalWaitNanos() { return totalWaitNanos; }
+    public long getMaxWaitNanos() { return maxWaitNanos; }
+    public long getStatementCacheHits() { return statementCacheHits; }
+    public long getStatementCacheMisses() { return statementCacheMisses; }
+    public long getStatementCacheEvictions() { return statementCacheEvictions; }
+
+    /**
+     * Fraction of statement lookups served from the cache
+     */
+    public double getStatementCacheHitRatio() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0.0 : statementCacheHits / (double) lookups;
+    }
+
+    /**
+     * Average time spent waiting for a lease, in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        return acquisitions == 0 ? 0.0 : (totalWaitNanos / (double) acquisitions) / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "PoolStats[readers=%d/%d active, writer=%s, acquisitions=%d, timeouts=%d, avgWait=%.3fms, maxWait=%.3fms, "
+                + "statements: hits=%d, misses=%d, evictions=%d, hitRatio=%.1f%%]",
+            activeReaders, openReaders, writerActive ? "busy" : "idle", acquisitions, timeouts,
+            getAverageWaitMillis(), maxWaitNanos / 1_000_000.0,
+            statementCacheHits, statementCacheMisses, statementCacheEvictions, getStatementCacheHitRatio() * 100
+        );
+    }
+}
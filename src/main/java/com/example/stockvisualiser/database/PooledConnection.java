@@ -0,0 +1,34 @@
+package com.example.stockvisualiser.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * PooledConnection - A physical connection owned by the pool together with its statement cache
+ */
+class PooledConnection {
+    private final Connection connection;
+    private final StatementCache statementCache;
+
+    PooledConnection(Connection connection, int statementCacheSize, StatementCache.Counters counters) {
+        this.connection = connection;
+        this.statementCache = new StatementCache(connection, statementCacheSize, counters);
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    boolean isClosed() throws SQLException {
+        return connection.isClosed();
+    }
+
+    void close() throws SQLException {
+        statementCache.clear();
+        connection.close();
+    }
+}
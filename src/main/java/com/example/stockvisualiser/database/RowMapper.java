@@ -0,0 +1,13 @@
+package com.example.stockvisualiser.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowMapper - Maps the current row of a ResultSet to an object
+ * Mappers read columns by position, so they must be paired with the explicit column list they were written for
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
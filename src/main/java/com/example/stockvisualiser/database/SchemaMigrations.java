@@ -0,0 +1,332 @@
+package com.example.stockvisualiser.database;
+
+import java.util.List;
+
+/**
+ * SchemaMigrations - Ordered list of every schema version shipped with the application
+ * Never edit a released migration; add a new version instead so existing databases upgrade in place
+ */
+public final class SchemaMigrations {
+
+    private SchemaMigrations() {
+    }
+
+    /**
+     * Get all migrations in version order
+     */
+    public static List<Migration> all() {
+        return List.of(
+            baseline(),
+            hotPathIndexes(),
+            epochTimestamps(),
+            stockFullTextSearch(),
+            priceHistory(),
+            apiRequestLog()
+        );
+    }
+
+    /**
+     * Version 1 - the original tables
+     * Uses IF NOT EXISTS so databases created before versioning adopt it as their baseline
+     */
+    private static Migration baseline() {
+        // Users table with role-based access
+        String usersTable = """
+            CREATE TABLE IF NOT EXISTS users (
+                user_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                username TEXT UNIQUE NOT NULL,
+                password_hash TEXT NOT NULL,
+                email TEXT UNIQUE NOT NULL,
+                full_name TEXT NOT NULL,
+                role TEXT NOT NULL CHECK(role IN ('ADMIN', 'TRADER')),
+                created_at TEXT NOT NULL,
+                last_login TEXT
+            );
+        """;
+
+        // Stocks table for storing stock information
+        String stocksTable = """
+            CREATE TABLE IF NOT EXISTS stocks (
+                stock_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                symbol TEXT UNIQUE NOT NULL,
+                company_name TEXT NOT NULL,
+                sector TEXT,
+                current_price REAL NOT NULL,
+                last_updated TEXT NOT NULL
+            );
+        """;
+
+        // Portfolio table for user's stock holdings
+        String portfolioTable = """
+            CREATE TABLE IF NOT EXISTS portfolio (
+                portfolio_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id INTEGER NOT NULL,
+                stock_id INTEGER NOT NULL,
+                quantity INTEGER NOT NULL,
+                purchase_price REAL NOT NULL,
+                purchase_date TEXT NOT NULL,
+                FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
+                FOREIGN KEY (stock_id) REFERENCES stocks(stock_id) ON DELETE CASCADE
+            );
+        """;
+
+        // Transactions table for buy/sell history
+        String transactionsTable = """
+            CREATE TABLE IF NOT EXISTS transactions (
+                transaction_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id INTEGER NOT NULL,
+                stock_id INTEGER NOT NULL,
+                transaction_type TEXT NOT NULL CHECK(transaction_type IN ('BUY', 'SELL')),
+                quantity INTEGER NOT NULL,
+                price_per_share REAL NOT NULL,
+                total_amount REAL NOT NULL,
+                transaction_date TEXT NOT NULL,
+                FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
+                FOREIGN KEY (stock_id) REFERENCES stocks(stock_id) ON DELETE CASCADE
+            );
+        """;
+
+        // Watchlist table for stocks user wants to monitor
+        String watchlistTable = """
+            CREATE TABLE IF NOT EXISTS watchlist (
+                watchlist_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id INTEGER NOT NULL,
+                stock_id INTEGER NOT NULL,
+                added_date TEXT NOT NULL,
+                FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
+                FOREIGN KEY (stock_id) REFERENCES stocks(stock_id) ON DELETE CASCADE,
+                UNIQUE(user_id, stock_id)
+            );
+        """;
+
+        return Migration.ofStatements(1, "Baseline tables",
+            usersTable, stocksTable, portfolioTable, transactionsTable, watchlistTable);
+    }
+
+    /**
+     * Version 2 - secondary indexes for the hottest lookups
+     */
+    private static Migration hotPathIndexes() {
+        return Migration.ofStatements(2, "Hot-path indexes",
+            // buyStock/sellStock holding lookup; covers quantity and purchase_price so the table is never read
+            "CREATE INDEX IF NOT EXISTS idx_portfolio_user_stock ON portfolio(user_id, stock_id, quantity, purchase_price)",
+            // Transaction history is always read per user, newest first
+            "CREATE INDEX IF NOT EXISTS idx_transactions_user_date ON transactions(user_id, transaction_date DESC)",
+            // Watchlist is read per user, newest first
+            "CREATE INDEX IF NOT EXISTS idx_watchlist_user_date ON watchlist(user_id, added_date DESC)"
+        );
+    }
+
+    // Conversions from the ISO-8601 text written by earlier versions (local time) to epoch values.
+    // Unparseable values fall back to the migration time rather than failing the upgrade.
+    private static final String NOW_MILLIS = "CAST(ROUND((julianday('now') - 2440587.5) * 86400000) AS INTEGER)";
+    private static final String TODAY_DAY = "CAST(julianday('now', 'localtime') - 2440587.5 AS INTEGER)";
+
+    private static String toEpochMillis(String column) {
+        return "COALESCE(CAST(ROUND((julianday(" + column + ", 'utc') - 2440587.5) * 86400000) AS INTEGER), "
+            + NOW_MILLIS + ")";
+    }
+
+    private static String toEpochDay(String column) {
+        return "COALESCE(CAST(julianday(" + column + ") - 2440587.5 AS INTEGER), " + TODAY_DAY + ")";
+    }
+
+    /**
+     * Carry the AUTOINCREMENT counter over so ids of deleted rows are never reused
+     * Runs after the rows are copied: the INSERT ... SELECT has already created the new table's
+     * counter, even for an empty table, at max(id), which is lower than the old counter if the
+     * newest rows were deleted.
+     */
+    private static String raiseSequence(String table) {
+        return "UPDATE sqlite_sequence SET seq = MAX(seq, (SELECT seq FROM sqlite_sequence WHERE name = '" + table
+            + "')) WHERE name = '" + table + "_new' AND EXISTS (SELECT 1 FROM sqlite_sequence WHERE name = '" + table + "')";
+    }
+
+    /**
+     * Version 3 - store timestamps as INTEGER epoch milliseconds and dates as INTEGER epoch days
+     * SQLite cannot change a column type in place, so each table is rebuilt and its indexes recreated.
+     */
+    private static Migration epochTimestamps() {
+        String stocksTable = """
+            CREATE TABLE stocks_new (
+                stock_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                symbol TEXT UNIQUE NOT NULL,
+                company_name TEXT NOT NULL,
+                sector TEXT,
+                current_price REAL NOT NULL,
+                last_updated INTEGER NOT NULL
+            );
+        """;
+
+        String portfolioTable = """
+            CREATE TABLE portfolio_new (
+                portfolio_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id INTEGER NOT NULL,
+                stock_id INTEGER NOT NULL,
+                quantity INTEGER NOT NULL,
+                purchase_price REAL NOT NULL,
+                purchase_date INTEGER NOT NULL,
+                FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
+                FOREIGN KEY (stock_id) REFERENCES stocks(stock_id) ON DELETE CASCADE
+            );
+        """;
+
+        String transactionsTable = """
+            CREATE TABLE transactions_new (
+                transaction_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id INTEGER NOT NULL,
+                stock_id INTEGER NOT NULL,
+                transaction_type TEXT NOT NULL CHECK(transaction_type IN ('BUY', 'SELL')),
+                quantity INTEGER NOT NULL,
+                price_per_share REAL NOT NULL,
+                total_amount REAL NOT NULL,
+                transaction_date INTEGER NOT NULL,
+                FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
+                FOREIGN KEY (stock_id) REFERENCES stocks(stock_id) ON DELETE CASCADE
+            );
+        """;
+
+        String watchlistTable = """
+            CREATE TABLE watchlist_new (
+                watchlist_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id INTEGER NOT NULL,
+                stock_id INTEGER NOT NULL,
+                added_date INTEGER NOT NULL,
+                FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
+                FOREIGN KEY (stock_id) REFERENCES stocks(stock_id) ON DELETE CASCADE,
+                UNIQUE(user_id, stock_id)
+            );
+        """;
+
+        return Migration.ofRebuildStatements(3, "Epoch timestamps",
+            stocksTable,
+            "INSERT INTO stocks_new (stock_id, symbol, company_name, sector, current_price, last_updated) "
+                + "SELECT stock_id, symbol, company_name, sector, current_price, " + toEpochMillis("last_updated")
+                + " FROM stocks",
+            raiseSequence("stocks"),
+            "DROP TABLE stocks",
+            "ALTER TABLE stocks_new RENAME TO stocks",
+
+            portfolioTable,
+            "INSERT INTO portfolio_new (portfolio_id, user_id, stock_id, quantity, purchase_price, purchase_date) "
+                + "SELECT portfolio_id, user_id, stock_id, quantity, purchase_price, " + toEpochDay("purchase_date")
+                + " FROM portfolio",
+            raiseSequence("portfolio"),
+            "DROP TABLE portfolio",
+            "ALTER TABLE portfolio_new RENAME TO portfolio",
+
+            transactionsTable,
+            "INSERT INTO transactions_new (transaction_id, user_id, stock_id, transaction_type, quantity, "
+                + "price_per_share, total_amount, transaction_date) "
+                + "SELECT transaction_id, user_id, stock_id, transaction_type, quantity, price_per_share, total_amount, "
+                + toEpochMillis("transaction_date") + " FROM transactions",
+            raiseSequence("transactions"),
+            "DROP TABLE transactions",
+            "ALTER TABLE transactions_new RENAME TO transactions",
+
+            watchlistTable,
+            "INSERT INTO watchlist_new (watchlist_id, user_id, stock_id, added_date) "
+                + "SELECT watchlist_id, user_id, stock_id, " + toEpochDay("added_date") + " FROM watchlist",
+            raiseSequence("watchlist"),
+            "DROP TABLE watchlist",
+            "ALTER TABLE watchlist_new RENAME TO watchlist",
+
+            // Dropping the old tables dropped their indexes; the date columns are now integers
+            "CREATE INDEX idx_portfolio_user_stock ON portfolio(user_id, stock_id, quantity, purchase_price)",
+            "CREATE INDEX idx_portfolio_user_date ON portfolio(user_id, purchase_date DESC)",
+            "CREATE INDEX idx_transactions_user_date ON transactions(user_id, transaction_date DESC)",
+            "CREATE INDEX idx_watchlist_user_date ON watchlist(user_id, added_date DESC)"
+        );
+    }
+
+    /**
+     * Version 4 - FTS5 index over stock symbol, company name and sector
+     * External-content table: the text lives only in stocks and triggers keep the index in step.
+     * Price updates do not touch the indexed columns, so they never fire the update trigger.
+     */
+    private static Migration stockFullTextSearch() {
+        String ftsTable = """
+            CREATE VIRTUAL TABLE stocks_fts USING fts5(
+                symbol, company_name, sector,
+                content = 'stocks', content_rowid = 'stock_id',
+                tokenize = 'unicode61', prefix = '2 3 4'
+            );
+        """;
+
+        String insertTrigger = """
+            CREATE TRIGGER stocks_fts_insert AFTER INSERT ON stocks BEGIN
+                INSERT INTO stocks_fts (rowid, symbol, company_name, sector)
+                VALUES (new.stock_id, new.symbol, new.company_name, new.sector);
+            END;
+        """;
+
+        String deleteTrigger = """
+            CREATE TRIGGER stocks_fts_delete AFTER DELETE ON stocks BEGIN
+                INSERT INTO stocks_fts (stocks_fts, rowid, symbol, company_name, sector)
+                VALUES ('delete', old.stock_id, old.symbol, old.company_name, old.sector);
+            END;
+        """;
+
+        String updateTrigger = """
+            CREATE TRIGGER stocks_fts_update AFTER UPDATE OF symbol, company_name, sector ON stocks BEGIN
+                INSERT INTO stocks_fts (stocks_fts, rowid, symbol, company_name, sector)
+                VALUES ('delete', old.stock_id, old.symbol, old.company_name, old.sector);
+                INSERT INTO stocks_fts (rowid, symbol, company_name, sector)
+                VALUES (new.stock_id, new.symbol, new.company_name, new.sector);
+            END;
+        """;
+
+        return Migration.ofStatements(4, "Stock full-text search",
+            ftsTable, insertTrigger, deleteTrigger, updateTrigger,
+            // Index the rows that already exist
+            "INSERT INTO stocks_fts (stocks_fts) VALUES ('rebuild')"
+        );
+    }
+
+    /**
+     * Version 5 - daily price bars stored locally
+     * Charts read from price_history and only ask the API for bars newer than the last stored one;
+     * price_history_sync remembers when each stock was last synced so an up-to-date stock is not
+     * fetched again before the next market close.
+     */
+    private static Migration priceHistory() {
+        String priceHistoryTable = """
+            CREATE TABLE price_history (
+                stock_id INTEGER NOT NULL,
+                date INTEGER NOT NULL,
+                open REAL NOT NULL,
+                high REAL NOT NULL,
+                low REAL NOT NULL,
+                close REAL NOT NULL,
+                volume INTEGER NOT NULL,
+                PRIMARY KEY (stock_id, date),
+                FOREIGN KEY (stock_id) REFERENCES stocks(stock_id) ON DELETE CASCADE
+            ) WITHOUT ROWID;
+        """;
+
+        String syncTable = """
+            CREATE TABLE price_history_sync (
+                stock_id INTEGER PRIMARY KEY,
+                synced_at INTEGER NOT NULL,
+                FOREIGN KEY (stock_id) REFERENCES stocks(stock_id) ON DELETE CASCADE
+            );
+        """;
+
+        return Migration.ofStatements(5, "Price history", priceHistoryTable, syncTable);
+    }
+
+    /**
+     * Version 6 - log of Alpha Vantage requests sent today
+     * Lets ApiRequestScheduler restore the per-minute and per-day quota after a restart
+     */
+    private static Migration apiRequestLog() {
+        String logTable = """
+            CREATE TABLE api_request_log (
+                requested_at INTEGER NOT NULL,
+                priority TEXT NOT NULL
+            );
+        """;
+
+        return Migration.ofStatements(6, "API request log", logTable);
+    }
+}
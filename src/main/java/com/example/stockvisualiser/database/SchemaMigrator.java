@@ -0,0 +1,139 @@
+package com.example.stockvisualiser.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * SchemaMigrator - Upgrades the database schema in place
+ * The current version is tracked in the schema_version table; every pending migration
+ * runs in its own transaction and is recorded once it commits.
+ */
+public class SchemaMigrator {
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(List<Migration> migrations) {
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(Migration::getVersion));
+    }
+
+    /**
+     * Apply all migrations newer than the recorded schema version
+     * @param connection Writer connection
+     * @return The schema version after migrating
+     */
+    public int migrate(Connection connection) throws SQLException {
+        createVersionTable(connection);
+        int currentVersion = getCurrentVersion(connection);
+        int applied = 0;
+
+        for (Migration migration : migrations) {
+            if (migration.getVersion() <= currentVersion) {
+                continue;
+            }
+
+            // foreign_keys is a no-op inside a transaction, so it has to be switched before BEGIN
+            boolean foreignKeys = foreignKeysEnabled(connection);
+            if (migration.isForeignKeysDisabled() && foreignKeys) {
+                setForeignKeys(connection, false);
+            }
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                migration.apply(connection);
+                if (migration.isForeignKeysDisabled()) {
+                    checkForeignKeys(connection);
+                }
+                recordVersion(connection, migration);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw new SQLException("Migration " + migration.getVersion() + " (" + migration.getDescription()
+                    + ") failed: " + e.getMessage(), e);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+                if (migration.isForeignKeysDisabled() && foreignKeys) {
+                    setForeignKeys(connection, true);
+                }
+            }
+
+            currentVersion = migration.getVersion();
+            applied++;
+            System.out.println("Applied schema migration " + currentVersion + ": " + migration.getDescription());
+        }
+
+        if (applied > 0) {
+            // Refresh query planner statistics for the new schema
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA optimize");
+            }
+        }
+        return currentVersion;
+    }
+
+    /**
+     * Get the highest applied schema version, or 0 for a new database
+     */
+    public int getCurrentVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private boolean foreignKeysEnabled(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA foreign_keys")) {
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+
+    private void setForeignKeys(Connection connection, boolean enabled) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = " + (enabled ? "ON" : "OFF"));
+        }
+    }
+
+    /**
+     * Fail the migration if a rebuild left rows pointing at missing parents
+     */
+    private void checkForeignKeys(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_check")) {
+            if (rs.next()) {
+                throw new SQLException("Foreign key violation in table " + rs.getString("table")
+                    + " (rowid " + rs.getLong("rowid") + ")");
+            }
+        }
+    }
+
+    private void createVersionTable(Connection connection) throws SQLException {
+        String versionTable = """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INTEGER PRIMARY KEY,
+                description TEXT NOT NULL,
+                applied_at TEXT NOT NULL
+            );
+        """;
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(versionTable);
+        }
+    }
+
+    private void recordVersion(Connection connection, Migration migration) throws SQLException {
+        String insert = "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = connection.prepareStatement(insert)) {
+            pstmt.setInt(1, migration.getVersion());
+            pstmt.setString(2, migration.getDescription());
+            pstmt.setString(3, LocalDateTime.now().toString());
+            pstmt.executeUpdate();
+        }
+    }
+}
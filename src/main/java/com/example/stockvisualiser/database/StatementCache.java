@@ -0,0 +1,84 @@
+package com.example.stockvisualiser.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StatementCache - Bounded LRU cache of prepared statements for one connection
+ * Statements are keyed by their SQL text so SQLite parses and plans each query once.
+ * A connection is only used by one lease at a time, so the cache itself is not synchronized.
+ */
+class StatementCache {
+    private final Connection connection;
+    private final int maxSize;
+    private final Counters counters;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    /**
+     * Hit/miss/eviction counters shared by every cache in the pool
+     */
+    static class Counters {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+    }
+
+    StatementCache(Connection connection, int maxSize, Counters counters) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.counters = counters;
+        // Access-ordered so iteration starts at the least recently used statement
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get a prepared statement for the SQL, preparing it on first use
+     * The statement is returned with cleared parameters and must not be closed by the caller
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement pstmt = statements.get(sql);
+        if (pstmt != null && !pstmt.isClosed()) {
+            counters.hits.increment();
+            pstmt.clearParameters();
+            return pstmt;
+        }
+
+        counters.misses.increment();
+        pstmt = connection.prepareStatement(sql);
+        statements.put(sql, pstmt);
+        evictOverflow();
+        return pstmt;
+    }
+
+    /**
+     * Close and forget every cached statement
+     */
+    void clear() {
+        for (PreparedStatement pstmt : statements.values()) {
+            closeQuietly(pstmt);
+        }
+        statements.clear();
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, PreparedStatement>> it = statements.entrySet().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            closeQuietly(it.next().getValue());
+            it.remove();
+            counters.evictions.increment();
+        }
+    }
+
+    private void closeQuietly(PreparedStatement pstmt) {
+        try {
+            pstmt.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+}
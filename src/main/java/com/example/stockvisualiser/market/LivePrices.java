@@ -0,0 +1,120 @@
+package com.example.stockvisualiser.market;
+
+import com.example.stockvisualiser.model.Stock;
+import javafx.animation.AnimationTimer;
+
+import java.util.List;
+
+/**
+ * LivePrices - Streams prices from a PriceFeed into Stock.currentPriceProperty()
+ * The feed runs on its own virtual thread and writes into a bounded TickRing. Once per JavaFX
+ * pulse the ring is drained on the FX thread, keeping only the latest price of each stock, and
+ * each stock that moved gets one property update. However many ticks arrive, a frame costs at most
+ * one update per stock, so bound tables redraw once per frame instead of once per tick.
+ */
+public final class LivePrices {
+    private static final int RING_CAPACITY = Integer.getInteger("stockvisualiser.live.ringCapacity", 1 << 16);
+
+    private final Stock[] stocks;
+    private final PriceFeed feed;
+    private final TickRing ring = new TickRing(RING_CAPACITY);
+    // Conflation state, only touched on the consumer thread
+    private final double[] latestPrice;
+    private final long[] latestTime;
+    private final boolean[] pending;
+    private final int[] pendingSlots;
+    private int pendingCount;
+    private final TickRing.Handler conflate = this::conflate;
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            applyPending();
+        }
+    };
+    private Thread feedThread;
+    private long ticksReceived;
+    private long pricesApplied;
+
+    /**
+     * @param stocks Stocks to update; slot i of the feed is stocks.get(i)
+     */
+    public LivePrices(List<Stock> stocks, PriceFeed feed) {
+        this.stocks = stocks.toArray(new Stock[0]);
+        this.feed = feed;
+        this.latestPrice = new double[this.stocks.length];
+        this.latestTime = new long[this.stocks.length];
+        this.pending = new boolean[this.stocks.length];
+        this.pendingSlots = new int[this.stocks.length];
+    }
+
+    /**
+     * Start the feed and the per-pulse updates; call on the FX thread
+     */
+    public void start() {
+        if (feedThread != null) {
+            return;
+        }
+        feedThread = Thread.ofVirtual().name("stockvisualiser-price-feed").start(() -> {
+            try {
+                feed.run(ring);
+            } catch (InterruptedException e) {
+                // Stopped
+            } catch (RuntimeException e) {
+                System.err.println("Price feed stopped: " + e.getMessage());
+                e.printStackTrace();
+            }
+        });
+        pulse.start();
+    }
+
+    /**
+     * Stop the feed and the updates; prices already applied stay on the stocks
+     */
+    public void stop() {
+        pulse.stop();
+        if (feedThread != null) {
+            feedThread.interrupt();
+            feedThread = null;
+        }
+    }
+
+    /** Ticks taken from the feed so far */
+    public long getTicksReceived() {
+        return ticksReceived;
+    }
+
+    /** Property updates made so far; the difference to getTicksReceived is what conflation saved */
+    public long getPricesApplied() {
+        return pricesApplied;
+    }
+
+    /**
+     * Drain the ring and apply the latest price of every stock that moved
+     * Takes at most one ring's worth of ticks, so a feed that never pauses cannot stall the frame.
+     */
+    void applyPending() {
+        ticksReceived += ring.drain(conflate, ring.capacity());
+        for (int i = 0; i < pendingCount; i++) {
+            int slot = pendingSlots[i];
+            pending[slot] = false;
+            Stock stock = stocks[slot];
+            stock.setCurrentPrice(latestPrice[slot]);
+            stock.setLastUpdatedEpochMillis(latestTime[slot]);
+        }
+        pricesApplied += pendingCount;
+        pendingCount = 0;
+    }
+
+    private void conflate(int slot, long time, double price) {
+        if (slot < 0 || slot >= stocks.length) {
+            return;
+        }
+        latestPrice[slot] = price;
+        latestTime[slot] = time;
+        if (!pending[slot]) {
+            pending[slot] = true;
+            pendingSlots[pendingCount++] = slot;
+        }
+    }
+}
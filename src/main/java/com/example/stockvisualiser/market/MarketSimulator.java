@@ -0,0 +1,292 @@
+package com.example.stockvisualiser.market;
+
+import com.example.stockvisualiser.model.PriceBar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * MarketSimulator - Seeded geometric Brownian motion for a set of instruments
+ * Each instrument has its own annual drift and volatility; their random shocks can be correlated
+ * through a correlation matrix, applied with its Cholesky factor. The same seed and inputs always
+ * produce the same prices, so demos and load tests are reproducible.
+ *
+ * A step moves every instrument forward together: S' = S * exp((mu - sigma^2 / 2) dt + sigma sqrt(dt) z).
+ * Daily bars are built from intraday steps; ticks are written straight into a TickBuffer.
+ */
+public final class MarketSimulator {
+    private static final double TRADING_DAYS_PER_YEAR = 252;
+    private static final double TRADING_MILLIS_PER_DAY = 6.5 * 3600 * 1000;
+    // Intraday steps per daily bar (5-minute steps), from which open, high and low are taken
+    private static final int STEPS_PER_DAY = 78;
+    private static final double BASE_VOLUME = 1_000_000;
+
+    /**
+     * One simulated instrument
+     */
+    public static final class Instrument {
+        private final String symbol;
+        private final double price;
+        private final double drift;
+        private final double volatility;
+
+        /**
+         * @param price Starting price
+         * @param drift Expected annual return, e.g. 0.08
+         * @param volatility Annual volatility, e.g. 0.3
+         */
+        public Instrument(String symbol, double price, double drift, double volatility) {
+            if (price <= 0 || volatility < 0) {
+                throw new IllegalArgumentException("Invalid parameters for " + symbol);
+            }
+            this.symbol = symbol;
+            this.price = price;
+            this.drift = drift;
+            this.volatility = volatility;
+        }
+
+        /**
+         * Instrument with a drift and volatility derived from its symbol
+         * The same symbol always gets the same parameters: drift between -5% and 15% a year,
+         * volatility between 15% and 50%.
+         */
+        public static Instrument forSymbol(String symbol, double price) {
+            SplittableRandom parameters = new SplittableRandom(symbol.hashCode());
+            double drift = -0.05 + 0.20 * parameters.nextDouble();
+            double volatility = 0.15 + 0.35 * parameters.nextDouble();
+            return new Instrument(symbol, price, drift, volatility);
+        }
+
+        public String getSymbol() { return symbol; }
+        public double getPrice() { return price; }
+        public double getDrift() { return drift; }
+        public double getVolatility() { return volatility; }
+    }
+
+    private final Instrument[] instruments;
+    private final SplittableRandom random;
+    // Lower-triangular Cholesky factor of the correlation matrix, row-major; null when uncorrelated
+    private final double[] cholesky;
+    private final double[] prices;
+    private final double[] normals;
+    private final double[] driftTerms;
+    private final double[] shockTerms;
+    private double stepYears = Double.NaN;
+
+    /**
+     * Simulate instruments that move independently
+     */
+    public MarketSimulator(long seed, List<Instrument> instruments) {
+        this(seed, instruments, null);
+    }
+
+    /**
+     * Simulate instruments whose shocks are correlated
+     * @param correlation Symmetric positive-definite matrix with ones on the diagonal, in the order of
+     *                    instruments; null for independent instruments
+     * @throws IllegalArgumentException If the matrix has the wrong shape or is not positive definite
+     */
+    public MarketSimulator(long seed, List<Instrument> instruments, double[][] correlation) {
+        int n = instruments.size();
+        this.instruments = instruments.toArray(new Instrument[0]);
+        this.random = new SplittableRandom(seed);
+        this.cholesky = correlation == null ? null : cholesky(correlation, n);
+        this.prices = new double[n];
+        this.normals = new double[n];
+        this.driftTerms = new double[n];
+        this.shockTerms = new double[n];
+        for (int i = 0; i < n; i++) {
+            prices[i] = this.instruments[i].getPrice();
+        }
+    }
+
+    /**
+     * Correlation matrix in which every pair of instruments has the same correlation
+     */
+    public static double[][] uniformCorrelation(int size, double correlation) {
+        double[][] matrix = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                matrix[i][j] = i == j ? 1.0 : correlation;
+            }
+        }
+        return matrix;
+    }
+
+    public int size() {
+        return instruments.length;
+    }
+
+    public Instrument getInstrument(int index) {
+        return instruments[index];
+    }
+
+    /**
+     * Current simulated price of an instrument
+     */
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    /**
+     * Simulate daily bars for every instrument, ending on a given day
+     * Weekends are skipped. Each bar is built from intraday steps, and the simulation carries on from
+     * the current prices, which the call advances.
+     * @param lastEpochDay Last trading day, as an epoch day
+     * @param tradingDays Number of bars per instrument
+     * @return Bars by symbol, oldest first
+     */
+    public Map<String, List<PriceBar>> simulateDailyBars(long lastEpochDay, int tradingDays) {
+        long[] days = tradingDaysEndingOn(lastEpochDay, tradingDays);
+        int n = instruments.length;
+        List<List<PriceBar>> bars = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            bars.add(new ArrayList<>(tradingDays));
+        }
+
+        double[] open = new double[n];
+        double[] high = new double[n];
+        double[] low = new double[n];
+        setStep(1.0 / (TRADING_DAYS_PER_YEAR * STEPS_PER_DAY));
+        for (long day : days) {
+            for (int i = 0; i < n; i++) {
+                open[i] = high[i] = low[i] = prices[i];
+            }
+            for (int s = 0; s < STEPS_PER_DAY; s++) {
+                step();
+                for (int i = 0; i < n; i++) {
+                    high[i] = Math.max(high[i], prices[i]);
+                    low[i] = Math.min(low[i], prices[i]);
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                // Busier on days that move more
+                double move = Math.abs(Math.log(prices[i] / open[i]));
+                long volume = (long) (BASE_VOLUME * Math.exp(0.4 * random.nextGaussian()) * (1 + 20 * move));
+                bars.get(i).add(new PriceBar(day, open[i], high[i], low[i], prices[i], volume));
+            }
+        }
+
+        Map<String, List<PriceBar>> bySymbol = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            bySymbol.put(instruments[i].getSymbol(), bars.get(i));
+        }
+        return bySymbol;
+    }
+
+    /**
+     * Fill a buffer with intraday ticks, one per instrument per step, until it is full
+     * @param startMillis Time of the first step, in epoch milliseconds
+     * @param intervalMillis Time between steps
+     * @return Time of the next step, to continue from in the next call
+     */
+    public long fillTicks(TickBuffer buffer, long startMillis, long intervalMillis) {
+        setStep(intervalMillis / (TRADING_MILLIS_PER_DAY * TRADING_DAYS_PER_YEAR));
+        int n = instruments.length;
+        long[] times = buffer.times;
+        int[] ids = buffer.instruments;
+        double[] values = buffer.prices;
+        int size = buffer.size;
+        long time = startMillis;
+        while (buffer.capacity() - size >= n) {
+            step();
+            for (int i = 0; i < n; i++) {
+                times[size] = time;
+                ids[size] = i;
+                values[size] = prices[i];
+                size++;
+            }
+            time += intervalMillis;
+        }
+        buffer.size = size;
+        return time;
+    }
+
+    /**
+     * Precompute the per-step drift and shock scale for a step length
+     */
+    private void setStep(double years) {
+        if (years == stepYears) {
+            return;
+        }
+        stepYears = years;
+        for (int i = 0; i < instruments.length; i++) {
+            double sigma = instruments[i].getVolatility();
+            driftTerms[i] = (instruments[i].getDrift() - 0.5 * sigma * sigma) * years;
+            shockTerms[i] = sigma * Math.sqrt(years);
+        }
+    }
+
+    /**
+     * Move every instrument forward by one step
+     */
+    private void step() {
+        int n = prices.length;
+        for (int i = 0; i < n; i++) {
+            normals[i] = random.nextGaussian();
+        }
+        for (int i = 0; i < n; i++) {
+            double z;
+            if (cholesky == null) {
+                z = normals[i];
+            } else {
+                z = 0;
+                int row = i * n;
+                for (int k = 0; k <= i; k++) {
+                    z += cholesky[row + k] * normals[k];
+                }
+            }
+            prices[i] *= Math.exp(driftTerms[i] + shockTerms[i] * z);
+        }
+    }
+
+    private static long[] tradingDaysEndingOn(long lastEpochDay, int count) {
+        long[] days = new long[count];
+        LocalDate date = LocalDate.ofEpochDay(lastEpochDay);
+        for (int i = count - 1; i >= 0; ) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days[i--] = date.toEpochDay();
+            }
+            date = date.minusDays(1);
+        }
+        return days;
+    }
+
+    /**
+     * Lower-triangular Cholesky factor of a correlation matrix, row-major
+     */
+    private static double[] cholesky(double[][] matrix, int n) {
+        if (matrix.length != n) {
+            throw new IllegalArgumentException("Correlation matrix must be " + n + "x" + n);
+        }
+        double[] factor = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            if (matrix[i].length != n || matrix[i][i] != 1.0) {
+                throw new IllegalArgumentException("Correlation matrix must be " + n + "x" + n + " with a unit diagonal");
+            }
+            for (int j = 0; j <= i; j++) {
+                if (matrix[i][j] != matrix[j][i]) {
+                    throw new IllegalArgumentException("Correlation matrix must be symmetric");
+                }
+                double sum = matrix[i][j];
+                for (int k = 0; k < j; k++) {
+                    sum -= factor[i * n + k] * factor[j * n + k];
+                }
+                if (i == j) {
+                    if (sum <= 0) {
+                        throw new IllegalArgumentException("Correlation matrix is not positive definite");
+                    }
+                    factor[i * n + i] = Math.sqrt(sum);
+                } else {
+                    factor[i * n + j] = sum / factor[j * n + j];
+                }
+            }
+        }
+        return factor;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.stockvisualiser.market;
+
+/**
+ * PriceFeed - Source of live price ticks for a fixed list of stocks
+ * Slot i in every tick refers to the i-th stock the feed was created for; LivePrices is given the
+ * same list, in the same order.
+ */
+public interface PriceFeed {
+    /**
+     * Publish ticks into the ring until the thread is interrupted
+     * Runs on its own thread, the only producer for the ring.
+     */
+    void run(TickRing ring) throws InterruptedException;
+}
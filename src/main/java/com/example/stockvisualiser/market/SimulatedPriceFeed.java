@@ -0,0 +1,78 @@
+package com.example.stockvisualiser.market;
+
+import com.example.stockvisualiser.model.Stock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SimulatedPriceFeed - Live ticks from a MarketSimulator at a steady rate
+ * Every simulator step produces one tick per stock. Steps are published in batches about every
+ * 10 ms, so high rates cost one wake-up per batch rather than per tick. For offline demos and load
+ * tests; nothing is written to the database.
+ */
+public final class SimulatedPriceFeed implements PriceFeed {
+    private static final long BATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final MarketSimulator simulator;
+    private final double ticksPerSecond;
+    private final long simulatedMillisPerStep;
+
+    /**
+     * @param ticksPerSecond Ticks published per second, across all stocks
+     * @param speed How much faster than real time simulated prices move, e.g. 60 for a minute per second
+     */
+    public SimulatedPriceFeed(MarketSimulator simulator, double ticksPerSecond, double speed) {
+        this.simulator = simulator;
+        this.ticksPerSecond = ticksPerSecond;
+        double stepsPerSecond = ticksPerSecond / simulator.size();
+        this.simulatedMillisPerStep = Math.max(1, Math.round(speed * 1000 / stepsPerSecond));
+    }
+
+    /**
+     * Feed for a list of stocks, each starting at its current price
+     * Instruments get the drift and volatility of MarketSimulator.Instrument.forSymbol.
+     */
+    public static SimulatedPriceFeed forStocks(long seed, List<Stock> stocks, double ticksPerSecond, double speed) {
+        List<MarketSimulator.Instrument> instruments = new ArrayList<>(stocks.size());
+        for (Stock stock : stocks) {
+            double price = stock.getCurrentPrice() > 0 ? stock.getCurrentPrice() : 100.0;
+            instruments.add(MarketSimulator.Instrument.forSymbol(stock.getSymbol(), price));
+        }
+        return new SimulatedPriceFeed(new MarketSimulator(seed, instruments), ticksPerSecond, speed);
+    }
+
+    @Override
+    public void run(TickRing ring) throws InterruptedException {
+        int instruments = simulator.size();
+        if (instruments == 0) {
+            return;
+        }
+        // Whole steps per batch, and how long a batch of them should take at the requested rate
+        int stepsPerBatch = (int) Math.max(1, Math.ceil(ticksPerSecond / instruments * BATCH_NANOS / 1e9));
+        long batchNanos = Math.round(stepsPerBatch * instruments * 1e9 / ticksPerSecond);
+        TickBuffer buffer = new TickBuffer(stepsPerBatch * instruments);
+
+        long simulatedTime = System.currentTimeMillis();
+        long nextBatch = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            buffer.clear();
+            simulatedTime = simulator.fillTicks(buffer, simulatedTime, simulatedMillisPerStep);
+            for (int i = 0; i < buffer.size(); i++) {
+                ring.put(buffer.getInstrument(i), buffer.getTime(i), buffer.getPrice(i));
+            }
+
+            nextBatch += batchNanos;
+            long wait = nextBatch - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else if (-wait > 10 * batchNanos) {
+                // Fell well behind, e.g. held back by a slow consumer; don't burst to catch up
+                nextBatch = System.nanoTime();
+            }
+        }
+        throw new InterruptedException();
+    }
+}
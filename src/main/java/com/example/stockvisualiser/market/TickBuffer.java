@@ -0,0 +1,67 @@
+package com.example.stockvisualiser.market;
+
+/**
+ * TickBuffer - Fixed-capacity batch of price ticks held in primitive arrays
+ * Tick i is (getTime(i), getInstrument(i), getPrice(i)). A producer fills the buffer, a consumer
+ * reads it, and clear() makes it reusable, so streaming ticks allocates nothing per tick.
+ */
+public final class TickBuffer {
+    final long[] times;
+    final int[] instruments;
+    final double[] prices;
+    int size;
+
+    /**
+     * @param capacity Maximum number of ticks held
+     */
+    public TickBuffer(int capacity) {
+        this.times = new long[capacity];
+        this.instruments = new int[capacity];
+        this.prices = new double[capacity];
+    }
+
+    /**
+     * Append one tick
+     * @return False if the buffer is full and the tick was not added
+     */
+    public boolean add(long time, int instrument, double price) {
+        if (size == times.length) {
+            return false;
+        }
+        times[size] = time;
+        instruments[size] = instrument;
+        prices[size] = price;
+        size++;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return times.length;
+    }
+
+    public boolean isFull() {
+        return size == times.length;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /** Epoch milliseconds of tick i */
+    public long getTime(int i) {
+        return times[i];
+    }
+
+    /** Index of the instrument tick i belongs to */
+    public int getInstrument(int i) {
+        return instruments[i];
+    }
+
+    public double getPrice(int i) {
+        return prices[i];
+    }
+}
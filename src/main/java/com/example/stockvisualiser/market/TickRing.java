@@ -0,0 +1,95 @@
+package com.example.stockvisualiser.market;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * TickRing - Bounded single-producer, single-consumer queue of price ticks
+ * Ticks are stored in primitive arrays, so passing one from the feed thread to the consumer
+ * allocates nothing. One thread may offer or put, and one other thread may drain.
+ */
+public final class TickRing {
+    private static final long FULL_WAIT_NANOS = 100_000;
+
+    /**
+     * Receives drained ticks
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void onTick(int slot, long time, double price);
+    }
+
+    private final int mask;
+    private final int[] slots;
+    private final long[] times;
+    private final double[] prices;
+    // Next position to read; only the consumer writes it
+    private final AtomicLong head = new AtomicLong();
+    // Next position to write; only the producer writes it
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity Maximum number of queued ticks, rounded up to a power of two
+     */
+    public TickRing(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new int[size];
+        this.times = new long[size];
+        this.prices = new double[size];
+    }
+
+    /**
+     * Queue a tick if there is room
+     * @return False if the ring is full
+     */
+    public boolean offer(int slot, long time, double price) {
+        long position = tail.get();
+        if (position - head.getAcquire() > mask) {
+            return false;
+        }
+        int index = (int) position & mask;
+        slots[index] = slot;
+        times[index] = time;
+        prices[index] = price;
+        tail.setRelease(position + 1);
+        return true;
+    }
+
+    /**
+     * Queue a tick, waiting while the ring is full
+     * The wait is what holds a fast feed back to the pace of the consumer.
+     */
+    public void put(int slot, long time, double price) throws InterruptedException {
+        while (!offer(slot, time, price)) {
+            LockSupport.parkNanos(FULL_WAIT_NANOS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * Hand queued ticks to a handler, oldest first
+     * @param max Largest number of ticks to take
+     * @return Number of ticks drained
+     */
+    public int drain(Handler handler, int max) {
+        long position = head.get();
+        int count = (int) Math.min(tail.getAcquire() - position, max);
+        for (int i = 0; i < count; i++) {
+            int index = (int) (position + i) & mask;
+            handler.onTick(slots[index], times[index], prices[index]);
+        }
+        head.setRelease(position + count);
+        return count;
+    }
+
+    public int size() {
+        return (int) (tail.getAcquire() - head.getAcquire());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.stockvisualiser.model;
 
+import com.example.stockvisualiser.util.EpochTime;
 import javafx.beans.property.*;
 
 import java.time.LocalDate;
@@ -17,13 +18,14 @@ public class Portfolio {
     private final IntegerProperty quantity;
     private final DoubleProperty purchasePrice;
     private final DoubleProperty currentPrice;
-    private LocalDate purchaseDate;
+    private long purchaseDate; // epoch day
 
     /**
      * Constructor with all parameters
+     * @param purchaseDate Purchase date as an epoch day
      */
     public Portfolio(int portfolioId, int userId, int stockId, String symbol, String companyName,
-                     int quantity, double purchasePrice, double currentPrice, LocalDate purchaseDate) {
+                     int quantity, double purchasePrice, double currentPrice, long purchaseDate) {
         this.portfolioId = new SimpleIntegerProperty(portfolioId);
         this.userId = new SimpleIntegerProperty(userId);
         this.stockId = new SimpleIntegerProperty(stockId);
@@ -47,7 +49,7 @@ public class Portfolio {
         this.quantity = new SimpleIntegerProperty();
         this.purchasePrice = new SimpleDoubleProperty();
         this.currentPrice = new SimpleDoubleProperty();
-        this.purchaseDate = LocalDate.now();
+        this.purchaseDate = EpochTime.todayEpochDay();
     }
 
     /**
@@ -178,10 +180,14 @@ public class Portfolio {
     }
 
     public LocalDate getPurchaseDate() {
+        return EpochTime.toLocalDate(purchaseDate);
+    }
+
+    public long getPurchaseEpochDay() {
         return purchaseDate;
     }
 
-    public void setPurchaseDate(LocalDate purchaseDate) {
+    public void setPurchaseEpochDay(long purchaseDate) {
         this.purchaseDate = purchaseDate;
     }
 }
@@ -0,0 +1,62 @@
+package com.example.stockvisualiser.model;
+
+import com.example.stockvisualiser.util.EpochTime;
+
+import java.time.LocalDate;
+
+/**
+ * PriceBar - One trading day of open, high, low and close prices plus traded volume
+ */
+public class PriceBar {
+    private final long date; // epoch day
+    private final double open;
+    private final double high;
+    private final double low;
+    private final double close;
+    private final long volume;
+
+    /**
+     * @param date Trading day as an epoch day
+     */
+    public PriceBar(long date, double open, double high, double low, double close, long volume) {
+        this.date = date;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    public LocalDate getDate() {
+        return EpochTime.toLocalDate(date);
+    }
+
+    public long getEpochDay() {
+        return date;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    @Override
+    public String toString() {
+        return getDate() + " O:" + open + " H:" + high + " L:" + low + " C:" + close + " V:" + volume;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.stockvisualiser.model;
+
+import com.example.stockvisualiser.util.EpochTime;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Quote - Latest known price of a symbol and how current it is
+ */
+public class Quote {
+
+    /**
+     * Where the price came from
+     */
+    public enum Source {
+        /** Close of the newest bar in the local price history */
+        PRICE_HISTORY,
+        /** GLOBAL_QUOTE endpoint of the API */
+        API
+    }
+
+    private final String symbol;
+    private final double price;
+    private final long tradingDay; // epoch day
+    private final long retrievedAt; // epoch millis
+    private final Source source;
+    private final boolean stale;
+
+    /**
+     * @param tradingDay Trading day the price belongs to, as an epoch day
+     * @param retrievedAt When the price was obtained from the API, in epoch milliseconds
+     * @param stale True if a market close has passed since the trading day
+     */
+    public Quote(String symbol, double price, long tradingDay, long retrievedAt, Source source, boolean stale) {
+        this.symbol = symbol;
+        this.price = price;
+        this.tradingDay = tradingDay;
+        this.retrievedAt = retrievedAt;
+        this.source = source;
+        this.stale = stale;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public LocalDate getTradingDay() {
+        return EpochTime.toLocalDate(tradingDay);
+    }
+
+    public long getTradingEpochDay() {
+        return tradingDay;
+    }
+
+    public LocalDateTime getRetrievedAt() {
+        return EpochTime.toLocalDateTime(retrievedAt);
+    }
+
+    public long getRetrievedAtEpochMillis() {
+        return retrievedAt;
+    }
+
+    /**
+     * Milliseconds since the price was obtained
+     */
+    public long getAgeMillis(long nowMillis) {
+        return nowMillis - retrievedAt;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    @Override
+    public String toString() {
+        return symbol + " " + price + " (" + getTradingDay() + ", " + source + (stale ? ", stale" : "") + ")";
+    }
+}
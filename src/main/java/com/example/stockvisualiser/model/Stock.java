@@ -1,5 +1,6 @@
 package com.example.stockvisualiser.model;
 
+import com.example.stockvisualiser.util.EpochTime;
 import javafx.beans.property.*;
 
 import java.time.LocalDateTime;
@@ -14,12 +15,13 @@ public class Stock {
     private final StringProperty companyName;
     private final StringProperty sector;
     private final DoubleProperty currentPrice;
-    private LocalDateTime lastUpdated;
+    private long lastUpdated; // epoch milliseconds
 
     /**
      * Constructor with all parameters
+     * @param lastUpdated Last price update in epoch milliseconds
      */
-    public Stock(int stockId, String symbol, String companyName, String sector, double currentPrice, LocalDateTime lastUpdated) {
+    public Stock(int stockId, String symbol, String companyName, String sector, double currentPrice, long lastUpdated) {
         this.stockId = new SimpleIntegerProperty(stockId);
         this.symbol = new SimpleStringProperty(symbol);
         this.companyName = new SimpleStringProperty(companyName);
@@ -37,7 +39,7 @@ public class Stock {
         this.companyName = new SimpleStringProperty();
         this.sector = new SimpleStringProperty();
         this.currentPrice = new SimpleDoubleProperty();
-        this.lastUpdated = LocalDateTime.now();
+        this.lastUpdated = EpochTime.nowMillis();
     }
 
     // Property getters for JavaFX binding
@@ -103,10 +105,14 @@ public class Stock {
     }
 
     public LocalDateTime getLastUpdated() {
+        return EpochTime.toLocalDateTime(lastUpdated);
+    }
+
+    public long getLastUpdatedEpochMillis() {
         return lastUpdated;
     }
 
-    public void setLastUpdated(LocalDateTime lastUpdated) {
+    public void setLastUpdatedEpochMillis(long lastUpdated) {
         this.lastUpdated = lastUpdated;
     }
 
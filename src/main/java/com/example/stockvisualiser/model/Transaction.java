@@ -1,5 +1,6 @@
 package com.example.stockvisualiser.model;
 
+import com.example.stockvisualiser.util.EpochTime;
 import javafx.beans.property.*;
 
 import java.time.LocalDateTime;
@@ -18,7 +19,7 @@ public class Transaction {
     private final IntegerProperty quantity;
     private final DoubleProperty pricePerShare;
     private final DoubleProperty totalAmount;
-    private LocalDateTime transactionDate;
+    private long transactionDate; // epoch milliseconds
 
     /**
      * Transaction type enum
@@ -29,10 +30,11 @@ public class Transaction {
 
     /**
      * Constructor with all parameters
+     * @param transactionDate Transaction time in epoch milliseconds
      */
     public Transaction(int transactionId, int userId, int stockId, String symbol, String companyName,
                        String transactionType, int quantity, double pricePerShare, 
-                       double totalAmount, LocalDateTime transactionDate) {
+                       double totalAmount, long transactionDate) {
         this.transactionId = new SimpleIntegerProperty(transactionId);
         this.userId = new SimpleIntegerProperty(userId);
         this.stockId = new SimpleIntegerProperty(stockId);
@@ -58,7 +60,7 @@ public class Transaction {
         this.quantity = new SimpleIntegerProperty();
         this.pricePerShare = new SimpleDoubleProperty();
         this.totalAmount = new SimpleDoubleProperty();
-        this.transactionDate = LocalDateTime.now();
+        this.transactionDate = EpochTime.nowMillis();
     }
 
     // Property getters for JavaFX binding
@@ -172,10 +174,14 @@ public class Transaction {
     }
 
     public LocalDateTime getTransactionDate() {
+        return EpochTime.toLocalDateTime(transactionDate);
+    }
+
+    public long getTransactionDateEpochMillis() {
         return transactionDate;
     }
 
-    public void setTransactionDate(LocalDateTime transactionDate) {
+    public void setTransactionDateEpochMillis(long transactionDate) {
         this.transactionDate = transactionDate;
     }
 }
@@ -1,5 +1,6 @@
 package com.example.stockvisualiser.model;
 
+import com.example.stockvisualiser.util.EpochTime;
 import javafx.beans.property.*;
 
 import java.time.LocalDate;
@@ -15,13 +16,14 @@ public class Watchlist {
     private final StringProperty companyName;
     private final StringProperty sector;
     private final DoubleProperty currentPrice;
-    private LocalDate addedDate;
+    private long addedDate; // epoch day
 
     /**
      * Constructor with all parameters
+     * @param addedDate Date added as an epoch day
      */
     public Watchlist(int watchlistId, int userId, int stockId, String symbol, String companyName,
-                     String sector, double currentPrice, LocalDate addedDate) {
+                     String sector, double currentPrice, long addedDate) {
         this.watchlistId = new SimpleIntegerProperty(watchlistId);
         this.userId = new SimpleIntegerProperty(userId);
         this.stockId = new SimpleIntegerProperty(stockId);
@@ -43,7 +45,7 @@ public class Watchlist {
         this.companyName = new SimpleStringProperty();
         this.sector = new SimpleStringProperty();
         this.currentPrice = new SimpleDoubleProperty();
-        this.addedDate = LocalDate.now();
+        this.addedDate = EpochTime.todayEpochDay();
     }
 
     // Property getters for JavaFX binding
@@ -133,10 +135,14 @@ public class Watchlist {
     }
 
     public LocalDate getAddedDate() {
+        return EpochTime.toLocalDate(addedDate);
+    }
+
+    public long getAddedEpochDay() {
         return addedDate;
     }
 
-    public void setAddedDate(LocalDate addedDate) {
+    public void setAddedEpochDay(long addedDate) {
         this.addedDate = addedDate;
     }
 }
@@ -0,0 +1,161 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.util.BackgroundTasks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * AlphaVantageClient - Shared HTTP client for the Alpha Vantage query API
+ * One HttpClient serves the whole application, so connections are kept alive and reused, and
+ * multiplexed over HTTP/2 where the server offers it. Responses are requested gzip-compressed and
+ * handed to the parser as a stream while they arrive instead of being collected into a String.
+ */
+public class AlphaVantageClient {
+    // Alpha Vantage API key (free tier: 25 requests/day)
+    // Get your own key at: https://www.alphavantage.co/support/#api-key
+    private static final String API_KEY = "2UPAIY6PD8V75FJF"; // Use "demo" for testing with limited stocks
+    private static final String BASE_URL =
+        System.getProperty("stockvisualiser.api.baseUrl", "https://www.alphavantage.co/query");
+
+    private static final Duration CONNECT_TIMEOUT =
+        Duration.ofMillis(Integer.getInteger("stockvisualiser.http.connectTimeoutMs", 5000));
+    private static final Duration REQUEST_TIMEOUT =
+        Duration.ofMillis(Integer.getInteger("stockvisualiser.http.requestTimeoutMs", 10000));
+
+    // Response bodies are parsed on the client's executor; virtual threads let them block on the stream
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(CONNECT_TIMEOUT)
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    /**
+     * Reads a response body as it streams in
+     */
+    public interface ResponseParser<T> {
+        T parse(Reader body) throws IOException;
+    }
+
+    /**
+     * Send a query once the ApiRequestScheduler grants a permit
+     * @param params Query parameters such as function and symbol; the API key is added
+     * @param priority Decides the order among queued requests and how much of the daily budget may be used
+     * @return The parsed body; completes exceptionally if no permit is granted, on a connection error,
+     *         a timeout or a non-200 status
+     */
+    public <T> CompletableFuture<T> queryAsync(Map<String, String> params, ApiRequestScheduler.Priority priority,
+                                               ResponseParser<T> parser) {
+        HttpRequest request = HttpRequest.newBuilder(buildUri(params))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept-Encoding", "gzip")
+            .GET()
+            .build();
+
+        // Waiting for a permit blocks, so it happens on a virtual thread
+        return BackgroundTasks.supply(() -> awaitPermit(params, priority))
+            .thenCompose(granted -> HTTP.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()))
+            .thenApply(response -> parse(response, parser));
+    }
+
+    /**
+     * Send a query and wait for the parsed body
+     */
+    public <T> T query(Map<String, String> params, ApiRequestScheduler.Priority priority,
+                       ResponseParser<T> parser) throws IOException {
+        return await(queryAsync(params, priority, parser));
+    }
+
+    /**
+     * Wait for a query started with queryAsync, rethrowing its failure as an IOException
+     */
+    public static <T> T await(CompletableFuture<T> query) throws IOException {
+        try {
+            return query.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Request failed: " + cause, cause);
+        }
+    }
+
+    private static Void awaitPermit(Map<String, String> params, ApiRequestScheduler.Priority priority) {
+        try {
+            if (!ApiRequestScheduler.getInstance().acquire(priority)) {
+                throw new UncheckedIOException(new IOException("API request limit reached: " + params.get("function")));
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted waiting for an API permit"));
+        }
+    }
+
+    /**
+     * Describe a query for logging, with the API key left out
+     */
+    public static String describe(Map<String, String> params) {
+        return BASE_URL + "?" + encode(params);
+    }
+
+    private static URI buildUri(Map<String, String> params) {
+        return URI.create(BASE_URL + "?" + encode(params) + "&apikey=" + API_KEY);
+    }
+
+    private static String encode(Map<String, String> params) {
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (query.length() > 0) {
+                query.append('&');
+            }
+            query.append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8))
+                .append('=')
+                .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+
+    private static <T> T parse(HttpResponse<InputStream> response, ResponseParser<T> parser) {
+        try (InputStream raw = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("API returned HTTP " + response.statusCode());
+            }
+            T result = parser.parse(new InputStreamReader(decode(response, raw), StandardCharsets.UTF_8));
+            // Read to the end of the body; a connection closed part-way is not reused
+            raw.transferTo(OutputStream.nullOutputStream());
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream decode(HttpResponse<InputStream> response, InputStream raw) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+            .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+            .orElse(false);
+        return gzip ? new GZIPInputStream(raw) : raw;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.model.ApiStockResult;
+import com.example.stockvisualiser.model.PriceBar;
+import com.example.stockvisualiser.model.Quote;
+import com.example.stockvisualiser.util.JsonTokenizer;
+import com.example.stockvisualiser.util.JsonTokenizer.Token;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AlphaVantageParser - Streaming parsers for Alpha Vantage responses
+ * Each parser reads the response once with a JsonTokenizer and keeps only the fields it needs, so
+ * full 20-year daily series are parsed in one pass without holding the payload in memory.
+ * API notices ("Note", "Information", "Error Message"), such as rate-limit replies, are logged.
+ */
+final class AlphaVantageParser {
+
+    private AlphaVantageParser() {
+    }
+
+    /**
+     * Parse a TIME_SERIES_DAILY response
+     * Format: {"Time Series (Daily)": {"2025-11-17": {"1. open": "...", ..., "5. volume": "..."}}}
+     * @return Every bar in the response, oldest first, or null if it holds no time series
+     */
+    static List<PriceBar> parseDailyBars(Reader body) throws IOException {
+        JsonTokenizer json = new JsonTokenizer(body);
+        if (json.next() != Token.BEGIN_OBJECT) {
+            return null;
+        }
+
+        List<PriceBar> bars = null;
+        while (json.next() == Token.NAME) {
+            if (json.textEquals("Time Series (Daily)")) {
+                bars = readDailySeries(json);
+            } else {
+                skipOrLogNotice(json);
+            }
+        }
+
+        // The API lists the newest day first
+        if (bars != null && bars.size() > 1 && bars.get(0).getEpochDay() > bars.get(bars.size() - 1).getEpochDay()) {
+            Collections.reverse(bars);
+        }
+        return bars;
+    }
+
+    private static List<PriceBar> readDailySeries(JsonTokenizer json) throws IOException {
+        List<PriceBar> bars = new ArrayList<>(128);
+        if (json.next() != Token.BEGIN_OBJECT) {
+            skipIfContainer(json);
+            return bars;
+        }
+
+        while (json.next() == Token.NAME) {
+            long date = json.epochDayValue();
+            if (date == Long.MIN_VALUE) {
+                json.skipValue();
+                continue;
+            }
+            if (json.next() != Token.BEGIN_OBJECT) {
+                skipIfContainer(json);
+                continue;
+            }
+
+            double open = Double.NaN;
+            double high = Double.NaN;
+            double low = Double.NaN;
+            double close = Double.NaN;
+            long volume = 0;
+            while (json.next() == Token.NAME) {
+                // Fields are numbered "1. open" to "5. volume"
+                int field = json.textEquals("1. open") ? 1
+                    : json.textEquals("2. high") ? 2
+                    : json.textEquals("3. low") ? 3
+                    : json.textEquals("4. close") ? 4
+                    : json.textEquals("5. volume") ? 5
+                    : 0;
+                if (!readScalar(json) || field == 0) {
+                    continue;
+                }
+                double value = number(json);
+                switch (field) {
+                    case 1 -> open = value;
+                    case 2 -> high = value;
+                    case 3 -> low = value;
+                    case 4 -> close = value;
+                    default -> volume = Double.isNaN(value) ? 0 : (long) value;
+                }
+            }
+
+            if (!Double.isNaN(close)) {
+                bars.add(new PriceBar(date, orElse(open, close), orElse(high, close), orElse(low, close), close, volume));
+            }
+        }
+        return bars;
+    }
+
+    /**
+     * Parse a GLOBAL_QUOTE response
+     * Format: {"Global Quote": {"01. symbol": "IBM", ..., "05. price": "...", ..., "07. latest trading day": "2025-11-17"}}
+     * @param retrievedAt When the response was received, in epoch milliseconds
+     * @return The quote, or null if the response holds none (e.g. an unknown symbol)
+     */
+    static Quote parseGlobalQuote(Reader body, long retrievedAt) throws IOException {
+        JsonTokenizer json = new JsonTokenizer(body);
+        if (json.next() != Token.BEGIN_OBJECT) {
+            return null;
+        }
+
+        Quote quote = null;
+        while (json.next() == Token.NAME) {
+            if (!json.textEquals("Global Quote")) {
+                skipOrLogNotice(json);
+                continue;
+            }
+            if (json.next() != Token.BEGIN_OBJECT) {
+                skipIfContainer(json);
+                continue;
+            }
+
+            String symbol = null;
+            double price = Double.NaN;
+            long tradingDay = Long.MIN_VALUE;
+            while (json.next() == Token.NAME) {
+                boolean isSymbol = json.textEquals("01. symbol");
+                boolean isPrice = json.textEquals("05. price");
+                boolean isTradingDay = json.textEquals("07. latest trading day");
+                if (!readScalar(json)) {
+                    continue;
+                }
+                if (isSymbol) {
+                    symbol = json.text();
+                } else if (isPrice) {
+                    price = number(json);
+                } else if (isTradingDay) {
+                    tradingDay = json.epochDayValue();
+                }
+            }
+            if (symbol != null && price > 0 && tradingDay != Long.MIN_VALUE) {
+                boolean stale = PriceHistorySync.isBehindLastClose(tradingDay, retrievedAt);
+                quote = new Quote(symbol, price, tradingDay, retrievedAt, Quote.Source.API, stale);
+            }
+        }
+        return quote;
+    }
+
+    /**
+     * Parse a SYMBOL_SEARCH response
+     * Format: {"bestMatches": [{"1. symbol": "TSLA", "2. name": "Tesla Inc.", "3. type": "...", "4. region": "..."}]}
+     * @return The matches in the order the API ranked them; empty if there are none
+     */
+    static List<ApiStockResult> parseSearchResults(Reader body) throws IOException {
+        List<ApiStockResult> results = new ArrayList<>();
+        JsonTokenizer json = new JsonTokenizer(body);
+        if (json.next() != Token.BEGIN_OBJECT) {
+            return results;
+        }
+
+        while (json.next() == Token.NAME) {
+            if (!json.textEquals("bestMatches")) {
+                skipOrLogNotice(json);
+                continue;
+            }
+            if (json.next() != Token.BEGIN_ARRAY) {
+                skipIfContainer(json);
+                continue;
+            }
+
+            while (json.next() != Token.END_ARRAY) {
+                if (json.token() != Token.BEGIN_OBJECT) {
+                    skipIfContainer(json);
+                    continue;
+                }
+                String symbol = null;
+                String name = null;
+                String type = "Equity";
+                String region = "Unknown";
+                while (json.next() == Token.NAME) {
+                    boolean isSymbol = json.textEquals("1. symbol");
+                    boolean isName = json.textEquals("2. name");
+                    boolean isType = json.textEquals("3. type");
+                    boolean isRegion = json.textEquals("4. region");
+                    if (!readScalar(json)) {
+                        continue;
+                    }
+                    if (isSymbol) {
+                        symbol = json.text();
+                    } else if (isName) {
+                        name = json.text();
+                    } else if (isType) {
+                        type = json.text();
+                    } else if (isRegion) {
+                        region = json.text();
+                    }
+                }
+                if (symbol != null && name != null) {
+                    results.add(new ApiStockResult(symbol, name, type, region));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Move to the value of the current name
+     * @return True if it is a string or number; containers are skipped and return false
+     */
+    private static boolean readScalar(JsonTokenizer json) throws IOException {
+        Token value = json.next();
+        if (value == Token.BEGIN_OBJECT || value == Token.BEGIN_ARRAY) {
+            json.skipValue();
+            return false;
+        }
+        return value == Token.STRING || value == Token.NUMBER;
+    }
+
+    private static void skipIfContainer(JsonTokenizer json) throws IOException {
+        if (json.token() == Token.BEGIN_OBJECT || json.token() == Token.BEGIN_ARRAY) {
+            json.skipValue();
+        }
+    }
+
+    /**
+     * Skip the value of the current name, logging it first if it is an API notice
+     */
+    private static void skipOrLogNotice(JsonTokenizer json) throws IOException {
+        boolean notice = json.textEquals("Note") || json.textEquals("Information") || json.textEquals("Error Message");
+        if (notice && readScalar(json)) {
+            System.err.println("⚠ API notice: " + json.text());
+        } else if (!notice) {
+            json.skipValue();
+        }
+    }
+
+    private static double number(JsonTokenizer json) {
+        try {
+            return json.doubleValue();
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static double orElse(double value, double fallback) {
+        return Double.isNaN(value) ? fallback : value;
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.database.ConnectionLease;
+import com.example.stockvisualiser.database.DatabaseManager;
+import com.example.stockvisualiser.database.ParameterBinder;
+import com.example.stockvisualiser.util.EpochTime;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ApiRequestScheduler - Hands out Alpha Vantage requests within the free tier's limits
+ * Every request first takes a permit here. The per-minute limit is a sliding window over the last
+ * grants, and the daily limit is a bucket refilled at midnight. Both are restored from the
+ * api_request_log table on startup, so restarting the application does not reset the count.
+ *
+ * Callers waiting for the minute window are served in priority order. Each priority also leaves a
+ * share of the daily budget to the ones above it, and background requests are paced over the day,
+ * so a bulk refresh cannot spend the whole quota before the user opens a chart.
+ */
+public class ApiRequestScheduler {
+    private static final int PER_MINUTE = Integer.getInteger("stockvisualiser.api.perMinute", 5);
+    private static final int PER_DAY = Integer.getInteger("stockvisualiser.api.perDay", 25);
+    private static final long WINDOW_MILLIS = 60_000;
+    // The daily count is reset at midnight New York time
+    private static final ZoneId QUOTA_ZONE = ZoneId.of("America/New_York");
+
+    /**
+     * Request classes, highest first
+     */
+    public enum Priority {
+        /** Something the user is looking at: the open chart, a search, adding a stock */
+        INTERACTIVE(0.0, 60),
+        /** Prices of stocks someone holds */
+        HOLDINGS(0.1, 300),
+        /** Prices of stocks on someone's watchlist */
+        WATCHLIST(0.25, 300),
+        /** Everything else, such as refreshing the rest of the catalog */
+        BACKGROUND(0.4, 300);
+
+        private final int reserved;
+        private final long maxWaitMillis;
+
+        /**
+         * @param reservedShare Share of the daily budget this class leaves to the classes above it
+         * @param maxWaitSeconds How long a request may wait for the minute window before giving up
+         */
+        Priority(double reservedShare, int maxWaitSeconds) {
+            this.reserved = (int) Math.ceil(PER_DAY * reservedShare);
+            this.maxWaitMillis = maxWaitSeconds * 1000L;
+        }
+    }
+
+    private static ApiRequestScheduler instance;
+
+    private final DatabaseManager dbManager;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+        Comparator.comparing((Waiter waiter) -> waiter.priority).thenComparingLong(waiter -> waiter.sequence));
+    // Grant times within the last minute, oldest first
+    private final Deque<Long> recentGrants = new ArrayDeque<>();
+    private long nextSequence;
+    private long quotaDay;
+    private int usedToday;
+
+    private ApiRequestScheduler() {
+        this.dbManager = DatabaseManager.getInstance();
+        restore(EpochTime.nowMillis());
+    }
+
+    /**
+     * Get the singleton instance
+     */
+    public static synchronized ApiRequestScheduler getInstance() {
+        if (instance == null) {
+            instance = new ApiRequestScheduler();
+        }
+        return instance;
+    }
+
+    private static final class Waiter {
+        private final Priority priority;
+        private final long sequence;
+
+        private Waiter(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Wait for permission to send one request
+     * Returns false straight away if the daily budget left to this priority is spent, or once the
+     * priority's maximum wait has passed without a free slot in the minute window.
+     * @return True if the request may be sent; it is then counted against both limits
+     */
+    public boolean acquire(Priority priority) throws InterruptedException {
+        long grantedAt = awaitGrant(priority);
+        if (grantedAt < 0) {
+            return false;
+        }
+        // Logged outside the lock: the writer lease can wait behind a batched price write, and
+        // other callers must not queue behind that
+        logGrant(priority, grantedAt);
+        return true;
+    }
+
+    /**
+     * Wait for a slot and count it in memory
+     * @return The grant time, or -1 if the budget is spent or the wait timed out
+     */
+    private long awaitGrant(Priority priority) throws InterruptedException {
+        lock.lock();
+        try {
+            Waiter waiter = new Waiter(priority, nextSequence++);
+            waiters.add(waiter);
+            long deadline = EpochTime.nowMillis() + priority.maxWaitMillis;
+            try {
+                while (true) {
+                    long now = EpochTime.nowMillis();
+                    rollDay(now);
+                    if (usedToday >= dailyAllowance(priority, now)) {
+                        System.err.println("⚠ API budget for " + priority + " requests spent (" + usedToday + "/" + PER_DAY + " today)");
+                        return -1;
+                    }
+
+                    long wait = deadline - now;
+                    if (waiters.peek() == waiter) {
+                        long windowWait = windowWait(now);
+                        if (windowWait == 0) {
+                            recentGrants.addLast(now);
+                            usedToday++;
+                            return now;
+                        }
+                        wait = Math.min(wait, windowWait);
+                    }
+                    if (now >= deadline) {
+                        System.err.println("⚠ Gave up waiting for an API slot (" + priority + ")");
+                        return -1;
+                    }
+                    changed.await(wait, TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                waiters.remove(waiter);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Requests still left today for the given priority
+     */
+    public int getRemainingToday(Priority priority) {
+        lock.lock();
+        try {
+            long now = EpochTime.nowMillis();
+            rollDay(now);
+            return Math.max(0, dailyAllowance(priority, now) - usedToday);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * How many requests of today's budget a priority may have used in total by now
+     * Background requests may only keep pace with the time of day, plus one minute's worth.
+     */
+    private int dailyAllowance(Priority priority, long now) {
+        int allowance = PER_DAY - priority.reserved;
+        if (priority == Priority.BACKGROUND) {
+            double dayElapsed = (now - startOfDay(quotaDay)) / (double) TimeUnit.DAYS.toMillis(1);
+            allowance = Math.min(allowance, (int) (allowance * dayElapsed) + PER_MINUTE);
+        }
+        return allowance;
+    }
+
+    /**
+     * Milliseconds until the minute window has room, or 0 if it has now
+     */
+    private long windowWait(long now) {
+        while (!recentGrants.isEmpty() && recentGrants.peekFirst() <= now - WINDOW_MILLIS) {
+            recentGrants.pollFirst();
+        }
+        if (recentGrants.size() < PER_MINUTE) {
+            return 0;
+        }
+        return recentGrants.peekFirst() + WINDOW_MILLIS - now;
+    }
+
+    /**
+     * Record a grant in api_request_log so a restart restores today's count
+     */
+    private void logGrant(Priority priority, long now) {
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
+            lease.update("INSERT INTO api_request_log (requested_at, priority) VALUES (?, ?)", pstmt -> {
+                pstmt.setLong(1, now);
+                pstmt.setString(2, priority.name());
+            });
+        } catch (SQLException e) {
+            System.err.println("Error recording API request: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void rollDay(long now) {
+        long today = toQuotaDay(now);
+        if (today != quotaDay) {
+            quotaDay = today;
+            usedToday = 0;
+        }
+    }
+
+    /**
+     * Reload today's count and the last minute's grants, and drop log rows from earlier days
+     */
+    private void restore(long now) {
+        quotaDay = toQuotaDay(now);
+        long dayStart = startOfDay(quotaDay);
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
+            lease.update("DELETE FROM api_request_log WHERE requested_at < ?", pstmt -> pstmt.setLong(1, dayStart));
+            List<Long> grants = lease.query("SELECT requested_at FROM api_request_log ORDER BY requested_at",
+                ParameterBinder.NONE, rs -> rs.getLong(1));
+            usedToday = grants.size();
+            for (long grantedAt : grants) {
+                if (grantedAt > now - WINDOW_MILLIS) {
+                    recentGrants.addLast(grantedAt);
+                }
+            }
+            if (usedToday > 0) {
+                System.out.println("✓ API requests used today: " + usedToday + "/" + PER_DAY);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading API request log: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static long toQuotaDay(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(QUOTA_ZONE).toLocalDate().toEpochDay();
+    }
+
+    private static long startOfDay(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay(QUOTA_ZONE).toInstant().toEpochMilli();
+    }
+}
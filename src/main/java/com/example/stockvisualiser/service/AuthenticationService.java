@@ -1,12 +1,14 @@
 package com.example.stockvisualiser.service;
 
+import com.example.stockvisualiser.database.ConnectionLease;
 import com.example.stockvisualiser.database.DatabaseManager;
 import com.example.stockvisualiser.model.Admin;
 import com.example.stockvisualiser.model.Trader;
 import com.example.stockvisualiser.model.User;
 import org.mindrot.jbcrypt.BCrypt;
 
-import java.sql.*;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 
 /**
@@ -30,50 +32,25 @@ public class AuthenticationService {
      */
     public User login(String username, String password) {
         try {
-            String query = "SELECT * FROM users WHERE username = ?";
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                String storedHash = rs.getString("password_hash");
-                
-                // Verify password using BCrypt
-                if (BCrypt.checkpw(password, storedHash)) {
-                    String role = rs.getString("role");
-                    User user;
-
-                    // Create appropriate user object based on role (Polymorphism)
-                    if (role.equals("ADMIN")) {
-                        user = new Admin(
-                            rs.getInt("user_id"),
-                            rs.getString("username"),
-                            rs.getString("email"),
-                            rs.getString("full_name"),
-                            LocalDateTime.parse(rs.getString("created_at"))
-                        );
-                    } else {
-                        user = new Trader(
-                            rs.getInt("user_id"),
-                            rs.getString("username"),
-                            rs.getString("email"),
-                            rs.getString("full_name"),
-                            LocalDateTime.parse(rs.getString("created_at"))
-                        );
-                    }
-
-                    // Update last login
-                    updateLastLogin(user.getUserId());
-                    user.setLastLogin(LocalDateTime.now());
-                    
-                    currentUser = user;
-                    System.out.println("Login successful: " + user.getDisplayRole());
-                    return user;
-                }
+            Account account;
+            try (ConnectionLease lease = dbManager.acquireReader()) {
+                String query = "SELECT user_id, username, email, full_name, role, created_at, password_hash "
+                    + "FROM users WHERE username = ?";
+                account = lease.queryFirst(query, pstmt -> pstmt.setString(1, username), AuthenticationService::mapAccount);
+            }
+
+            // Verify password using BCrypt
+            if (account != null && BCrypt.checkpw(password, account.passwordHash)) {
+                User user = account.user;
+
+                // Update last login
+                updateLastLogin(user.getUserId());
+                user.setLastLogin(LocalDateTime.now());
+
+                currentUser = user;
+                System.out.println("Login successful: " + user.getDisplayRole());
+                return user;
             }
-            
-            rs.close();
-            pstmt.close();
         } catch (SQLException e) {
             System.err.println("Login error: " + e.getMessage());
             e.printStackTrace();
@@ -81,6 +58,24 @@ public class AuthenticationService {
         return null;
     }
 
+    /**
+     * Map a users row selected by login()
+     */
+    private static Account mapAccount(ResultSet rs) throws SQLException {
+        int userId = rs.getInt(1);
+        String username = rs.getString(2);
+        String email = rs.getString(3);
+        String fullName = rs.getString(4);
+        String role = rs.getString(5);
+        LocalDateTime createdAt = LocalDateTime.parse(rs.getString(6));
+
+        // Create appropriate user object based on role (Polymorphism)
+        User user = role.equals("ADMIN")
+            ? new Admin(userId, username, email, fullName, createdAt)
+            : new Trader(userId, username, email, fullName, createdAt);
+        return new Account(user, rs.getString(7));
+    }
+
     /**
      * Register a new user
      * @param username Unique username
@@ -91,15 +86,15 @@ public class AuthenticationService {
      * @return true if registration successful
      */
     public boolean register(String username, String password, String email, String fullName, User.UserRole role) {
-        try {
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
             // Check if username already exists
-            if (usernameExists(username)) {
+            if (usernameExists(lease, username)) {
                 System.err.println("Username already exists!");
                 return false;
             }
 
             // Check if email already exists
-            if (emailExists(email)) {
+            if (emailExists(lease, email)) {
                 System.err.println("Email already exists!");
                 return false;
             }
@@ -113,16 +108,14 @@ public class AuthenticationService {
                 VALUES (?, ?, ?, ?, ?, ?)
             """;
             
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setString(1, username);
-            pstmt.setString(2, passwordHash);
-            pstmt.setString(3, email);
-            pstmt.setString(4, fullName);
-            pstmt.setString(5, role.toString());
-            pstmt.setString(6, LocalDateTime.now().toString());
-            
-            int rowsAffected = pstmt.executeUpdate();
-            pstmt.close();
+            int rowsAffected = lease.update(query, pstmt -> {
+                pstmt.setString(1, username);
+                pstmt.setString(2, passwordHash);
+                pstmt.setString(3, email);
+                pstmt.setString(4, fullName);
+                pstmt.setString(5, role.toString());
+                pstmt.setString(6, LocalDateTime.now().toString());
+            });
 
             System.out.println("Registration successful for: " + username);
             return rowsAffected > 0;
@@ -136,29 +129,19 @@ public class AuthenticationService {
     /**
      * Check if username exists in database
      */
-    private boolean usernameExists(String username) throws SQLException {
+    private boolean usernameExists(ConnectionLease lease, String username) throws SQLException {
         String query = "SELECT COUNT(*) FROM users WHERE username = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-        pstmt.setString(1, username);
-        ResultSet rs = pstmt.executeQuery();
-        boolean exists = rs.next() && rs.getInt(1) > 0;
-        rs.close();
-        pstmt.close();
-        return exists;
+        Integer count = lease.queryFirst(query, pstmt -> pstmt.setString(1, username), RowMappers.COUNT);
+        return count != null && count > 0;
     }
 
     /**
      * Check if email exists in database
      */
-    private boolean emailExists(String email) throws SQLException {
+    private boolean emailExists(ConnectionLease lease, String email) throws SQLException {
         String query = "SELECT COUNT(*) FROM users WHERE email = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-        pstmt.setString(1, email);
-        ResultSet rs = pstmt.executeQuery();
-        boolean exists = rs.next() && rs.getInt(1) > 0;
-        rs.close();
-        pstmt.close();
-        return exists;
+        Integer count = lease.queryFirst(query, pstmt -> pstmt.setString(1, email), RowMappers.COUNT);
+        return count != null && count > 0;
     }
 
     /**
@@ -166,11 +149,12 @@ public class AuthenticationService {
      */
     private void updateLastLogin(int userId) throws SQLException {
         String query = "UPDATE users SET last_login = ? WHERE user_id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-        pstmt.setString(1, LocalDateTime.now().toString());
-        pstmt.setInt(2, userId);
-        pstmt.executeUpdate();
-        pstmt.close();
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
+            lease.update(query, pstmt -> {
+                pstmt.setString(1, LocalDateTime.now().toString());
+                pstmt.setInt(2, userId);
+            });
+        }
     }
 
     /**
@@ -194,4 +178,17 @@ public class AuthenticationService {
     public boolean isLoggedIn() {
         return currentUser != null;
     }
+
+    /**
+     * A user together with the stored password hash, which never leaves this service
+     */
+    private static class Account {
+        private final User user;
+        private final String passwordHash;
+
+        Account(User user, String passwordHash) {
+            this.user = user;
+            this.passwordHash = passwordHash;
+        }
+    }
 }
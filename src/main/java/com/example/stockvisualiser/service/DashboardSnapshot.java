@@ -0,0 +1,61 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.model.Portfolio;
+import com.example.stockvisualiser.model.Transaction;
+import com.example.stockvisualiser.model.Watchlist;
+
+import java.util.List;
+
+/**
+ * DashboardSnapshot - Everything the dashboard shows for one user, read at a single point in time
+ * Loaded by DashboardSnapshotService inside one read transaction so every widget agrees.
+ */
+public class DashboardSnapshot {
+    private final int userId;
+    private final List<Portfolio> holdings;
+    private final PortfolioService.PortfolioStats stats;
+    private final List<Transaction> transactions;
+    private final List<Watchlist> watchlist;
+    private final StockCatalog.Snapshot catalog;
+    private final long loadedAt;
+
+    public DashboardSnapshot(int userId, List<Portfolio> holdings, PortfolioService.PortfolioStats stats,
+                             List<Transaction> transactions, List<Watchlist> watchlist,
+                             StockCatalog.Snapshot catalog, long loadedAt) {
+        this.userId = userId;
+        this.holdings = List.copyOf(holdings);
+        this.stats = stats;
+        this.transactions = List.copyOf(transactions);
+        this.watchlist = List.copyOf(watchlist);
+        this.catalog = catalog;
+        this.loadedAt = loadedAt;
+    }
+
+    public int getUserId() { return userId; }
+    public List<Portfolio> getHoldings() { return holdings; }
+    public PortfolioService.PortfolioStats getStats() { return stats; }
+
+    /**
+     * Full transaction history, newest first
+     */
+    public List<Transaction> getTransactions() { return transactions; }
+
+    /**
+     * The newest transactions, taken from the same history
+     */
+    public List<Transaction> getRecentTransactions(int limit) {
+        return transactions.subList(0, Math.min(limit, transactions.size()));
+    }
+
+    public List<Watchlist> getWatchlist() { return watchlist; }
+
+    /**
+     * Catalog snapshot at load time, or null if the catalog could not be loaded
+     */
+    public StockCatalog.Snapshot getCatalog() { return catalog; }
+
+    /**
+     * Load time in epoch milliseconds
+     */
+    public long getLoadedAt() { return loadedAt; }
+}
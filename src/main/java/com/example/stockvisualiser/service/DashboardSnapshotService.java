@@ -0,0 +1,65 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.database.ConnectionLease;
+import com.example.stockvisualiser.database.DatabaseManager;
+import com.example.stockvisualiser.model.Portfolio;
+import com.example.stockvisualiser.model.Transaction;
+import com.example.stockvisualiser.model.Watchlist;
+import com.example.stockvisualiser.util.BackgroundTasks;
+import com.example.stockvisualiser.util.EpochTime;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * DashboardSnapshotService - Loads all dashboard data for a user in one pass
+ * Holdings, transaction history and watchlist are read on one reader lease inside a single read
+ * transaction; stats and recent transactions are derived from those rows instead of re-queried.
+ */
+public class DashboardSnapshotService {
+    private final DatabaseManager dbManager;
+    private final PortfolioService portfolioService;
+    private final TransactionService transactionService;
+    private final WatchlistService watchlistService;
+    private final StockService stockService;
+
+    public DashboardSnapshotService() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.portfolioService = new PortfolioService();
+        this.transactionService = new TransactionService();
+        this.watchlistService = new WatchlistService();
+        this.stockService = new StockService();
+    }
+
+    /**
+     * Load a consistent snapshot of the user's dashboard
+     * @return The snapshot, or null if the database could not be read
+     */
+    public DashboardSnapshot loadSnapshot(int userId) {
+        // The catalog is served from memory and versioned on its own
+        StockCatalog.Snapshot catalog = stockService.getCatalogSnapshot();
+
+        try (ConnectionLease lease = dbManager.acquireReader()) {
+            lease.beginReadTransaction();
+
+            List<Portfolio> holdings = portfolioService.getUserPortfolio(lease, userId);
+            List<Transaction> transactions = transactionService.getUserTransactions(lease, userId);
+            List<Watchlist> watchlist = watchlistService.getUserWatchlist(lease, userId);
+
+            return new DashboardSnapshot(userId, holdings, PortfolioService.statsOf(holdings),
+                transactions, watchlist, catalog, EpochTime.nowMillis());
+        } catch (SQLException e) {
+            System.err.println("Error loading dashboard: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Load the snapshot on a virtual thread; completes with null if the database could not be read
+     */
+    public CompletableFuture<DashboardSnapshot> loadSnapshotAsync(int userId) {
+        return BackgroundTasks.supply(() -> loadSnapshot(userId));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.market.PriceFeed;
+import com.example.stockvisualiser.market.TickRing;
+import com.example.stockvisualiser.model.Stock;
+
+import java.util.List;
+
+/**
+ * PolledPriceFeed - Live ticks for stored prices, by polling the stock catalog
+ * Picks up every price written through StockService, e.g. by a PriceRefreshTask, and streams it to
+ * the stocks on screen without reloading the table. Polling is cheap: an unchanged catalog is one
+ * version check, and unchanged entries keep their identity, so only moved prices are compared.
+ */
+public class PolledPriceFeed implements PriceFeed {
+    private static final long POLL_MILLIS = Long.getLong("stockvisualiser.live.pollMillis", 1000);
+
+    private final StockService stockService;
+    private final int[] stockIds;
+    private final double[] published;
+
+    /**
+     * @param stocks Stocks to follow; slot i is stocks.get(i)
+     */
+    public PolledPriceFeed(StockService stockService, List<Stock> stocks) {
+        this.stockService = stockService;
+        this.stockIds = new int[stocks.size()];
+        this.published = new double[stocks.size()];
+        for (int i = 0; i < stockIds.length; i++) {
+            stockIds[i] = stocks.get(i).getStockId();
+            published[i] = stocks.get(i).getCurrentPrice();
+        }
+    }
+
+    @Override
+    public void run(TickRing ring) throws InterruptedException {
+        StockCatalog.Entry[] seen = new StockCatalog.Entry[stockIds.length];
+        long version = -1;
+        while (true) {
+            StockCatalog.Snapshot snapshot = stockService.getCatalogSnapshot();
+            if (snapshot != null && snapshot.getVersion() != version) {
+                version = snapshot.getVersion();
+                for (int slot = 0; slot < stockIds.length; slot++) {
+                    StockCatalog.Entry entry = snapshot.getById(stockIds[slot]);
+                    if (entry == null || entry == seen[slot]) {
+                        continue;
+                    }
+                    seen[slot] = entry;
+                    if (entry.getCurrentPrice() != published[slot]) {
+                        published[slot] = entry.getCurrentPrice();
+                        ring.put(slot, entry.getLastUpdated(), entry.getCurrentPrice());
+                    }
+                }
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+}
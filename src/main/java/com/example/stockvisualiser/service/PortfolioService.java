@@ -1,12 +1,16 @@
 package com.example.stockvisualiser.service;
 
+import com.example.stockvisualiser.database.ConnectionLease;
 import com.example.stockvisualiser.database.DatabaseManager;
 import com.example.stockvisualiser.model.Portfolio;
+import com.example.stockvisualiser.util.BackgroundTasks;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.sql.*;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * PortfolioService - Handles portfolio management operations (CRUD)
@@ -24,36 +28,8 @@ public class PortfolioService {
     public ObservableList<Portfolio> getUserPortfolio(int userId) {
         ObservableList<Portfolio> portfolios = FXCollections.observableArrayList();
         
-        try {
-            String query = """
-                SELECT p.*, s.symbol, s.company_name, s.current_price
-                FROM portfolio p
-                JOIN stocks s ON p.stock_id = s.stock_id
-                WHERE p.user_id = ?
-                ORDER BY p.purchase_date DESC
-            """;
-            
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                Portfolio portfolio = new Portfolio(
-                    rs.getInt("portfolio_id"),
-                    rs.getInt("user_id"),
-                    rs.getInt("stock_id"),
-                    rs.getString("symbol"),
-                    rs.getString("company_name"),
-                    rs.getInt("quantity"),
-                    rs.getDouble("purchase_price"),
-                    rs.getDouble("current_price"),
-                    LocalDate.parse(rs.getString("purchase_date"))
-                );
-                portfolios.add(portfolio);
-            }
-
-            rs.close();
-            pstmt.close();
+        try (ConnectionLease lease = dbManager.acquireReader()) {
+            portfolios.setAll(getUserPortfolio(lease, userId));
         } catch (SQLException e) {
             System.err.println("Error fetching portfolio: " + e.getMessage());
             e.printStackTrace();
@@ -62,25 +38,33 @@ public class PortfolioService {
         return portfolios;
     }
 
+    /**
+     * Load a user's holdings on an existing lease, newest first
+     */
+    List<Portfolio> getUserPortfolio(ConnectionLease lease, int userId) throws SQLException {
+        String query = "SELECT " + RowMappers.PORTFOLIO_COLUMNS
+            + " FROM portfolio p JOIN stocks s ON p.stock_id = s.stock_id"
+            + " WHERE p.user_id = ? ORDER BY p.purchase_date DESC";
+        return lease.query(query, pstmt -> pstmt.setInt(1, userId), RowMappers.PORTFOLIO);
+    }
+
     /**
      * Add stock to user's portfolio
      */
     public boolean addToPortfolio(int userId, int stockId, int quantity, double purchasePrice, LocalDate purchaseDate) {
-        try {
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
             String query = """
                 INSERT INTO portfolio (user_id, stock_id, quantity, purchase_price, purchase_date)
                 VALUES (?, ?, ?, ?, ?)
             """;
             
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, stockId);
-            pstmt.setInt(3, quantity);
-            pstmt.setDouble(4, purchasePrice);
-            pstmt.setString(5, purchaseDate.toString());
-
-            int rowsAffected = pstmt.executeUpdate();
-            pstmt.close();
+            int rowsAffected = lease.update(query, pstmt -> {
+                pstmt.setInt(1, userId);
+                pstmt.setInt(2, stockId);
+                pstmt.setInt(3, quantity);
+                pstmt.setDouble(4, purchasePrice);
+                pstmt.setLong(5, purchaseDate.toEpochDay());
+            });
 
             return rowsAffected > 0;
         } catch (SQLException e) {
@@ -94,14 +78,12 @@ public class PortfolioService {
      * Update portfolio holding quantity
      */
     public boolean updatePortfolioQuantity(int portfolioId, int newQuantity) {
-        try {
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
             String query = "UPDATE portfolio SET quantity = ? WHERE portfolio_id = ?";
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, newQuantity);
-            pstmt.setInt(2, portfolioId);
-
-            int rowsAffected = pstmt.executeUpdate();
-            pstmt.close();
+            int rowsAffected = lease.update(query, pstmt -> {
+                pstmt.setInt(1, newQuantity);
+                pstmt.setInt(2, portfolioId);
+            });
 
             return rowsAffected > 0;
         } catch (SQLException e) {
@@ -115,13 +97,9 @@ public class PortfolioService {
      * Remove stock from portfolio
      */
     public boolean removeFromPortfolio(int portfolioId) {
-        try {
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
             String query = "DELETE FROM portfolio WHERE portfolio_id = ?";
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, portfolioId);
-
-            int rowsAffected = pstmt.executeUpdate();
-            pstmt.close();
+            int rowsAffected = lease.update(query, pstmt -> pstmt.setInt(1, portfolioId));
 
             return rowsAffected > 0;
         } catch (SQLException e) {
@@ -135,47 +113,61 @@ public class PortfolioService {
      * Calculate total portfolio value for a user
      */
     public double getTotalPortfolioValue(int userId) {
-        double totalValue = 0.0;
-        ObservableList<Portfolio> portfolios = getUserPortfolio(userId);
-        
-        for (Portfolio portfolio : portfolios) {
-            totalValue += portfolio.getCurrentValue();
-        }
-        
-        return totalValue;
+        return getPortfolioStats(userId).getTotalValue();
     }
 
     /**
      * Calculate total investment for a user
      */
     public double getTotalInvestment(int userId) {
-        double totalInvestment = 0.0;
-        ObservableList<Portfolio> portfolios = getUserPortfolio(userId);
-        
-        for (Portfolio portfolio : portfolios) {
-            totalInvestment += portfolio.getTotalInvestment();
-        }
-        
-        return totalInvestment;
+        return getPortfolioStats(userId).getTotalInvestment();
     }
 
     /**
      * Calculate total profit/loss for a user
      */
     public double getTotalProfitLoss(int userId) {
-        return getTotalPortfolioValue(userId) - getTotalInvestment(userId);
+        return getPortfolioStats(userId).getProfitLoss();
     }
 
     /**
      * Get portfolio statistics for a user
+     * Value and cost basis are summed in a single aggregate query; no holdings are loaded
      */
     public PortfolioStats getPortfolioStats(int userId) {
-        double totalValue = getTotalPortfolioValue(userId);
-        double totalInvestment = getTotalInvestment(userId);
-        double profitLoss = totalValue - totalInvestment;
-        double profitLossPercentage = totalInvestment > 0 ? (profitLoss / totalInvestment) * 100 : 0;
-        
-        return new PortfolioStats(totalValue, totalInvestment, profitLoss, profitLossPercentage);
+        String query = """
+            SELECT COALESCE(SUM(p.quantity * s.current_price), 0),
+                   COALESCE(SUM(p.quantity * p.purchase_price), 0),
+                   COUNT(*)
+            FROM portfolio p
+            JOIN stocks s ON p.stock_id = s.stock_id
+            WHERE p.user_id = ?
+        """;
+
+        try (ConnectionLease lease = dbManager.acquireReader()) {
+            PortfolioStats stats = lease.queryFirst(query, pstmt -> pstmt.setInt(1, userId),
+                rs -> PortfolioStats.of(rs.getDouble(1), rs.getDouble(2), rs.getInt(3)));
+            if (stats != null) {
+                return stats;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error calculating portfolio stats: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return PortfolioStats.of(0, 0, 0);
+    }
+
+    /**
+     * Sum statistics over holdings that are already loaded
+     */
+    static PortfolioStats statsOf(List<Portfolio> holdings) {
+        double totalValue = 0.0;
+        double totalInvestment = 0.0;
+        for (Portfolio holding : holdings) {
+            totalValue += holding.getCurrentValue();
+            totalInvestment += holding.getTotalInvestment();
+        }
+        return PortfolioStats.of(totalValue, totalInvestment, holdings.size());
     }
 
     /**
@@ -187,16 +179,45 @@ public class PortfolioService {
         private final double profitLoss;
         private final double profitLossPercentage;
 
+        private final int holdingCount;
+
         public PortfolioStats(double totalValue, double totalInvestment, double profitLoss, double profitLossPercentage) {
+            this(totalValue, totalInvestment, profitLoss, profitLossPercentage, 0);
+        }
+
+        public PortfolioStats(double totalValue, double totalInvestment, double profitLoss, double profitLossPercentage,
+                              int holdingCount) {
             this.totalValue = totalValue;
             this.totalInvestment = totalInvestment;
             this.profitLoss = profitLoss;
             this.profitLossPercentage = profitLossPercentage;
+            this.holdingCount = holdingCount;
+        }
+
+        /**
+         * Derive P&L from value and cost basis
+         */
+        public static PortfolioStats of(double totalValue, double totalInvestment, int holdingCount) {
+            double profitLoss = totalValue - totalInvestment;
+            double profitLossPercentage = totalInvestment > 0 ? (profitLoss / totalInvestment) * 100 : 0;
+            return new PortfolioStats(totalValue, totalInvestment, profitLoss, profitLossPercentage, holdingCount);
         }
 
         public double getTotalValue() { return totalValue; }
         public double getTotalInvestment() { return totalInvestment; }
         public double getProfitLoss() { return profitLoss; }
         public double getProfitLossPercentage() { return profitLossPercentage; }
+        public int getHoldingCount() { return holdingCount; }
+    }
+
+    // ============ ASYNC VARIANTS ============
+    // Each runs the blocking call above on a virtual thread; see BackgroundTasks.
+
+    public CompletableFuture<ObservableList<Portfolio>> getUserPortfolioAsync(int userId) {
+        return BackgroundTasks.supply(() -> getUserPortfolio(userId));
+    }
+
+    public CompletableFuture<PortfolioStats> getPortfolioStatsAsync(int userId) {
+        return BackgroundTasks.supply(() -> getPortfolioStats(userId));
     }
 }
@@ -0,0 +1,134 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.database.ConnectionLease;
+import com.example.stockvisualiser.database.DatabaseManager;
+import com.example.stockvisualiser.model.PriceBar;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PriceHistoryStore - Daily price bars kept in the price_history table
+ * Bars are keyed by (stock_id, date), so writing a day that is already stored replaces it.
+ */
+public class PriceHistoryStore {
+    private final DatabaseManager dbManager;
+
+    public PriceHistoryStore() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * What is stored for one stock: its newest bar and when it was last synced
+     */
+    public static class SyncState {
+        private final Long lastDate;
+        private final Long syncedAt;
+
+        SyncState(Long lastDate, Long syncedAt) {
+            this.lastDate = lastDate;
+            this.syncedAt = syncedAt;
+        }
+
+        /** Epoch day of the newest stored bar, or null if nothing is stored */
+        public Long getLastDate() { return lastDate; }
+
+        /** Epoch milliseconds of the last successful sync, or null if never synced */
+        public Long getSyncedAt() { return syncedAt; }
+    }
+
+    /**
+     * Get the newest stored date and last sync time for a stock
+     */
+    public SyncState getSyncState(int stockId) throws SQLException {
+        String query = "SELECT (SELECT MAX(date) FROM price_history WHERE stock_id = ?),"
+            + " (SELECT synced_at FROM price_history_sync WHERE stock_id = ?)";
+        try (ConnectionLease lease = dbManager.acquireReader()) {
+            return lease.queryFirst(query, pstmt -> {
+                pstmt.setInt(1, stockId);
+                pstmt.setInt(2, stockId);
+            }, rs -> new SyncState(getNullableLong(rs, 1), getNullableLong(rs, 2)));
+        }
+    }
+
+    private static Long getNullableLong(ResultSet rs, int column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * Get the most recent bars for a stock
+     * @param count Maximum number of bars
+     * @return Up to count bars, oldest first
+     */
+    public List<PriceBar> getRecentBars(int stockId, int count) throws SQLException {
+        String query = "SELECT " + RowMappers.PRICE_BAR_COLUMNS
+            + " FROM price_history WHERE stock_id = ? ORDER BY date DESC LIMIT ?";
+        List<PriceBar> bars;
+        try (ConnectionLease lease = dbManager.acquireReader()) {
+            bars = lease.query(query, pstmt -> {
+                pstmt.setInt(1, stockId);
+                pstmt.setInt(2, count);
+            }, RowMappers.PRICE_BAR);
+        }
+        Collections.reverse(bars);
+        return bars;
+    }
+
+    /**
+     * Store bars and record the sync time in one write transaction
+     * Existing days are overwritten, so a bar captured before the close is replaced by the final one.
+     * @return Number of bars written
+     */
+    public int saveBars(int stockId, List<PriceBar> bars, long syncedAt) throws SQLException {
+        String upsertBar = """
+            INSERT INTO price_history (stock_id, date, open, high, low, close, volume)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (stock_id, date) DO UPDATE SET
+                open = excluded.open, high = excluded.high, low = excluded.low,
+                close = excluded.close, volume = excluded.volume
+        """;
+        String upsertSync = """
+            INSERT INTO price_history_sync (stock_id, synced_at) VALUES (?, ?)
+            ON CONFLICT (stock_id) DO UPDATE SET synced_at = excluded.synced_at
+        """;
+
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
+            Connection conn = lease.getConnection();
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement pstmt = lease.prepare(upsertBar);
+                for (PriceBar bar : bars) {
+                    pstmt.setInt(1, stockId);
+                    pstmt.setLong(2, bar.getEpochDay());
+                    pstmt.setDouble(3, bar.getOpen());
+                    pstmt.setDouble(4, bar.getHigh());
+                    pstmt.setDouble(5, bar.getLow());
+                    pstmt.setDouble(6, bar.getClose());
+                    pstmt.setLong(7, bar.getVolume());
+                    pstmt.addBatch();
+                }
+                if (!bars.isEmpty()) {
+                    pstmt.executeBatch();
+                }
+
+                lease.update(upsertSync, sync -> {
+                    sync.setInt(1, stockId);
+                    sync.setLong(2, syncedAt);
+                });
+
+                conn.commit();
+                return bars.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.model.PriceBar;
+import com.example.stockvisualiser.util.EpochTime;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PriceHistorySync - Keeps price_history current while spending as few API requests as possible
+ * A stock is fetched at most once per market close: once the store holds the bar for the latest
+ * close, charts are served locally until the next one. A sync writes only the bars from the newest
+ * stored date onwards, so re-fetching never rewrites the rest of the history.
+ */
+public class PriceHistorySync {
+    private static final ZoneId MARKET_ZONE = ZoneId.of("America/New_York");
+    private static final LocalTime MARKET_CLOSE = LocalTime.of(16, 0);
+    // Calendar days covered by the 100 bars of the compact series
+    private static final int COMPACT_CALENDAR_DAYS = 140;
+    // When a sync after the close still finds no bar for it (holiday, data not published yet), wait this long
+    private static final long RETRY_MILLIS = Integer.getInteger("stockvisualiser.history.retryMinutes", 240) * 60_000L;
+
+    /**
+     * Fetches the daily series of a symbol from the remote API
+     */
+    public interface DailyBarsSource {
+        /**
+         * @param full Whether the whole history is needed rather than the latest 100 trading days
+         * @return The bars the API returned, or null if the request failed
+         */
+        List<PriceBar> fetchDailyBars(String symbol, boolean full);
+    }
+
+    private final PriceHistoryStore store;
+    private final DailyBarsSource source;
+
+    public PriceHistorySync(PriceHistoryStore store, DailyBarsSource source) {
+        this.store = store;
+        this.source = source;
+    }
+
+    /**
+     * Get the most recent bars of a stock, syncing first if the store is behind
+     * If the API cannot be reached, whatever is already stored is returned.
+     * @param count Maximum number of bars
+     * @return Up to count bars, oldest first; empty if nothing is stored and the sync failed
+     */
+    public List<PriceBar> getRecentBars(int stockId, String symbol, int count) {
+        try {
+            PriceHistoryStore.SyncState state = store.getSyncState(stockId);
+            if (needsSync(state, EpochTime.nowMillis())) {
+                sync(stockId, symbol, state);
+            }
+            return store.getRecentBars(stockId, count);
+        } catch (SQLException e) {
+            System.err.println("Error reading price history for " + symbol + ": " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Fetch the daily series and store the bars from the newest stored date onwards
+     * The first sync of a stock asks for the full history, later ones for the compact series.
+     * The newest stored bar is written again in case it was captured before that day's close.
+     * @return Number of bars written, or -1 if the API request failed
+     */
+    public int sync(int stockId, String symbol) throws SQLException {
+        return sync(stockId, symbol, store.getSyncState(stockId));
+    }
+
+    private int sync(int stockId, String symbol, PriceHistoryStore.SyncState state) throws SQLException {
+        Long lastDate = state.getLastDate();
+        List<PriceBar> fetched = source.fetchDailyBars(symbol, needsFullSeries(lastDate, EpochTime.nowMillis()));
+        if (fetched == null) {
+            return -1;
+        }
+
+        List<PriceBar> newBars = new ArrayList<>();
+        for (PriceBar bar : fetched) {
+            if (lastDate == null || bar.getEpochDay() >= lastDate) {
+                newBars.add(bar);
+            }
+        }
+
+        int written = store.saveBars(stockId, newBars, EpochTime.nowMillis());
+        System.out.println("✓ Synced " + symbol + ": " + written + " of " + fetched.size() + " bars written");
+        return written;
+    }
+
+    /**
+     * Decide whether a sync has to ask for the full series
+     * That is when nothing is stored yet, or when the gap since the newest stored bar is more than the
+     * compact series (100 trading days, about 140 calendar days) would fill.
+     * @param lastDate Newest stored trading day as an epoch day, or null if none
+     */
+    static boolean needsFullSeries(Long lastDate, long nowMillis) {
+        return lastDate == null
+            || lastMarketClose(nowMillis).toLocalDate().toEpochDay() - lastDate >= COMPACT_CALENDAR_DAYS;
+    }
+
+    /**
+     * Decide whether the API has to be asked for newer bars
+     */
+    static boolean needsSync(PriceHistoryStore.SyncState state, long nowMillis) {
+        Long syncedAt = state.getSyncedAt();
+        if (syncedAt == null) {
+            return true;
+        }
+
+        if (syncedAt < lastMarketClose(nowMillis).toInstant().toEpochMilli()) {
+            // A market close has passed since the last sync
+            return true;
+        }
+        Long lastDate = state.getLastDate();
+        if (lastDate != null && !isBehindLastClose(lastDate, nowMillis)) {
+            return false;
+        }
+        // Synced after the close but its bar was missing; ask again only after a while
+        return nowMillis - syncedAt >= RETRY_MILLIS;
+    }
+
+    /**
+     * When a series whose newest bar is on the given day may next have newer data
+     * That is the next market close, or the retry interval if the bar for the last close is still missing.
+     * @param newestEpochDay Newest trading day held, as an epoch day
+     * @return Epoch milliseconds
+     */
+    static long nextUpdateMillis(long newestEpochDay, long nowMillis) {
+        if (isBehindLastClose(newestEpochDay, nowMillis)) {
+            return nowMillis + RETRY_MILLIS;
+        }
+        ZonedDateTime next = lastMarketClose(nowMillis).plusDays(1);
+        while (next.getDayOfWeek() == DayOfWeek.SATURDAY || next.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            next = next.plusDays(1);
+        }
+        return next.toInstant().toEpochMilli();
+    }
+
+    /**
+     * Check whether a trading day is older than the most recent market close
+     * @param epochDay Trading day as an epoch day
+     */
+    static boolean isBehindLastClose(long epochDay, long nowMillis) {
+        return epochDay < lastMarketClose(nowMillis).toLocalDate().toEpochDay();
+    }
+
+    /**
+     * The most recent weekday 16:00 New York time at or before the given instant
+     */
+    static ZonedDateTime lastMarketClose(long nowMillis) {
+        ZonedDateTime now = Instant.ofEpochMilli(nowMillis).atZone(MARKET_ZONE);
+        ZonedDateTime close = now.toLocalDate().atTime(MARKET_CLOSE).atZone(MARKET_ZONE);
+        if (now.isBefore(close)) {
+            close = close.minusDays(1);
+        }
+        while (close.getDayOfWeek() == DayOfWeek.SATURDAY || close.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            close = close.minusDays(1);
+        }
+        return close;
+    }
+}
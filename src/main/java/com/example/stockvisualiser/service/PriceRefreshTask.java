@@ -0,0 +1,162 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.model.Quote;
+import javafx.concurrent.Task;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PriceRefreshTask - Refreshes the current price of many stocks in the background
+ * Quotes are fetched on virtual threads, at most PARALLELISM at a time, in the order set by
+ * StockService.getRefreshPriorities. A symbol that fails is recorded and skipped without affecting
+ * the others. Prices are written in one batch with StockService.updateStockPrices once every quote
+ * is in. Stop it with stop() rather than cancel(): a stopped task still writes the prices it already
+ * fetched, since their API requests have been spent, and then succeeds with a Result marked cancelled,
+ * so the caller learns the outcome of the write.
+ */
+public class PriceRefreshTask extends Task<PriceRefreshTask.Result> {
+    private static final int PARALLELISM = Integer.getInteger("stockvisualiser.refresh.parallelism", 4);
+
+    /**
+     * Outcome of a refresh
+     */
+    public static class Result {
+        private final int updated;
+        private final int unchanged;
+        private final int stale;
+        private final List<String> failed;
+        private final boolean cancelled;
+
+        Result(int updated, int unchanged, int stale, List<String> failed, boolean cancelled) {
+            this.updated = updated;
+            this.unchanged = unchanged;
+            this.stale = stale;
+            this.failed = failed;
+            this.cancelled = cancelled;
+        }
+
+        /** Number of stock prices that changed */
+        public int getUpdated() { return updated; }
+        /** Number of quotes equal to the stored price */
+        public int getUnchanged() { return unchanged; }
+        /** How many of the quotes are from before the last market close */
+        public int getStale() { return stale; }
+        /** Symbols for which no quote could be obtained */
+        public List<String> getFailed() { return failed; }
+        /** True if the task was stopped before every symbol was fetched */
+        public boolean isCancelled() { return cancelled; }
+    }
+
+    private final StockService stockService;
+    private final StockDataService stockDataService;
+    private final Map<Integer, String> symbols;
+    private volatile boolean stopRequested;
+    // Thread running call() while fetching; null once the write has started
+    private Thread fetchingThread;
+
+    /**
+     * @param symbols Symbol by stock id of every stock to refresh
+     */
+    public PriceRefreshTask(StockService stockService, StockDataService stockDataService, Map<Integer, String> symbols) {
+        this.stockService = stockService;
+        this.stockDataService = stockDataService;
+        this.symbols = new LinkedHashMap<>(symbols);
+    }
+
+    /**
+     * Stop fetching; the quotes already in are saved and the task then succeeds
+     */
+    public synchronized void stop() {
+        stopRequested = true;
+        if (fetchingThread != null) {
+            fetchingThread.interrupt();
+        }
+    }
+
+    @Override
+    protected Result call() throws Exception {
+        synchronized (this) {
+            fetchingThread = Thread.currentThread();
+        }
+        Map<Integer, ApiRequestScheduler.Priority> priorities = stockService.getRefreshPriorities();
+        List<Integer> stockIds = new ArrayList<>(symbols.keySet());
+        stockIds.sort(Comparator.comparing(
+            stockId -> priorities.getOrDefault(stockId, ApiRequestScheduler.Priority.BACKGROUND)));
+
+        int total = stockIds.size();
+        Map<Integer, Quote> quotes = new ConcurrentHashMap<>();
+        List<String> failed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger done = new AtomicInteger();
+        Semaphore slots = new Semaphore(PARALLELISM);
+        updateProgress(0, total);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for (int stockId : stockIds) {
+                    slots.acquire();
+                    if (stopRequested || isCancelled()) {
+                        slots.release();
+                        break;
+                    }
+                    String symbol = symbols.get(stockId);
+                    ApiRequestScheduler.Priority priority =
+                        priorities.getOrDefault(stockId, ApiRequestScheduler.Priority.BACKGROUND);
+                    executor.submit(() -> {
+                        try {
+                            Quote quote = stockDataService.getQuote(symbol, priority);
+                            if (quote != null) {
+                                quotes.put(stockId, quote);
+                            } else {
+                                failed.add(symbol);
+                            }
+                        } catch (RuntimeException e) {
+                            System.err.println("Error refreshing " + symbol + ": " + e.getMessage());
+                            failed.add(symbol);
+                        } finally {
+                            slots.release();
+                            int finished = done.incrementAndGet();
+                            updateProgress(finished, total);
+                            updateMessage("Fetched " + finished + " of " + total + " prices");
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts this thread; stop the fetches still running and keep what is in
+                executor.shutdownNow();
+            }
+        }
+        // Clear a pending interrupt from stop() so the write below is not disturbed
+        synchronized (this) {
+            fetchingThread = null;
+            Thread.interrupted();
+        }
+
+        updateMessage("Saving " + quotes.size() + " prices");
+        Map<Integer, Double> prices = new HashMap<>();
+        int stale = 0;
+        for (Map.Entry<Integer, Quote> entry : quotes.entrySet()) {
+            prices.put(entry.getKey(), entry.getValue().getPrice());
+            if (entry.getValue().isStale()) {
+                stale++;
+            }
+        }
+        int updated = stockService.updateStockPrices(prices);
+        if (updated < 0) {
+            throw new SQLException("Could not save refreshed prices");
+        }
+        updateMessage("Updated " + updated + " of " + total + " prices");
+        return new Result(updated, quotes.size() - updated, stale, new ArrayList<>(failed), stopRequested);
+    }
+}
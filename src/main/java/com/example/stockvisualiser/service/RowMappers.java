@@ -0,0 +1,98 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.database.RowMapper;
+import com.example.stockvisualiser.model.Portfolio;
+import com.example.stockvisualiser.model.PriceBar;
+import com.example.stockvisualiser.model.Stock;
+import com.example.stockvisualiser.model.Transaction;
+import com.example.stockvisualiser.model.Watchlist;
+
+/**
+ * RowMappers - Column lists and matching row mappers for the model classes
+ * Each mapper reads columns by position, so a query must select exactly the column list
+ * declared next to it, in the same order.
+ */
+final class RowMappers {
+
+    private RowMappers() {
+    }
+
+    static final String STOCK_COLUMNS = "stock_id, symbol, company_name, sector, current_price, last_updated";
+
+    // The same columns for queries that join stocks as s
+    static final String STOCK_COLUMNS_AS_S = "s.stock_id, s.symbol, s.company_name, s.sector, s.current_price, "
+        + "s.last_updated";
+
+    static final RowMapper<Stock> STOCK = rs -> new Stock(
+        rs.getInt(1),
+        rs.getString(2),
+        rs.getString(3),
+        rs.getString(4),
+        rs.getDouble(5),
+        rs.getLong(6)
+    );
+
+    // Portfolio rows joined with stocks as s
+    static final String PORTFOLIO_COLUMNS = "p.portfolio_id, p.user_id, p.stock_id, s.symbol, s.company_name, "
+        + "p.quantity, p.purchase_price, s.current_price, p.purchase_date";
+
+    static final RowMapper<Portfolio> PORTFOLIO = rs -> new Portfolio(
+        rs.getInt(1),
+        rs.getInt(2),
+        rs.getInt(3),
+        rs.getString(4),
+        rs.getString(5),
+        rs.getInt(6),
+        rs.getDouble(7),
+        rs.getDouble(8),
+        rs.getLong(9)
+    );
+
+    // Transaction rows joined with stocks as s
+    static final String TRANSACTION_COLUMNS = "t.transaction_id, t.user_id, t.stock_id, s.symbol, s.company_name, "
+        + "t.transaction_type, t.quantity, t.price_per_share, t.total_amount, t.transaction_date";
+
+    static final RowMapper<Transaction> TRANSACTION = rs -> new Transaction(
+        rs.getInt(1),
+        rs.getInt(2),
+        rs.getInt(3),
+        rs.getString(4),
+        rs.getString(5),
+        rs.getString(6),
+        rs.getInt(7),
+        rs.getDouble(8),
+        rs.getDouble(9),
+        rs.getLong(10)
+    );
+
+    // Watchlist rows joined with stocks as s
+    static final String WATCHLIST_COLUMNS = "w.watchlist_id, w.user_id, w.stock_id, s.symbol, s.company_name, "
+        + "s.sector, s.current_price, w.added_date";
+
+    static final RowMapper<Watchlist> WATCHLIST = rs -> new Watchlist(
+        rs.getInt(1),
+        rs.getInt(2),
+        rs.getInt(3),
+        rs.getString(4),
+        rs.getString(5),
+        rs.getString(6),
+        rs.getDouble(7),
+        rs.getLong(8)
+    );
+
+    static final String PRICE_BAR_COLUMNS = "date, open, high, low, close, volume";
+
+    static final RowMapper<PriceBar> PRICE_BAR = rs -> new PriceBar(
+        rs.getLong(1),
+        rs.getDouble(2),
+        rs.getDouble(3),
+        rs.getDouble(4),
+        rs.getDouble(5),
+        rs.getLong(6)
+    );
+
+    /**
+     * Maps the single value of a COUNT(*) query
+     */
+    static final RowMapper<Integer> COUNT = rs -> rs.getInt(1);
+}
@@ -0,0 +1,341 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.database.ConnectionLease;
+import com.example.stockvisualiser.database.DatabaseManager;
+import com.example.stockvisualiser.database.ParameterBinder;
+import com.example.stockvisualiser.model.Stock;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * StockCatalog - Read-through in-memory cache of the stocks table
+ * The whole table is loaded on first use and then kept in step by StockService, which applies
+ * each successful write to the cache instead of reloading. Readers always see an immutable,
+ * versioned Snapshot, so lookups never block and the UI can tell cheaply whether anything changed.
+ * Derived structures such as the StockSearchIndex follow along through Listener callbacks.
+ */
+public class StockCatalog {
+    private static final String LOAD_QUERY = "SELECT " + RowMappers.STOCK_COLUMNS + " FROM stocks ORDER BY symbol";
+
+    private static StockCatalog instance;
+
+    private final DatabaseManager dbManager;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final StockSearchIndex searchIndex = new StockSearchIndex();
+    private volatile Snapshot snapshot;
+    // Bumped on every write so a load that raced with a write is not installed
+    private long writeCount;
+    private long nextVersion = 1;
+
+    private StockCatalog() {
+        this.dbManager = DatabaseManager.getInstance();
+        listeners.add(searchIndex);
+    }
+
+    /**
+     * Get the singleton instance
+     */
+    public static synchronized StockCatalog getInstance() {
+        if (instance == null) {
+            instance = new StockCatalog();
+        }
+        return instance;
+    }
+
+    /**
+     * Receives every change to the catalog, in order
+     * Callbacks run while the catalog is locked, so they must be quick and must not call back into it.
+     */
+    public interface Listener {
+        /** The whole table was (re)loaded */
+        void catalogLoaded(Snapshot snapshot);
+
+        /** The cached table was dropped and will be reloaded on the next read */
+        void catalogCleared();
+
+        /**
+         * One row changed
+         * @param previous The old entry, or null for an insert
+         * @param current The new entry, or null for a delete
+         */
+        void entryChanged(Entry previous, Entry current);
+    }
+
+    /**
+     * Immutable copy of one stocks row
+     */
+    public static final class Entry {
+        private final int stockId;
+        private final String symbol;
+        private final String companyName;
+        private final String sector;
+        private final double currentPrice;
+        private final long lastUpdated;
+
+        Entry(int stockId, String symbol, String companyName, String sector, double currentPrice, long lastUpdated) {
+            this.stockId = stockId;
+            this.symbol = symbol;
+            this.companyName = companyName;
+            this.sector = sector;
+            this.currentPrice = currentPrice;
+            this.lastUpdated = lastUpdated;
+        }
+
+        static Entry of(Stock stock) {
+            return new Entry(stock.getStockId(), stock.getSymbol(), stock.getCompanyName(), stock.getSector(),
+                stock.getCurrentPrice(), stock.getLastUpdatedEpochMillis());
+        }
+
+        Entry withPrice(double price, long updatedAt) {
+            return new Entry(stockId, symbol, companyName, sector, price, updatedAt);
+        }
+
+        /**
+         * Create a new mutable Stock for the UI; callers may freely change it
+         */
+        public Stock toStock() {
+            return new Stock(stockId, symbol, companyName, sector, currentPrice, lastUpdated);
+        }
+
+        public int getStockId() { return stockId; }
+        public String getSymbol() { return symbol; }
+        public String getCompanyName() { return companyName; }
+        public String getSector() { return sector; }
+        public double getCurrentPrice() { return currentPrice; }
+        public long getLastUpdated() { return lastUpdated; }
+    }
+
+    /**
+     * Immutable view of the catalog at one version
+     * Unchanged entries keep their identity across versions, so a diff can compare references.
+     * Entries are held in symbol order and looked up through position maps. A price change cannot
+     * move an entry, so versions that differ only in prices share the position maps.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Entry[] entries;
+        private final List<Entry> entryList;
+        private final Map<Integer, Integer> positionById;
+        private final Map<String, Integer> positionBySymbol;
+
+        private Snapshot(long version, Collection<Entry> rows) {
+            this.version = version;
+            this.entries = rows.toArray(new Entry[0]);
+            Arrays.sort(entries, Comparator.comparing(Entry::getSymbol));
+            this.entryList = Collections.unmodifiableList(Arrays.asList(entries));
+            this.positionById = new HashMap<>(entries.length * 2);
+            this.positionBySymbol = new HashMap<>(entries.length * 2);
+            for (int i = 0; i < entries.length; i++) {
+                positionById.put(entries[i].getStockId(), i);
+                positionBySymbol.put(entries[i].getSymbol(), i);
+            }
+        }
+
+        private Snapshot(long version, Snapshot previous, Entry[] entries) {
+            this.version = version;
+            this.entries = entries;
+            this.entryList = Collections.unmodifiableList(Arrays.asList(entries));
+            this.positionById = previous.positionById;
+            this.positionBySymbol = previous.positionBySymbol;
+        }
+
+        /**
+         * The next version with some entries replaced by new prices of the same stocks
+         */
+        private Snapshot withPrices(long version, List<Entry> updated) {
+            Entry[] copy = entries.clone();
+            for (Entry entry : updated) {
+                copy[positionById.get(entry.getStockId())] = entry;
+            }
+            return new Snapshot(version, this, copy);
+        }
+
+        public long getVersion() { return version; }
+
+        /**
+         * All entries ordered by symbol
+         */
+        public List<Entry> getEntries() { return entryList; }
+
+        public Entry getById(int stockId) {
+            Integer position = positionById.get(stockId);
+            return position == null ? null : entries[position];
+        }
+
+        public Entry getBySymbol(String symbol) {
+            Integer position = positionBySymbol.get(symbol);
+            return position == null ? null : entries[position];
+        }
+
+        public int size() { return entries.length; }
+    }
+
+    /**
+     * Get the current snapshot, loading the table on first use
+     */
+    public Snapshot getSnapshot() throws SQLException {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    /**
+     * Get the search index kept in step with this catalog
+     * It is empty until the first snapshot has been loaded.
+     */
+    public StockSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Drop the cached table; the next read reloads it
+     */
+    public synchronized void invalidateAll() {
+        writeCount++;
+        snapshot = null;
+        for (Listener listener : listeners) {
+            listener.catalogCleared();
+        }
+    }
+
+    /**
+     * Record an inserted row, or replace an existing one
+     */
+    synchronized void put(Stock stock) {
+        writeCount++;
+        if (snapshot == null) {
+            return;
+        }
+        Entry previous = snapshot.getById(stock.getStockId());
+        Entry current = Entry.of(stock);
+        // The symbol may have changed, so the order is rebuilt
+        List<Entry> rows = new ArrayList<>(snapshot.size() + 1);
+        for (Entry entry : snapshot.entries) {
+            if (entry != previous) {
+                rows.add(entry);
+            }
+        }
+        rows.add(current);
+        publish(new Snapshot(nextVersion++, rows), previous, current);
+    }
+
+    /**
+     * Record a price change
+     */
+    synchronized void updatePrice(int stockId, double price, long updatedAt) {
+        writeCount++;
+        if (snapshot == null) {
+            return;
+        }
+        Entry entry = snapshot.getById(stockId);
+        if (entry == null) {
+            return;
+        }
+        Entry current = entry.withPrice(price, updatedAt);
+        publish(snapshot.withPrices(nextVersion++, List.of(current)), entry, current);
+    }
+
+    /**
+     * Record many price changes as one new version
+     * @param prices New price by stock id
+     */
+    synchronized void updatePrices(Map<Integer, Double> prices, long updatedAt) {
+        writeCount++;
+        if (snapshot == null || prices.isEmpty()) {
+            return;
+        }
+        List<Entry> previous = new ArrayList<>(prices.size());
+        List<Entry> current = new ArrayList<>(prices.size());
+        for (Map.Entry<Integer, Double> price : prices.entrySet()) {
+            Entry entry = snapshot.getById(price.getKey());
+            if (entry != null) {
+                previous.add(entry);
+                current.add(entry.withPrice(price.getValue(), updatedAt));
+            }
+        }
+
+        snapshot = snapshot.withPrices(nextVersion++, current);
+        for (Listener listener : listeners) {
+            for (int i = 0; i < current.size(); i++) {
+                listener.entryChanged(previous.get(i), current.get(i));
+            }
+        }
+    }
+
+    /**
+     * Record a deleted row
+     */
+    synchronized void remove(int stockId) {
+        writeCount++;
+        Entry previous = snapshot == null ? null : snapshot.getById(stockId);
+        if (previous == null) {
+            return;
+        }
+        List<Entry> rows = new ArrayList<>(snapshot.size());
+        for (Entry entry : snapshot.entries) {
+            if (entry != previous) {
+                rows.add(entry);
+            }
+        }
+        publish(new Snapshot(nextVersion++, rows), previous, null);
+    }
+
+    private void publish(Snapshot next, Entry previous, Entry current) {
+        snapshot = next;
+        for (Listener listener : listeners) {
+            listener.entryChanged(previous, current);
+        }
+    }
+
+    private Snapshot load() throws SQLException {
+        while (true) {
+            long writesBefore;
+            synchronized (this) {
+                if (snapshot != null) {
+                    return snapshot;
+                }
+                writesBefore = writeCount;
+            }
+
+            List<Stock> rows;
+            try (ConnectionLease lease = dbManager.acquireReader()) {
+                rows = lease.query(LOAD_QUERY, ParameterBinder.NONE, RowMappers.STOCK);
+            }
+
+            List<Entry> entries = new ArrayList<>(rows.size());
+            for (Stock stock : rows) {
+                entries.add(Entry.of(stock));
+            }
+
+            synchronized (this) {
+                if (snapshot != null) {
+                    return snapshot;
+                }
+                // A write landed while we were reading; its row may be missing, so read again
+                if (writeCount == writesBefore) {
+                    snapshot = new Snapshot(nextVersion++, entries);
+                    for (Listener listener : listeners) {
+                        listener.catalogLoaded(snapshot);
+                    }
+                    return snapshot;
+                }
+            }
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.example.stockvisualiser.service;
 
+import com.example.stockvisualiser.market.MarketSimulator;
 import com.example.stockvisualiser.model.ApiStockResult;
+import com.example.stockvisualiser.model.PriceBar;
+import com.example.stockvisualiser.model.Quote;
+import com.example.stockvisualiser.service.ApiRequestScheduler.Priority;
+import com.example.stockvisualiser.util.BackgroundTasks;
+import com.example.stockvisualiser.util.EpochTime;
+import com.example.stockvisualiser.util.SingleFlight;
+import com.example.stockvisualiser.util.TimedLruCache;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URI;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * StockDataService - Fetches live stock data from Alpha Vantage API
@@ -19,10 +29,23 @@ import java.util.List;
  */
 public class StockDataService {
     
-    // Alpha Vantage API key (free tier: 25 requests/day)
-    // Get your own key at: https://www.alphavantage.co/support/#api-key
-    private static final String API_KEY = "2UPAIY6PD8V75FJF"; // Use "demo" for testing with limited stocks
-    private static final String BASE_URL = "https://www.alphavantage.co/query";
+    // Series shown recently, kept until newer bars may exist; price_history is the tier below
+    private static final TimedLruCache<String, List<PriceData>> SERIES_CACHE =
+        new TimedLruCache<>(Integer.getInteger("stockvisualiser.cache.seriesEntries", 64));
+
+    // Shared by every StockDataService, so windows asking for the same symbol at once send one request
+    private static final SingleFlight<String, List<PriceBar>> DAILY_BARS_FETCHES = new SingleFlight<>();
+    private static final SingleFlight<String, Quote> QUOTE_FETCHES = new SingleFlight<>();
+
+    private final AlphaVantageClient client;
+    private final PriceHistoryStore historyStore;
+    private final PriceHistorySync historySync;
+
+    public StockDataService() {
+        this.client = new AlphaVantageClient();
+        this.historyStore = new PriceHistoryStore();
+        this.historySync = new PriceHistorySync(historyStore, this::fetchDailyBars);
+    }
     
     /**
      * Stock price data point
@@ -39,204 +62,189 @@ public class StockDataService {
         public LocalDate getDate() { return date; }
         public double getPrice() { return price; }
     }
+
+    /**
+     * Span of daily history shown in the price chart
+     */
+    public enum HistoryRange {
+        ONE_MONTH("1M", "1 Month", 21),
+        THREE_MONTHS("3M", "3 Month", 63),
+        ONE_YEAR("1Y", "1 Year", 252),
+        FIVE_YEARS("5Y", "5 Year", 1260),
+        ALL("All", "Full", Integer.MAX_VALUE);
+
+        private final String shortLabel;
+        private final String label;
+        private final int tradingDays;
+
+        HistoryRange(String shortLabel, String label, int tradingDays) {
+            this.shortLabel = shortLabel;
+            this.label = label;
+            this.tradingDays = tradingDays;
+        }
+
+        public String getLabel() { return label; }
+        /** @return Number of daily bars in the range; Integer.MAX_VALUE for everything stored */
+        public int getTradingDays() { return tradingDays; }
+
+        @Override
+        public String toString() { return shortLabel; }
+    }
     
     /**
-     * Fetch historical stock prices for the last 30 days
+     * Fetch historical closing prices over a range of trading days, oldest first
+     * Stocks in the catalog are served from the local price_history store, which is only topped up
+     * from the API when a newer close exists. Other symbols are fetched directly.
+     * The whole stored series is kept in memory until the next market close, so switching back to a
+     * stock or to another range is served without touching the database or the API.
      * Falls back to simulated data if API fails or for demo purposes
+     * @return Up to range.getTradingDays() prices; fewer if less history is stored
      */
-    public ObservableList<PriceData> getHistoricalPrices(String symbol) {
+    public ObservableList<PriceData> getHistoricalPrices(String symbol, HistoryRange range) {
+        List<PriceData> series = getStoredSeries(symbol);
+        if (series.isEmpty()) {
+            System.out.println("⚠ API fetch failed, using simulated data");
+            // Fallback to simulated realistic data
+            return generateSimulatedData(symbol, findStock(symbol), range);
+        }
+        return FXCollections.observableArrayList(
+            series.subList(Math.max(0, series.size() - range.getTradingDays()), series.size()));
+    }
+
+    /**
+     * Every daily close held for a symbol, from the cache, the store or the API
+     * @return Closes oldest first; empty if there are none
+     */
+    private List<PriceData> getStoredSeries(String symbol) {
+        String key = symbol.toUpperCase();
+        long now = EpochTime.nowMillis();
+        List<PriceData> cached = SERIES_CACHE.get(key, now);
+        if (cached != null) {
+            return cached;
+        }
+
         System.out.println("=== FETCHING DATA FOR: " + symbol + " ===");
-        System.out.println("API Key configured: " + (API_KEY != null && !API_KEY.isEmpty() ? "YES" : "NO"));
-        System.out.println("API Key: " + (API_KEY.length() > 4 ? API_KEY.substring(0, 4) + "..." : "EMPTY"));
-        
-        // Try to fetch from API first
-        ObservableList<PriceData> apiData = fetchFromAPI(symbol);
-        if (apiData != null && !apiData.isEmpty()) {
-            System.out.println("✓ Successfully fetched " + apiData.size() + " data points from API");
-            return apiData;
+
+        StockCatalog.Entry stock = findStock(symbol);
+        List<PriceBar> bars = stock != null
+            ? historySync.getRecentBars(stock.getStockId(), stock.getSymbol(), Integer.MAX_VALUE)
+            : fetchDailyBars(symbol, false);
+        if (bars == null || bars.isEmpty()) {
+            return List.of();
         }
-        
-        System.out.println("⚠ API fetch failed, using simulated data");
-        // Fallback to simulated realistic data
-        return generateSimulatedData(symbol);
+
+        List<PriceData> data = new ArrayList<>(bars.size());
+        for (PriceBar bar : bars) {
+            data.add(new PriceData(bar.getDate(), bar.getClose()));
+        }
+        System.out.println("✓ Loaded " + data.size() + " data points");
+        long newestDay = bars.get(bars.size() - 1).getEpochDay();
+        List<PriceData> series = List.copyOf(data);
+        SERIES_CACHE.put(key, series, PriceHistorySync.nextUpdateMillis(newestDay, now));
+        return series;
     }
-    
+
+    /**
+     * Keep the series of these symbols cached however many other stocks are viewed
+     * Meant for the user's holdings and watchlist; replaces the previously pinned symbols.
+     */
+    public void pinHistoricalPrices(Collection<String> symbols) {
+        List<String> keys = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            keys.add(symbol.toUpperCase());
+        }
+        SERIES_CACHE.setPinned(keys);
+    }
+
     /**
-     * Fetch real data from Alpha Vantage API
+     * Hit, miss and eviction counts of the in-memory series cache
      */
-    private ObservableList<PriceData> fetchFromAPI(String symbol) {
+    public static TimedLruCache.Stats getHistoricalPricesCacheStats() {
+        return SERIES_CACHE.getStats();
+    }
+
+    private StockCatalog.Entry findStock(String symbol) {
         try {
-            // TIME_SERIES_DAILY gives us daily stock prices
-            String urlString = String.format(
-                "%s?function=TIME_SERIES_DAILY&symbol=%s&apikey=%s&outputsize=compact",
-                BASE_URL, symbol, API_KEY
-            );
-            
-            System.out.println("🌐 API URL: " + urlString.replace(API_KEY, "***KEY***"));
-            
-            URI uri = new URI(urlString);
-            HttpURLConnection conn = (HttpURLConnection) uri.toURL().openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
-            
-            int responseCode = conn.getResponseCode();
-            System.out.println("📡 HTTP Response Code: " + responseCode);
-            
-            if (responseCode != 200) {
-                System.err.println("❌ API returned non-200 status: " + responseCode);
-                return null;
-            }
-            
-            BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            StringBuilder response = new StringBuilder();
-            String line;
-            
-            while ((line = in.readLine()) != null) {
-                response.append(line);
-            }
-            in.close();
-            
-            String jsonResponse = response.toString();
-            System.out.println("📥 Response length: " + jsonResponse.length() + " characters");
-            System.out.println("📄 First 200 chars: " + jsonResponse.substring(0, Math.min(200, jsonResponse.length())));
-            
-            // Check for API error messages
-            if (jsonResponse.contains("Error Message") || jsonResponse.contains("Note")) {
-                System.err.println("⚠ API Error in response:");
-                System.err.println(jsonResponse.substring(0, Math.min(500, jsonResponse.length())));
-            }
-            
-            // Parse JSON response (simple parsing without external library)
-            ObservableList<PriceData> data = parseAPIResponse(jsonResponse);
-            if (data == null || data.isEmpty()) {
-                System.err.println("❌ Parsing failed or returned empty data");
-            }
-            return data;
-            
-        } catch (Exception e) {
-            System.err.println("❌ API fetch exception for " + symbol + ": " + e.getMessage());
-            e.printStackTrace();
+            return StockCatalog.getInstance().getSnapshot().getBySymbol(symbol);
+        } catch (SQLException e) {
+            System.err.println("Error loading stock catalog: " + e.getMessage());
             return null;
         }
     }
     
     /**
-     * Simple JSON parsing for Alpha Vantage response
-     * Format: {"Time Series (Daily)": {"2025-11-17": {"4. close": "123.45"}}}
+     * Fetch the daily series from Alpha Vantage
+     * Concurrent calls for the same symbol and size share one request. Keys without access to the
+     * full series get a notice instead of bars; the compact series is fetched then.
+     * @param full Whether to ask for the whole history (outputsize=full) rather than the latest 100 trading days
+     * @return Bars oldest first, or null if the request or parsing failed
      */
-    private ObservableList<PriceData> parseAPIResponse(String json) {
-        ObservableList<PriceData> data = FXCollections.observableArrayList();
-        
+    List<PriceBar> fetchDailyBars(String symbol, boolean full) {
+        // TIME_SERIES_DAILY gives us daily stock prices
+        Map<String, String> params = dailySeriesQuery(symbol, full);
+        System.out.println("🌐 API URL: " + AlphaVantageClient.describe(params));
+
         try {
-            System.out.println("🔍 Starting JSON parsing...");
-            
-            // Look for "Time Series (Daily)" section
-            int timeSeriesIndex = json.indexOf("\"Time Series (Daily)\"");
-            if (timeSeriesIndex == -1) {
-                System.err.println("❌ Could not find 'Time Series (Daily)' in response");
-                return null;
-            }
-            
-            System.out.println("✓ Found Time Series data at index " + timeSeriesIndex);
-            
-            // Extract the time series object
-            String timeSeriesData = json.substring(timeSeriesIndex);
-            
-            // Split by date entries (look for "YYYY-MM-DD" pattern)
-            String[] parts = timeSeriesData.split("\"\\d{4}-\\d{2}-\\d{2}\"");
-            
-            System.out.println("📊 Found " + (parts.length - 1) + " date entries");
-            
-            // Extract all dates first
-            java.util.regex.Pattern datePattern = java.util.regex.Pattern.compile("\"(\\d{4}-\\d{2}-\\d{2})\"");
-            java.util.regex.Matcher dateMatcher = datePattern.matcher(timeSeriesData);
-            
-            java.util.List<String> dates = new java.util.ArrayList<>();
-            while (dateMatcher.find() && dates.size() < 30) {
-                dates.add(dateMatcher.group(1));
-            }
-            
-            System.out.println("📅 Extracted " + dates.size() + " dates");
-            
-            // For each date, find its closing price
-            for (String dateStr : dates) {
-                try {
-                    // Find the data block for this date
-                    int dateIndex = json.indexOf("\"" + dateStr + "\"");
-                    if (dateIndex == -1) continue;
-                    
-                    // Look for "4. close" within the next 500 characters
-                    String dataBlock = json.substring(dateIndex, Math.min(dateIndex + 500, json.length()));
-                    
-                    // Extract closing price using regex
-                    java.util.regex.Pattern pricePattern = java.util.regex.Pattern.compile("\"4\\. close\":\\s*\"([0-9.]+)\"");
-                    java.util.regex.Matcher priceMatcher = pricePattern.matcher(dataBlock);
-                    
-                    if (priceMatcher.find()) {
-                        String priceStr = priceMatcher.group(1);
-                        double price = Double.parseDouble(priceStr);
-                        LocalDate date = LocalDate.parse(dateStr);
-                        data.add(new PriceData(date, price));
-                        
-                        if (data.size() <= 3) {
-                            System.out.println("  ✓ " + dateStr + " → $" + String.format("%.2f", price));
-                        }
-                    }
-                } catch (Exception e) {
-                    System.err.println("  ⚠ Failed to parse date " + dateStr + ": " + e.getMessage());
+            String key = symbol.toUpperCase() + (full ? "/full" : "/compact");
+            List<PriceBar> bars = AlphaVantageClient.await(DAILY_BARS_FETCHES.execute(key,
+                () -> client.queryAsync(params, Priority.INTERACTIVE, this::parseDailyBars)));
+            if (bars == null || bars.isEmpty()) {
+                if (full) {
+                    System.err.println("❌ Full series unavailable, falling back to compact");
+                    return fetchDailyBars(symbol, false);
                 }
+                System.err.println("❌ Parsing failed or returned empty data");
+                return null;
             }
-            
-            System.out.println("✅ Successfully parsed " + data.size() + " price points");
-            return data.isEmpty() ? null : data;
-            
-        } catch (Exception e) {
-            System.err.println("❌ JSON parsing exception: " + e.getMessage());
+            return bars;
+        } catch (IOException e) {
+            System.err.println("❌ API fetch exception for " + symbol + ": " + e.getMessage());
             e.printStackTrace();
             return null;
         }
     }
+
+    private static Map<String, String> dailySeriesQuery(String symbol, boolean full) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("function", "TIME_SERIES_DAILY");
+        params.put("symbol", symbol);
+        params.put("outputsize", full ? "full" : "compact");
+        return params;
+    }
+
+    private List<PriceBar> parseDailyBars(Reader body) throws IOException {
+        List<PriceBar> bars = AlphaVantageParser.parseDailyBars(body);
+        if (bars == null) {
+            System.err.println("❌ Could not find 'Time Series (Daily)' in response");
+            return null;
+        }
+        System.out.println("✅ Successfully parsed " + bars.size() + " price bars");
+        return bars;
+    }
     
     /**
-     * Generate simulated realistic stock price data for demo
-     * Creates a 30-day trend with realistic volatility
+     * Generate simulated stock price data for demo
+     * The series is seeded from the symbol, so a stock always shows the same history, and it is
+     * scaled to end at the stock's known price. The full range is simulated as five years.
      */
-    private ObservableList<PriceData> generateSimulatedData(String symbol) {
+    private ObservableList<PriceData> generateSimulatedData(String symbol, StockCatalog.Entry stock, HistoryRange range) {
+        String key = symbol.toUpperCase();
+        double lastPrice = stock != null && stock.getCurrentPrice() > 0
+            ? stock.getCurrentPrice()
+            : getBasePriceForSymbol(key);
+
+        MarketSimulator simulator = new MarketSimulator(key.hashCode(),
+            List.of(MarketSimulator.Instrument.forSymbol(key, lastPrice)));
+
+        long lastClose = PriceHistorySync.lastMarketClose(EpochTime.nowMillis()).toLocalDate().toEpochDay();
+        List<PriceBar> bars = simulator.simulateDailyBars(lastClose,
+            Math.min(range.getTradingDays(), HistoryRange.FIVE_YEARS.getTradingDays())).get(key);
+        double scale = lastPrice / bars.get(bars.size() - 1).getClose();
+
         ObservableList<PriceData> data = FXCollections.observableArrayList();
-        List<PriceData> tempList = new ArrayList<>();
-        
-        // Base price from symbol (different stocks have different price ranges)
-        double basePrice = getBasePriceForSymbol(symbol);
-        
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(29);
-        
-        // Generate a trend (upward, downward, or sideways)
-        double trendFactor = (Math.random() - 0.5) * 0.003; // -0.15% to +0.15% daily trend
-        
-        double currentPrice = basePrice;
-        
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            // Skip weekends
-            if (date.getDayOfWeek().getValue() >= 6) {
-                continue;
-            }
-            
-            // Apply trend and random volatility
-            double dailyChange = (Math.random() - 0.5) * 0.04; // -2% to +2% daily volatility
-            currentPrice *= (1 + trendFactor + dailyChange);
-            
-            // Keep price positive
-            currentPrice = Math.max(currentPrice, basePrice * 0.7);
-            
-            tempList.add(new PriceData(date, currentPrice));
+        for (PriceBar bar : bars) {
+            data.add(new PriceData(bar.getDate(), bar.getClose() * scale));
         }
-        
-        // Reverse to show oldest first
-        Collections.reverse(tempList);
-        data.addAll(tempList);
-        
         return data;
     }
     
@@ -260,15 +268,86 @@ public class StockDataService {
     }
     
     /**
-     * Get current price (latest from historical data)
+     * Get current price
+     * @return The latest quoted price, or 0.0 if no quote is available
      */
     public double getCurrentPrice(String symbol) {
-        ObservableList<PriceData> historicalData = getHistoricalPrices(symbol);
-        if (historicalData.isEmpty()) {
-            return 0.0;
+        Quote quote = getQuote(symbol);
+        return quote == null ? 0.0 : quote.getPrice();
+    }
+
+    /**
+     * Get the latest price of a symbol for something the user is waiting on
+     */
+    public Quote getQuote(String symbol) {
+        return getQuote(symbol, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Get the latest price of a symbol without downloading its daily series
+     * The newest bar in price_history is used while it covers the latest market close; otherwise the
+     * GLOBAL_QUOTE endpoint is asked. If that fails, a stored bar is still returned, marked stale.
+     * @param priority Scheduling class of the API request, if one is needed
+     * @return The quote, or null if nothing is stored and the API request failed
+     */
+    public Quote getQuote(String symbol, Priority priority) {
+        long now = EpochTime.nowMillis();
+        StockCatalog.Entry stock = findStock(symbol);
+        Quote stored = stock != null ? getStoredQuote(stock, now) : null;
+        if (stored != null && !stored.isStale()) {
+            return stored;
+        }
+
+        Quote quote = fetchQuote(symbol, priority);
+        return quote != null ? quote : stored;
+    }
+
+    /**
+     * Build a quote from the newest stored bar of a stock
+     */
+    private Quote getStoredQuote(StockCatalog.Entry stock, long now) {
+        try {
+            PriceHistoryStore.SyncState state = historyStore.getSyncState(stock.getStockId());
+            List<PriceBar> bars = historyStore.getRecentBars(stock.getStockId(), 1);
+            if (bars.isEmpty() || state.getSyncedAt() == null) {
+                return null;
+            }
+            PriceBar bar = bars.get(0);
+            boolean stale = PriceHistorySync.isBehindLastClose(bar.getEpochDay(), now);
+            return new Quote(stock.getSymbol(), bar.getClose(), bar.getEpochDay(), state.getSyncedAt(),
+                Quote.Source.PRICE_HISTORY, stale);
+        } catch (SQLException e) {
+            System.err.println("Error reading stored price for " + stock.getSymbol() + ": " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Fetch a quote from the GLOBAL_QUOTE endpoint
+     * Concurrent calls for the same symbol share one request, sent with the first caller's priority.
+     * @return The quote, or null if the request failed or the symbol is unknown
+     */
+    Quote fetchQuote(String symbol, Priority priority) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("function", "GLOBAL_QUOTE");
+        params.put("symbol", symbol);
+
+        try {
+            Quote quote = AlphaVantageClient.await(QUOTE_FETCHES.execute(symbol.toUpperCase(),
+                () -> client.queryAsync(params, priority,
+                    body -> AlphaVantageParser.parseGlobalQuote(body, EpochTime.nowMillis()))));
+            if (quote == null) {
+                System.err.println("❌ No quote returned for " + symbol);
+            } else {
+                System.out.println("💲 Quote " + quote);
+            }
+            return quote;
+        } catch (IOException e) {
+            System.err.println("❌ Quote request failed for " + symbol + ": " + e.getMessage());
+            e.printStackTrace();
+            return null;
         }
-        // Return the most recent price
-        return historicalData.get(historicalData.size() - 1).getPrice();
     }
     
     /**
@@ -276,108 +355,73 @@ public class StockDataService {
      * Allows users to find real stocks to add to the system
      */
     public ObservableList<ApiStockResult> searchStocks(String keywords) {
-        ObservableList<ApiStockResult> results = FXCollections.observableArrayList();
-        
         try {
             System.out.println("🔍 Searching API for: " + keywords);
-            
-            String urlString = String.format(
-                "%s?function=SYMBOL_SEARCH&keywords=%s&apikey=%s",
-                BASE_URL, keywords.replace(" ", "%20"), API_KEY
-            );
-            
-            System.out.println("🌐 Search URL: " + urlString.replace(API_KEY, "***KEY***"));
-            
-            URI uri = new URI(urlString);
-            HttpURLConnection conn = (HttpURLConnection) uri.toURL().openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
-            
-            int responseCode = conn.getResponseCode();
-            System.out.println("📡 Response: " + responseCode);
-            
-            if (responseCode != 200) {
-                return results;
-            }
-            
-            BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            StringBuilder response = new StringBuilder();
-            String line;
-            
-            while ((line = in.readLine()) != null) {
-                response.append(line);
-            }
-            in.close();
-            
-            String jsonResponse = response.toString();
-            System.out.println("📥 Got " + jsonResponse.length() + " characters");
-            
-            // Parse search results
-            results = parseSearchResults(jsonResponse);
+            ObservableList<ApiStockResult> results =
+                client.query(searchQuery(keywords), Priority.INTERACTIVE, this::parseSearchResults);
             System.out.println("✅ Found " + results.size() + " matching stocks");
-            
-        } catch (Exception e) {
+            return results;
+        } catch (IOException e) {
             System.err.println("❌ Stock search failed: " + e.getMessage());
             e.printStackTrace();
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    private static Map<String, String> searchQuery(String keywords) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("function", "SYMBOL_SEARCH");
+        params.put("keywords", keywords);
+        return params;
+    }
+
+    private ObservableList<ApiStockResult> parseSearchResults(Reader body) throws IOException {
+        ObservableList<ApiStockResult> results =
+            FXCollections.observableArrayList(AlphaVantageParser.parseSearchResults(body));
+        for (ApiStockResult result : results.subList(0, Math.min(3, results.size()))) {
+            System.out.println("  ✓ " + result.getSymbol() + " - " + result.getName());
         }
-        
         return results;
     }
-    
+
     /**
-     * Parse Alpha Vantage SYMBOL_SEARCH response
-     * Format: {"bestMatches": [{"1. symbol": "TSLA", "2. name": "Tesla Inc.", ...}]}
+     * Number of price fetches (daily series and quotes) actually sent to the API
      */
-    private ObservableList<ApiStockResult> parseSearchResults(String json) {
-        ObservableList<ApiStockResult> results = FXCollections.observableArrayList();
-        
-        try {
-            // Look for "bestMatches" array
-            int matchesIndex = json.indexOf("\"bestMatches\"");
-            if (matchesIndex == -1) {
-                return results;
-            }
-            
-            String matchesSection = json.substring(matchesIndex);
-            
-            // Find each match using regex patterns
-            java.util.regex.Pattern symbolPattern = java.util.regex.Pattern.compile("\"1\\. symbol\":\\s*\"([^\"]+)\"");
-            java.util.regex.Pattern namePattern = java.util.regex.Pattern.compile("\"2\\. name\":\\s*\"([^\"]+)\"");
-            java.util.regex.Pattern typePattern = java.util.regex.Pattern.compile("\"3\\. type\":\\s*\"([^\"]+)\"");
-            java.util.regex.Pattern regionPattern = java.util.regex.Pattern.compile("\"4\\. region\":\\s*\"([^\"]+)\"");
-            
-            // Split by closing braces to get individual results
-            String[] parts = matchesSection.split("\\},\\s*\\{");
-            
-            for (String part : parts) {
-                try {
-                    java.util.regex.Matcher symbolMatcher = symbolPattern.matcher(part);
-                    java.util.regex.Matcher nameMatcher = namePattern.matcher(part);
-                    java.util.regex.Matcher typeMatcher = typePattern.matcher(part);
-                    java.util.regex.Matcher regionMatcher = regionPattern.matcher(part);
-                    
-                    if (symbolMatcher.find() && nameMatcher.find()) {
-                        String symbol = symbolMatcher.group(1);
-                        String name = nameMatcher.group(1);
-                        String type = typeMatcher.find() ? typeMatcher.group(1) : "Equity";
-                        String region = regionMatcher.find() ? regionMatcher.group(1) : "Unknown";
-                        
-                        results.add(new ApiStockResult(symbol, name, type, region));
-                        
-                        if (results.size() <= 3) {
-                            System.out.println("  ✓ " + symbol + " - " + name);
-                        }
-                    }
-                } catch (Exception e) {
-                    // Skip malformed entries
-                }
-            }
-            
-        } catch (Exception e) {
-            System.err.println("❌ Parse error: " + e.getMessage());
-        }
-        
-        return results;
+    public static long getPriceFetchesSent() {
+        return DAILY_BARS_FETCHES.getStarted() + QUOTE_FETCHES.getStarted();
+    }
+
+    /**
+     * Number of price fetches that shared a request already in flight instead of sending their own
+     */
+    public static long getPriceFetchesDeduplicated() {
+        return DAILY_BARS_FETCHES.getJoined() + QUOTE_FETCHES.getJoined();
+    }
+
+    // ============ ASYNC VARIANTS ============
+    // Each runs the blocking call above on a virtual thread; see BackgroundTasks.
+
+    public CompletableFuture<ObservableList<PriceData>> getHistoricalPricesAsync(String symbol, HistoryRange range) {
+        return BackgroundTasks.supply(() -> getHistoricalPrices(symbol, range));
+    }
+
+    public CompletableFuture<Double> getCurrentPriceAsync(String symbol) {
+        return BackgroundTasks.supply(() -> getCurrentPrice(symbol));
+    }
+
+    public CompletableFuture<Quote> getQuoteAsync(String symbol) {
+        return BackgroundTasks.supply(() -> getQuote(symbol));
+    }
+
+    /**
+     * Search without holding a thread while the request is in flight
+     * Completes with an empty list if the request fails.
+     */
+    public CompletableFuture<ObservableList<ApiStockResult>> searchStocksAsync(String keywords) {
+        return client.queryAsync(searchQuery(keywords), Priority.INTERACTIVE, this::parseSearchResults)
+            .exceptionally(e -> {
+                System.err.println("❌ Stock search failed: " + e.getMessage());
+                return FXCollections.observableArrayList();
+            });
     }
 }
@@ -0,0 +1,343 @@
+package com.example.stockvisualiser.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * StockSearchIndex - In-memory ranked search over the stock catalog
+ * Symbols live in a prefix trie; company names and sectors are split into lower-case words held
+ * in sorted maps, so every query is a prefix lookup rather than a scan. The index follows the
+ * catalog through StockCatalog.Listener and is updated one entry at a time.
+ */
+public class StockSearchIndex implements StockCatalog.Listener {
+    // Ranking weights; a stock's score is the sum of its best match for each query word
+    private static final int EXACT_SYMBOL = 1000;
+    private static final int SYMBOL_PREFIX = 500;
+    private static final int FIRST_NAME_WORD = 300;
+    private static final int NAME_WORD = 200;
+    private static final int SECTOR_WORD = 100;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TrieNode symbols = new TrieNode();
+    private final TreeMap<String, Set<IndexedStock>> firstNameWords = new TreeMap<>();
+    private final TreeMap<String, Set<IndexedStock>> nameWords = new TreeMap<>();
+    private final TreeMap<String, Set<IndexedStock>> sectorWords = new TreeMap<>();
+    private final Map<Integer, IndexedStock> indexed = new HashMap<>();
+
+    /**
+     * Trie node holding every stock whose symbol starts with the path to this node
+     */
+    private static class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>(4);
+        private final Set<IndexedStock> stocks = new HashSet<>(4);
+    }
+
+    /**
+     * The text a stock was indexed under, kept so it can be removed again
+     * Uses identity equality, so it can sit in hash sets without hashing its text.
+     */
+    private static class IndexedStock {
+        private final int stockId;
+        private final String symbol;
+        private final List<String> nameWords;
+        private final List<String> sectorWords;
+
+        IndexedStock(StockCatalog.Entry entry) {
+            this.stockId = entry.getStockId();
+            this.symbol = entry.getSymbol().toUpperCase(Locale.ROOT);
+            this.nameWords = tokenize(entry.getCompanyName());
+            this.sectorWords = tokenize(entry.getSector());
+        }
+
+        boolean sameText(IndexedStock other) {
+            return symbol.equals(other.symbol) && nameWords.equals(other.nameWords)
+                && sectorWords.equals(other.sectorWords);
+        }
+    }
+
+    /**
+     * Running score of one stock while a query is evaluated
+     */
+    private static class Match {
+        private final IndexedStock stock;
+        private int score;
+
+        Match(IndexedStock stock, int score) {
+            this.stock = stock;
+            this.score = score;
+        }
+    }
+
+    private static final Comparator<Match> BEST_FIRST = Comparator
+        .comparingInt((Match m) -> -m.score)
+        .thenComparing(m -> m.stock.symbol);
+
+    @Override
+    public void catalogLoaded(StockCatalog.Snapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (StockCatalog.Entry entry : snapshot.getEntries()) {
+                add(new IndexedStock(entry));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void catalogCleared() {
+        lock.writeLock().lock();
+        try {
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void entryChanged(StockCatalog.Entry previous, StockCatalog.Entry current) {
+        int stockId = current != null ? current.getStockId() : previous.getStockId();
+        IndexedStock replacement = current != null ? new IndexedStock(current) : null;
+
+        lock.writeLock().lock();
+        try {
+            IndexedStock existing = indexed.get(stockId);
+            // Price-only updates leave the searchable text untouched
+            if (existing != null && replacement != null && existing.sameText(replacement)) {
+                return;
+            }
+            if (existing != null) {
+                remove(existing);
+            }
+            if (replacement != null) {
+                add(replacement);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find stocks matching every word of the search term
+     * A word matches a symbol prefix, or the start of a word in the company name or sector.
+     * @param term Free-text search such as "app", "micro soft" or "tech"
+     * @param limit Maximum number of results, or 0 for all
+     * @return Matching stock ids, best match first
+     */
+    public List<Integer> search(String term, int limit) {
+        List<String> queryWords = tokenize(term);
+        if (queryWords.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<IndexedStock, Match> scores = null;
+            for (String word : queryWords) {
+                Map<IndexedStock, Match> wordScores = scoreWord(word);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    // Every query word has to match; keep the intersection and add up the scores
+                    scores.keySet().retainAll(wordScores.keySet());
+                    for (Match match : scores.values()) {
+                        match.score += wordScores.get(match.stock).score;
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            return rank(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of stocks currently indexed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexed.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Order by score, then symbol; with a limit only the best matches are kept in a bounded heap
+     */
+    private List<Integer> rank(Map<IndexedStock, Match> scores, int limit) {
+        List<Match> ranked;
+        if (limit > 0 && scores.size() > limit) {
+            PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+            for (Match match : scores.values()) {
+                top.offer(match);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            ranked = new ArrayList<>(top);
+        } else {
+            ranked = new ArrayList<>(scores.values());
+        }
+        ranked.sort(BEST_FIRST);
+
+        List<Integer> ids = new ArrayList<>(ranked.size());
+        for (Match match : ranked) {
+            ids.add(match.stock.stockId);
+        }
+        return ids;
+    }
+
+    private Map<IndexedStock, Match> scoreWord(String word) {
+        Map<IndexedStock, Match> scores = new HashMap<>();
+
+        TrieNode node = findNode(word.toUpperCase(Locale.ROOT));
+        if (node != null) {
+            for (IndexedStock stock : node.stocks) {
+                // Shorter symbols are closer matches for the same prefix
+                int score = stock.symbol.length() == word.length()
+                    ? EXACT_SYMBOL
+                    : SYMBOL_PREFIX - (stock.symbol.length() - word.length());
+                score(scores, stock, score);
+            }
+        }
+
+        scoreWords(scores, firstNameWords, word, FIRST_NAME_WORD);
+        scoreWords(scores, nameWords, word, NAME_WORD);
+        scoreWords(scores, sectorWords, word, SECTOR_WORD);
+        return scores;
+    }
+
+    private static void scoreWords(Map<IndexedStock, Match> scores, TreeMap<String, Set<IndexedStock>> words,
+                                   String prefix, int score) {
+        for (Set<IndexedStock> stocks : words.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            for (IndexedStock stock : stocks) {
+                score(scores, stock, score);
+            }
+        }
+    }
+
+    /**
+     * Keep the best score a stock reached for the current query word
+     */
+    private static void score(Map<IndexedStock, Match> scores, IndexedStock stock, int score) {
+        Match match = scores.get(stock);
+        if (match == null) {
+            scores.put(stock, new Match(stock, score));
+        } else if (score > match.score) {
+            match.score = score;
+        }
+    }
+
+    private void clear() {
+        symbols.children.clear();
+        symbols.stocks.clear();
+        firstNameWords.clear();
+        nameWords.clear();
+        sectorWords.clear();
+        indexed.clear();
+    }
+
+    private TrieNode findNode(String prefix) {
+        TrieNode node = symbols;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private void add(IndexedStock stock) {
+        indexed.put(stock.stockId, stock);
+
+        TrieNode node = symbols;
+        node.stocks.add(stock);
+        for (int i = 0; i < stock.symbol.length(); i++) {
+            node = node.children.computeIfAbsent(stock.symbol.charAt(i), c -> new TrieNode());
+            node.stocks.add(stock);
+        }
+
+        if (!stock.nameWords.isEmpty()) {
+            firstNameWords.computeIfAbsent(stock.nameWords.get(0), w -> new HashSet<>(2)).add(stock);
+        }
+        for (String word : stock.nameWords) {
+            nameWords.computeIfAbsent(word, w -> new HashSet<>(2)).add(stock);
+        }
+        for (String word : stock.sectorWords) {
+            sectorWords.computeIfAbsent(word, w -> new HashSet<>(2)).add(stock);
+        }
+    }
+
+    private void remove(IndexedStock stock) {
+        indexed.remove(stock.stockId);
+
+        // Walk down collecting the path, then prune nodes that no longer hold any symbol
+        List<TrieNode> path = new ArrayList<>(stock.symbol.length() + 1);
+        TrieNode node = symbols;
+        path.add(node);
+        for (int i = 0; i < stock.symbol.length() && node != null; i++) {
+            node = node.children.get(stock.symbol.charAt(i));
+            if (node != null) {
+                path.add(node);
+            }
+        }
+        for (TrieNode visited : path) {
+            visited.stocks.remove(stock);
+        }
+        for (int i = path.size() - 1; i > 0; i--) {
+            if (path.get(i).stocks.isEmpty()) {
+                path.get(i - 1).children.remove(stock.symbol.charAt(i - 1));
+            }
+        }
+
+        if (!stock.nameWords.isEmpty()) {
+            removeWords(firstNameWords, stock.nameWords.subList(0, 1), stock);
+        }
+        removeWords(nameWords, stock.nameWords, stock);
+        removeWords(sectorWords, stock.sectorWords, stock);
+    }
+
+    private static void removeWords(TreeMap<String, Set<IndexedStock>> words, List<String> stockWords,
+                                    IndexedStock stock) {
+        for (String word : stockWords) {
+            Set<IndexedStock> stocks = words.get(word);
+            if (stocks != null) {
+                stocks.remove(stock);
+                if (stocks.isEmpty()) {
+                    words.remove(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Split text into lower-case words on anything that is not a letter or digit
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
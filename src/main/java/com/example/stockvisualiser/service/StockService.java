@@ -1,142 +1,113 @@
 package com.example.stockvisualiser.service;
 
+import com.example.stockvisualiser.database.ConnectionLease;
 import com.example.stockvisualiser.database.DatabaseManager;
+import com.example.stockvisualiser.database.ParameterBinder;
 import com.example.stockvisualiser.model.Stock;
+import com.example.stockvisualiser.util.BackgroundTasks;
+import com.example.stockvisualiser.util.EpochTime;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.sql.*;
-import java.time.LocalDateTime;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * StockService - Handles all stock-related operations
  */
 public class StockService {
     private final DatabaseManager dbManager;
+    private final StockCatalog catalog;
 
     public StockService() {
         this.dbManager = DatabaseManager.getInstance();
+        this.catalog = StockCatalog.getInstance();
     }
 
     /**
-     * Get all stocks from database
+     * Get the cached catalog snapshot
+     * Compare versions to find out whether the stocks table changed since an earlier snapshot
+     * @return The current snapshot, or null if the table could not be loaded
      */
-    public ObservableList<Stock> getAllStocks() {
-        ObservableList<Stock> stocks = FXCollections.observableArrayList();
-        
+    public StockCatalog.Snapshot getCatalogSnapshot() {
         try {
-            String query = "SELECT * FROM stocks ORDER BY symbol";
-            Statement stmt = dbManager.getConnection().createStatement();
-            ResultSet rs = stmt.executeQuery(query);
-
-            while (rs.next()) {
-                Stock stock = new Stock(
-                    rs.getInt("stock_id"),
-                    rs.getString("symbol"),
-                    rs.getString("company_name"),
-                    rs.getString("sector"),
-                    rs.getDouble("current_price"),
-                    LocalDateTime.parse(rs.getString("last_updated"))
-                );
-                stocks.add(stock);
-            }
-
-            rs.close();
-            stmt.close();
+            return catalog.getSnapshot();
         } catch (SQLException e) {
-            System.err.println("Error fetching stocks: " + e.getMessage());
+            System.err.println("Error loading stock catalog: " + e.getMessage());
             e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Get all stocks, served from the catalog cache
+     */
+    public ObservableList<Stock> getAllStocks() {
+        ObservableList<Stock> stocks = FXCollections.observableArrayList();
+        StockCatalog.Snapshot snapshot = getCatalogSnapshot();
+
+        if (snapshot != null) {
+            List<Stock> loaded = new ArrayList<>(snapshot.size());
+            for (StockCatalog.Entry entry : snapshot.getEntries()) {
+                loaded.add(entry.toStock());
+            }
+            stocks.setAll(loaded);
         }
 
         return stocks;
     }
 
     /**
-     * Get stock by ID
+     * Get stock by ID, served from the catalog cache
      */
     public Stock getStockById(int stockId) {
-        try {
-            String query = "SELECT * FROM stocks WHERE stock_id = ?";
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, stockId);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                Stock stock = new Stock(
-                    rs.getInt("stock_id"),
-                    rs.getString("symbol"),
-                    rs.getString("company_name"),
-                    rs.getString("sector"),
-                    rs.getDouble("current_price"),
-                    LocalDateTime.parse(rs.getString("last_updated"))
-                );
-                rs.close();
-                pstmt.close();
-                return stock;
-            }
-
-            rs.close();
-            pstmt.close();
-        } catch (SQLException e) {
-            System.err.println("Error fetching stock: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
+        StockCatalog.Snapshot snapshot = getCatalogSnapshot();
+        StockCatalog.Entry entry = snapshot != null ? snapshot.getById(stockId) : null;
+        return entry != null ? entry.toStock() : null;
     }
 
     /**
-     * Get stock by symbol
+     * Get stock by symbol, served from the catalog cache
      */
     public Stock getStockBySymbol(String symbol) {
-        try {
-            String query = "SELECT * FROM stocks WHERE symbol = ?";
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setString(1, symbol);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                Stock stock = new Stock(
-                    rs.getInt("stock_id"),
-                    rs.getString("symbol"),
-                    rs.getString("company_name"),
-                    rs.getString("sector"),
-                    rs.getDouble("current_price"),
-                    LocalDateTime.parse(rs.getString("last_updated"))
-                );
-                rs.close();
-                pstmt.close();
-                return stock;
-            }
-
-            rs.close();
-            pstmt.close();
-        } catch (SQLException e) {
-            System.err.println("Error fetching stock: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
+        StockCatalog.Snapshot snapshot = getCatalogSnapshot();
+        StockCatalog.Entry entry = snapshot != null ? snapshot.getBySymbol(symbol) : null;
+        return entry != null ? entry.toStock() : null;
     }
 
     /**
      * Add a new stock to the database
      */
     public boolean addStock(String symbol, String companyName, String sector, double currentPrice) {
-        try {
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
             String query = """
                 INSERT INTO stocks (symbol, company_name, sector, current_price, last_updated)
                 VALUES (?, ?, ?, ?, ?)
             """;
             
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setString(1, symbol);
-            pstmt.setString(2, companyName);
-            pstmt.setString(3, sector);
-            pstmt.setDouble(4, currentPrice);
-            pstmt.setString(5, LocalDateTime.now().toString());
-
-            int rowsAffected = pstmt.executeUpdate();
-            pstmt.close();
+            int rowsAffected = lease.update(query, pstmt -> {
+                pstmt.setString(1, symbol);
+                pstmt.setString(2, companyName);
+                pstmt.setString(3, sector);
+                pstmt.setDouble(4, currentPrice);
+                pstmt.setLong(5, EpochTime.nowMillis());
+            });
 
+            if (rowsAffected > 0) {
+                String inserted = "SELECT " + RowMappers.STOCK_COLUMNS + " FROM stocks WHERE symbol = ?";
+                Stock stock = lease.queryFirst(inserted, pstmt -> pstmt.setString(1, symbol), RowMappers.STOCK);
+                if (stock != null) {
+                    catalog.put(stock);
+                } else {
+                    catalog.invalidateAll();
+                }
+            }
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error adding stock: " + e.getMessage());
@@ -149,16 +120,18 @@ public class StockService {
      * Update stock price
      */
     public boolean updateStockPrice(int stockId, double newPrice) {
-        try {
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
             String query = "UPDATE stocks SET current_price = ?, last_updated = ? WHERE stock_id = ?";
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setDouble(1, newPrice);
-            pstmt.setString(2, LocalDateTime.now().toString());
-            pstmt.setInt(3, stockId);
-
-            int rowsAffected = pstmt.executeUpdate();
-            pstmt.close();
+            long updatedAt = EpochTime.nowMillis();
+            int rowsAffected = lease.update(query, pstmt -> {
+                pstmt.setDouble(1, newPrice);
+                pstmt.setLong(2, updatedAt);
+                pstmt.setInt(3, stockId);
+            });
 
+            if (rowsAffected > 0) {
+                catalog.updatePrice(stockId, newPrice, updatedAt);
+            }
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error updating stock price: " + e.getMessage());
@@ -167,18 +140,69 @@ public class StockService {
         }
     }
 
+    /**
+     * Update many stock prices in one write transaction
+     * Rows whose price is already the given one are left alone, so their last_updated is kept.
+     * @param prices New price by stock id
+     * @return Number of rows whose price changed, or -1 if the write failed and nothing was changed
+     */
+    public int updateStockPrices(Map<Integer, Double> prices) {
+        if (prices.isEmpty()) {
+            return 0;
+        }
+        String query = "UPDATE stocks SET current_price = ?, last_updated = ? WHERE stock_id = ? AND current_price <> ?";
+        long updatedAt = EpochTime.nowMillis();
+
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
+            Connection conn = lease.getConnection();
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement pstmt = lease.prepare(query);
+                List<Integer> stockIds = new ArrayList<>(prices.size());
+                for (Map.Entry<Integer, Double> price : prices.entrySet()) {
+                    pstmt.setDouble(1, price.getValue());
+                    pstmt.setLong(2, updatedAt);
+                    pstmt.setInt(3, price.getKey());
+                    pstmt.setDouble(4, price.getValue());
+                    pstmt.addBatch();
+                    stockIds.add(price.getKey());
+                }
+                int[] rowsAffected = pstmt.executeBatch();
+                conn.commit();
+
+                Map<Integer, Double> changed = new HashMap<>();
+                for (int i = 0; i < rowsAffected.length; i++) {
+                    if (rowsAffected[i] > 0) {
+                        int stockId = stockIds.get(i);
+                        changed.put(stockId, prices.get(stockId));
+                    }
+                }
+                catalog.updatePrices(changed, updatedAt);
+                return changed.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating stock prices: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
     /**
      * Delete a stock
      */
     public boolean deleteStock(int stockId) {
-        try {
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
             String query = "DELETE FROM stocks WHERE stock_id = ?";
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, stockId);
-
-            int rowsAffected = pstmt.executeUpdate();
-            pstmt.close();
+            int rowsAffected = lease.update(query, pstmt -> pstmt.setInt(1, stockId));
 
+            if (rowsAffected > 0) {
+                catalog.remove(stockId);
+            }
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error deleting stock: " + e.getMessage());
@@ -188,42 +212,139 @@ public class StockService {
     }
 
     /**
-     * Search stocks by symbol or company name
+     * Search stocks by symbol, company name or sector
+     * Served by the catalog's search index, best match first; falls back to full-text search in SQLite
+     * if the catalog cannot be loaded
      */
     public ObservableList<Stock> searchStocks(String searchTerm) {
         ObservableList<Stock> stocks = FXCollections.observableArrayList();
-        
-        try {
-            String query = """
-                SELECT * FROM stocks 
-                WHERE symbol LIKE ? OR company_name LIKE ?
-                ORDER BY symbol
-            """;
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            String searchPattern = "%" + searchTerm + "%";
-            pstmt.setString(1, searchPattern);
-            pstmt.setString(2, searchPattern);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                Stock stock = new Stock(
-                    rs.getInt("stock_id"),
-                    rs.getString("symbol"),
-                    rs.getString("company_name"),
-                    rs.getString("sector"),
-                    rs.getDouble("current_price"),
-                    LocalDateTime.parse(rs.getString("last_updated"))
-                );
-                stocks.add(stock);
+        StockCatalog.Snapshot snapshot = getCatalogSnapshot();
+
+        if (snapshot != null) {
+            List<Stock> matches = new ArrayList<>();
+            for (int stockId : catalog.getSearchIndex().search(searchTerm, 0)) {
+                StockCatalog.Entry entry = snapshot.getById(stockId);
+                if (entry != null) {
+                    matches.add(entry.toStock());
+                }
             }
+            stocks.setAll(matches);
+            return stocks;
+        }
+
+        stocks.setAll(searchStocksFullText(searchTerm, 0));
+        return stocks;
+    }
+
+    /**
+     * Search stocks in SQLite through the stocks_fts full-text index
+     * Each word is a prefix query and results are ordered by bm25, weighting symbol over name over sector.
+     * Used when the catalog is not cached; nothing is loaded into memory.
+     * @param limit Maximum number of results, or 0 for all
+     */
+    public List<Stock> searchStocksFullText(String searchTerm, int limit) {
+        String match = toMatchExpression(searchTerm);
+        if (match.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-            rs.close();
-            pstmt.close();
+        try (ConnectionLease lease = dbManager.acquireReader()) {
+            String query = "SELECT " + RowMappers.STOCK_COLUMNS_AS_S
+                + " FROM stocks_fts JOIN stocks s ON s.stock_id = stocks_fts.rowid"
+                + " WHERE stocks_fts MATCH ? ORDER BY bm25(stocks_fts, 10.0, 5.0, 1.0), s.symbol LIMIT ?";
+            return lease.query(query, pstmt -> {
+                pstmt.setString(1, match);
+                pstmt.setInt(2, limit > 0 ? limit : -1);
+            }, RowMappers.STOCK);
         } catch (SQLException e) {
             System.err.println("Error searching stocks: " + e.getMessage());
             e.printStackTrace();
+            return new ArrayList<>();
         }
+    }
 
-        return stocks;
+    /**
+     * Turn free text into an FTS5 query where every word must match as a prefix, e.g. "app in" -> "app"* AND "in"*
+     */
+    private String toMatchExpression(String searchTerm) {
+        StringBuilder match = new StringBuilder();
+        for (String word : StockSearchIndex.tokenize(searchTerm)) {
+            if (match.length() > 0) {
+                match.append(" AND ");
+            }
+            match.append('"').append(word).append("\"*");
+        }
+        return match.toString();
+    }
+
+    /**
+     * Search the catalog and return only the ids, best match first
+     * Lets views filter Stock objects they already hold without creating new ones
+     */
+    public List<Integer> searchStockIds(String searchTerm) {
+        if (getCatalogSnapshot() == null) {
+            return new ArrayList<>();
+        }
+        return catalog.getSearchIndex().search(searchTerm, 0);
+    }
+
+    /**
+     * Classify every stock for API scheduling when its price is refreshed
+     * Stocks held by any user come first, then stocks on any watchlist, then the rest.
+     * @return Priority by stock id; empty if the lookup failed
+     */
+    public Map<Integer, ApiRequestScheduler.Priority> getRefreshPriorities() {
+        String query = """
+            SELECT s.stock_id,
+                EXISTS (SELECT 1 FROM portfolio p WHERE p.stock_id = s.stock_id AND p.quantity > 0),
+                EXISTS (SELECT 1 FROM watchlist w WHERE w.stock_id = s.stock_id)
+            FROM stocks s
+        """;
+        Map<Integer, ApiRequestScheduler.Priority> priorities = new HashMap<>();
+        try (ConnectionLease lease = dbManager.acquireReader()) {
+            List<Map.Entry<Integer, ApiRequestScheduler.Priority>> rows = lease.query(query, ParameterBinder.NONE,
+                rs -> Map.entry(rs.getInt(1), rs.getBoolean(2) ? ApiRequestScheduler.Priority.HOLDINGS
+                    : rs.getBoolean(3) ? ApiRequestScheduler.Priority.WATCHLIST
+                    : ApiRequestScheduler.Priority.BACKGROUND));
+            for (Map.Entry<Integer, ApiRequestScheduler.Priority> row : rows) {
+                priorities.put(row.getKey(), row.getValue());
+            }
+        } catch (SQLException e) {
+            System.err.println("Error classifying stocks: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return priorities;
+    }
+
+    // ============ ASYNC VARIANTS ============
+    // Each runs the blocking call above on a virtual thread; see BackgroundTasks.
+
+    public CompletableFuture<StockCatalog.Snapshot> getCatalogSnapshotAsync() {
+        return BackgroundTasks.supply(this::getCatalogSnapshot);
+    }
+
+    public CompletableFuture<ObservableList<Stock>> getAllStocksAsync() {
+        return BackgroundTasks.supply(this::getAllStocks);
+    }
+
+    public CompletableFuture<ObservableList<Stock>> searchStocksAsync(String searchTerm) {
+        return BackgroundTasks.supply(() -> searchStocks(searchTerm));
+    }
+
+    public CompletableFuture<Boolean> addStockAsync(String symbol, String companyName, String sector,
+                                                    double currentPrice) {
+        return BackgroundTasks.supply(() -> addStock(symbol, companyName, sector, currentPrice));
+    }
+
+    public CompletableFuture<Boolean> updateStockPriceAsync(int stockId, double newPrice) {
+        return BackgroundTasks.supply(() -> updateStockPrice(stockId, newPrice));
+    }
+
+    public CompletableFuture<Integer> updateStockPricesAsync(Map<Integer, Double> prices) {
+        return BackgroundTasks.supply(() -> updateStockPrices(prices));
+    }
+
+    public CompletableFuture<Boolean> deleteStockAsync(int stockId) {
+        return BackgroundTasks.supply(() -> deleteStock(stockId));
     }
 }
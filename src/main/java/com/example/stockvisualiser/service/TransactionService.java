@@ -1,12 +1,17 @@
 package com.example.stockvisualiser.service;
 
+import com.example.stockvisualiser.database.ConnectionLease;
 import com.example.stockvisualiser.database.DatabaseManager;
 import com.example.stockvisualiser.model.Transaction;
+import com.example.stockvisualiser.util.BackgroundTasks;
+import com.example.stockvisualiser.util.EpochTime;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.sql.*;
-import java.time.LocalDateTime;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * TransactionService - Handles buy/sell transactions
@@ -24,7 +29,14 @@ public class TransactionService {
      * Record a buy transaction
      */
     public boolean buyStock(int userId, int stockId, int quantity, double pricePerShare) {
-        Connection conn = dbManager.getConnection();
+        ConnectionLease lease;
+        try {
+            lease = dbManager.acquireWriter();
+        } catch (SQLException e) {
+            System.err.println("Error acquiring writer connection: " + e.getMessage());
+            return false;
+        }
+        Connection conn = lease.getConnection();
         
         try {
             // Start transaction
@@ -36,48 +48,27 @@ public class TransactionService {
                 VALUES (?, ?, 'BUY', ?, ?, ?, ?)
             """;
             
-            double totalAmount = quantity * pricePerShare;
-            PreparedStatement pstmt = conn.prepareStatement(transactionQuery);
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, stockId);
-            pstmt.setInt(3, quantity);
-            pstmt.setDouble(4, pricePerShare);
-            pstmt.setDouble(5, totalAmount);
-            pstmt.setString(6, LocalDateTime.now().toString());
-            pstmt.executeUpdate();
-            pstmt.close();
+            recordTransaction(lease, transactionQuery, userId, stockId, quantity, pricePerShare);
 
             // Check if user already owns this stock
-            String checkQuery = "SELECT portfolio_id, quantity, purchase_price FROM portfolio WHERE user_id = ? AND stock_id = ?";
-            pstmt = conn.prepareStatement(checkQuery);
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, stockId);
-            ResultSet rs = pstmt.executeQuery();
+            Holding holding = findHolding(lease, userId, stockId);
 
-            if (rs.next()) {
+            if (holding != null) {
                 // Update existing holding with weighted average price
-                int existingQuantity = rs.getInt("quantity");
-                double existingPrice = rs.getDouble("purchase_price");
-                int portfolioId = rs.getInt("portfolio_id");
-                
-                int newTotalQuantity = existingQuantity + quantity;
-                double newAvgPrice = ((existingQuantity * existingPrice) + (quantity * pricePerShare)) / newTotalQuantity;
+                int newTotalQuantity = holding.quantity + quantity;
+                double newAvgPrice = ((holding.quantity * holding.purchasePrice) + (quantity * pricePerShare)) / newTotalQuantity;
                 
                 String updateQuery = "UPDATE portfolio SET quantity = ?, purchase_price = ? WHERE portfolio_id = ?";
-                PreparedStatement updateStmt = conn.prepareStatement(updateQuery);
-                updateStmt.setInt(1, newTotalQuantity);
-                updateStmt.setDouble(2, newAvgPrice);
-                updateStmt.setInt(3, portfolioId);
-                updateStmt.executeUpdate();
-                updateStmt.close();
+                lease.update(updateQuery, pstmt -> {
+                    pstmt.setInt(1, newTotalQuantity);
+                    pstmt.setDouble(2, newAvgPrice);
+                    pstmt.setInt(3, holding.portfolioId);
+                });
             } else {
                 // Add new holding to portfolio
                 portfolioService.addToPortfolio(userId, stockId, quantity, pricePerShare, java.time.LocalDate.now());
             }
 
-            rs.close();
-            pstmt.close();
-
             // Commit transaction
             conn.commit();
             conn.setAutoCommit(true);
@@ -94,6 +85,8 @@ public class TransactionService {
             System.err.println("Error processing buy transaction: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            lease.close();
         }
     }
 
@@ -101,28 +94,31 @@ public class TransactionService {
      * Record a sell transaction
      */
     public boolean sellStock(int userId, int stockId, int quantity, double pricePerShare) {
-        Connection conn = dbManager.getConnection();
+        ConnectionLease lease;
+        try {
+            lease = dbManager.acquireWriter();
+        } catch (SQLException e) {
+            System.err.println("Error acquiring writer connection: " + e.getMessage());
+            return false;
+        }
+        Connection conn = lease.getConnection();
         
         try {
             // Start transaction
             conn.setAutoCommit(false);
 
             // Check if user has enough shares to sell
-            String checkQuery = "SELECT portfolio_id, quantity FROM portfolio WHERE user_id = ? AND stock_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(checkQuery);
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, stockId);
-            ResultSet rs = pstmt.executeQuery();
+            Holding holding = findHolding(lease, userId, stockId);
 
-            if (!rs.next()) {
+            if (holding == null) {
                 System.err.println("User does not own this stock");
                 conn.rollback();
                 conn.setAutoCommit(true);
                 return false;
             }
 
-            int currentQuantity = rs.getInt("quantity");
-            int portfolioId = rs.getInt("portfolio_id");
+            int currentQuantity = holding.quantity;
+            int portfolioId = holding.portfolioId;
 
             if (currentQuantity < quantity) {
                 System.err.println("Insufficient shares to sell");
@@ -131,25 +127,13 @@ public class TransactionService {
                 return false;
             }
 
-            rs.close();
-            pstmt.close();
-
             // Record transaction
             String transactionQuery = """
                 INSERT INTO transactions (user_id, stock_id, transaction_type, quantity, price_per_share, total_amount, transaction_date)
                 VALUES (?, ?, 'SELL', ?, ?, ?, ?)
             """;
             
-            double totalAmount = quantity * pricePerShare;
-            pstmt = conn.prepareStatement(transactionQuery);
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, stockId);
-            pstmt.setInt(3, quantity);
-            pstmt.setDouble(4, pricePerShare);
-            pstmt.setDouble(5, totalAmount);
-            pstmt.setString(6, LocalDateTime.now().toString());
-            pstmt.executeUpdate();
-            pstmt.close();
+            recordTransaction(lease, transactionQuery, userId, stockId, quantity, pricePerShare);
 
             // Update portfolio
             int newQuantity = currentQuantity - quantity;
@@ -177,46 +161,46 @@ public class TransactionService {
             System.err.println("Error processing sell transaction: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            lease.close();
         }
     }
 
+    /**
+     * Insert a BUY or SELL row using the given INSERT statement
+     */
+    private void recordTransaction(ConnectionLease lease, String transactionQuery, int userId, int stockId,
+                                   int quantity, double pricePerShare) throws SQLException {
+        double totalAmount = quantity * pricePerShare;
+        lease.update(transactionQuery, pstmt -> {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, stockId);
+            pstmt.setInt(3, quantity);
+            pstmt.setDouble(4, pricePerShare);
+            pstmt.setDouble(5, totalAmount);
+            pstmt.setLong(6, EpochTime.nowMillis());
+        });
+    }
+
+    /**
+     * Look up the user's holding of a stock, served by the covering idx_portfolio_user_stock index
+     */
+    private Holding findHolding(ConnectionLease lease, int userId, int stockId) throws SQLException {
+        String query = "SELECT portfolio_id, quantity, purchase_price FROM portfolio WHERE user_id = ? AND stock_id = ?";
+        return lease.queryFirst(query, pstmt -> {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, stockId);
+        }, rs -> new Holding(rs.getInt(1), rs.getInt(2), rs.getDouble(3)));
+    }
+
     /**
      * Get all transactions for a user
      */
     public ObservableList<Transaction> getUserTransactions(int userId) {
         ObservableList<Transaction> transactions = FXCollections.observableArrayList();
         
-        try {
-            String query = """
-                SELECT t.*, s.symbol, s.company_name
-                FROM transactions t
-                JOIN stocks s ON t.stock_id = s.stock_id
-                WHERE t.user_id = ?
-                ORDER BY t.transaction_date DESC
-            """;
-            
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                Transaction transaction = new Transaction(
-                    rs.getInt("transaction_id"),
-                    rs.getInt("user_id"),
-                    rs.getInt("stock_id"),
-                    rs.getString("symbol"),
-                    rs.getString("company_name"),
-                    rs.getString("transaction_type"),
-                    rs.getInt("quantity"),
-                    rs.getDouble("price_per_share"),
-                    rs.getDouble("total_amount"),
-                    LocalDateTime.parse(rs.getString("transaction_date"))
-                );
-                transactions.add(transaction);
-            }
-
-            rs.close();
-            pstmt.close();
+        try (ConnectionLease lease = dbManager.acquireReader()) {
+            transactions.setAll(getUserTransactions(lease, userId));
         } catch (SQLException e) {
             System.err.println("Error fetching transactions: " + e.getMessage());
             e.printStackTrace();
@@ -225,45 +209,30 @@ public class TransactionService {
         return transactions;
     }
 
+    /**
+     * Load a user's full transaction history on an existing lease, newest first
+     */
+    List<Transaction> getUserTransactions(ConnectionLease lease, int userId) throws SQLException {
+        String query = "SELECT " + RowMappers.TRANSACTION_COLUMNS
+            + " FROM transactions t JOIN stocks s ON t.stock_id = s.stock_id"
+            + " WHERE t.user_id = ? ORDER BY t.transaction_date DESC";
+        return lease.query(query, pstmt -> pstmt.setInt(1, userId), RowMappers.TRANSACTION);
+    }
+
     /**
      * Get recent transactions (last N)
      */
     public ObservableList<Transaction> getRecentTransactions(int userId, int limit) {
         ObservableList<Transaction> transactions = FXCollections.observableArrayList();
         
-        try {
-            String query = """
-                SELECT t.*, s.symbol, s.company_name
-                FROM transactions t
-                JOIN stocks s ON t.stock_id = s.stock_id
-                WHERE t.user_id = ?
-                ORDER BY t.transaction_date DESC
-                LIMIT ?
-            """;
-            
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, limit);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                Transaction transaction = new Transaction(
-                    rs.getInt("transaction_id"),
-                    rs.getInt("user_id"),
-                    rs.getInt("stock_id"),
-                    rs.getString("symbol"),
-                    rs.getString("company_name"),
-                    rs.getString("transaction_type"),
-                    rs.getInt("quantity"),
-                    rs.getDouble("price_per_share"),
-                    rs.getDouble("total_amount"),
-                    LocalDateTime.parse(rs.getString("transaction_date"))
-                );
-                transactions.add(transaction);
-            }
-
-            rs.close();
-            pstmt.close();
+        try (ConnectionLease lease = dbManager.acquireReader()) {
+            String query = "SELECT " + RowMappers.TRANSACTION_COLUMNS
+                + " FROM transactions t JOIN stocks s ON t.stock_id = s.stock_id"
+                + " WHERE t.user_id = ? ORDER BY t.transaction_date DESC LIMIT ?";
+            transactions.setAll(lease.query(query, pstmt -> {
+                pstmt.setInt(1, userId);
+                pstmt.setInt(2, limit);
+            }, RowMappers.TRANSACTION));
         } catch (SQLException e) {
             System.err.println("Error fetching recent transactions: " + e.getMessage());
             e.printStackTrace();
@@ -271,4 +240,38 @@ public class TransactionService {
 
         return transactions;
     }
+
+    // ============ ASYNC VARIANTS ============
+    // Each runs the blocking call above on a virtual thread; see BackgroundTasks.
+
+    public CompletableFuture<Boolean> buyStockAsync(int userId, int stockId, int quantity, double pricePerShare) {
+        return BackgroundTasks.supply(() -> buyStock(userId, stockId, quantity, pricePerShare));
+    }
+
+    public CompletableFuture<Boolean> sellStockAsync(int userId, int stockId, int quantity, double pricePerShare) {
+        return BackgroundTasks.supply(() -> sellStock(userId, stockId, quantity, pricePerShare));
+    }
+
+    public CompletableFuture<ObservableList<Transaction>> getUserTransactionsAsync(int userId) {
+        return BackgroundTasks.supply(() -> getUserTransactions(userId));
+    }
+
+    public CompletableFuture<ObservableList<Transaction>> getRecentTransactionsAsync(int userId, int limit) {
+        return BackgroundTasks.supply(() -> getRecentTransactions(userId, limit));
+    }
+
+    /**
+     * Portfolio row fields needed to apply a trade
+     */
+    private static class Holding {
+        private final int portfolioId;
+        private final int quantity;
+        private final double purchasePrice;
+
+        Holding(int portfolioId, int quantity, double purchasePrice) {
+            this.portfolioId = portfolioId;
+            this.quantity = quantity;
+            this.purchasePrice = purchasePrice;
+        }
+    }
 }
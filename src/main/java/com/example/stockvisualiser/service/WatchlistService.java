@@ -1,12 +1,16 @@
 package com.example.stockvisualiser.service;
 
+import com.example.stockvisualiser.database.ConnectionLease;
 import com.example.stockvisualiser.database.DatabaseManager;
 import com.example.stockvisualiser.model.Watchlist;
+import com.example.stockvisualiser.util.BackgroundTasks;
+import com.example.stockvisualiser.util.EpochTime;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.sql.*;
-import java.time.LocalDate;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * WatchlistService - Manages user's stock watchlist
@@ -24,35 +28,8 @@ public class WatchlistService {
     public ObservableList<Watchlist> getUserWatchlist(int userId) {
         ObservableList<Watchlist> watchlist = FXCollections.observableArrayList();
         
-        try {
-            String query = """
-                SELECT w.*, s.symbol, s.company_name, s.sector, s.current_price
-                FROM watchlist w
-                JOIN stocks s ON w.stock_id = s.stock_id
-                WHERE w.user_id = ?
-                ORDER BY w.added_date DESC
-            """;
-            
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                Watchlist item = new Watchlist(
-                    rs.getInt("watchlist_id"),
-                    rs.getInt("user_id"),
-                    rs.getInt("stock_id"),
-                    rs.getString("symbol"),
-                    rs.getString("company_name"),
-                    rs.getString("sector"),
-                    rs.getDouble("current_price"),
-                    LocalDate.parse(rs.getString("added_date"))
-                );
-                watchlist.add(item);
-            }
-
-            rs.close();
-            pstmt.close();
+        try (ConnectionLease lease = dbManager.acquireReader()) {
+            watchlist.setAll(getUserWatchlist(lease, userId));
         } catch (SQLException e) {
             System.err.println("Error fetching watchlist: " + e.getMessage());
             e.printStackTrace();
@@ -61,23 +38,31 @@ public class WatchlistService {
         return watchlist;
     }
 
+    /**
+     * Load a user's watchlist on an existing lease, newest first
+     */
+    List<Watchlist> getUserWatchlist(ConnectionLease lease, int userId) throws SQLException {
+        String query = "SELECT " + RowMappers.WATCHLIST_COLUMNS
+            + " FROM watchlist w JOIN stocks s ON w.stock_id = s.stock_id"
+            + " WHERE w.user_id = ? ORDER BY w.added_date DESC";
+        return lease.query(query, pstmt -> pstmt.setInt(1, userId), RowMappers.WATCHLIST);
+    }
+
     /**
      * Add stock to watchlist
      */
     public boolean addToWatchlist(int userId, int stockId) {
-        try {
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
             String query = """
                 INSERT INTO watchlist (user_id, stock_id, added_date)
                 VALUES (?, ?, ?)
             """;
             
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, stockId);
-            pstmt.setString(3, LocalDate.now().toString());
-
-            int rowsAffected = pstmt.executeUpdate();
-            pstmt.close();
+            int rowsAffected = lease.update(query, pstmt -> {
+                pstmt.setInt(1, userId);
+                pstmt.setInt(2, stockId);
+                pstmt.setLong(3, EpochTime.todayEpochDay());
+            });
 
             return rowsAffected > 0;
         } catch (SQLException e) {
@@ -95,13 +80,9 @@ public class WatchlistService {
      * Remove stock from watchlist
      */
     public boolean removeFromWatchlist(int watchlistId) {
-        try {
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
             String query = "DELETE FROM watchlist WHERE watchlist_id = ?";
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, watchlistId);
-
-            int rowsAffected = pstmt.executeUpdate();
-            pstmt.close();
+            int rowsAffected = lease.update(query, pstmt -> pstmt.setInt(1, watchlistId));
 
             return rowsAffected > 0;
         } catch (SQLException e) {
@@ -115,22 +96,37 @@ public class WatchlistService {
      * Check if stock is in user's watchlist
      */
     public boolean isInWatchlist(int userId, int stockId) {
-        try {
+        try (ConnectionLease lease = dbManager.acquireReader()) {
             String query = "SELECT COUNT(*) FROM watchlist WHERE user_id = ? AND stock_id = ?";
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, stockId);
-            ResultSet rs = pstmt.executeQuery();
+            Integer count = lease.queryFirst(query, pstmt -> {
+                pstmt.setInt(1, userId);
+                pstmt.setInt(2, stockId);
+            }, RowMappers.COUNT);
 
-            boolean exists = rs.next() && rs.getInt(1) > 0;
-            rs.close();
-            pstmt.close();
-
-            return exists;
+            return count != null && count > 0;
         } catch (SQLException e) {
             System.err.println("Error checking watchlist: " + e.getMessage());
             e.printStackTrace();
             return false;
         }
     }
+
+    // ============ ASYNC VARIANTS ============
+    // Each runs the blocking call above on a virtual thread; see BackgroundTasks.
+
+    public CompletableFuture<ObservableList<Watchlist>> getUserWatchlistAsync(int userId) {
+        return BackgroundTasks.supply(() -> getUserWatchlist(userId));
+    }
+
+    public CompletableFuture<Boolean> addToWatchlistAsync(int userId, int stockId) {
+        return BackgroundTasks.supply(() -> addToWatchlist(userId, stockId));
+    }
+
+    public CompletableFuture<Boolean> removeFromWatchlistAsync(int watchlistId) {
+        return BackgroundTasks.supply(() -> removeFromWatchlist(watchlistId));
+    }
+
+    public CompletableFuture<Boolean> isInWatchlistAsync(int userId, int stockId) {
+        return BackgroundTasks.supply(() -> isInWatchlist(userId, stockId));
+    }
 }
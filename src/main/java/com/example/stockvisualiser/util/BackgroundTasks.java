@@ -0,0 +1,60 @@
+package com.example.stockvisualiser.util;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * BackgroundTasks - Runs blocking service work off the JavaFX Application Thread
+ * Every task gets its own virtual thread, so slow JDBC or HTTP calls only park a cheap thread
+ * while the connection pool and the network bound how much really runs at once. Results come
+ * back to the FX thread with a single Platform.runLater per task.
+ */
+public final class BackgroundTasks {
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("stockvisualiser-task-", 0).factory());
+
+    private static final Executor FX_THREAD = Platform::runLater;
+
+    private BackgroundTasks() {
+    }
+
+    /**
+     * Run a task on a new virtual thread
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, EXECUTOR);
+    }
+
+    /**
+     * Start a JavaFX Task on a new virtual thread
+     * For long jobs that report progress or can be cancelled; the task's handlers run on the FX thread.
+     */
+    public static void start(Task<?> task) {
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Hand the outcome of a background task to the FX thread
+     * The handler receives either the result or the failure (unwrapped from CompletionException)
+     * and runs exactly once, in one hop onto the FX thread.
+     */
+    public static <T> CompletableFuture<Void> onFxThread(CompletableFuture<T> future,
+                                                         BiConsumer<? super T, ? super Throwable> handler) {
+        return future.handleAsync((result, error) -> {
+            handler.accept(result, unwrap(error));
+            return null;
+        }, FX_THREAD);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.stockvisualiser.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * EpochTime - Conversions between stored epoch values and java.time types
+ * Timestamps are stored as epoch milliseconds and calendar dates as epoch days, so the
+ * database compares and sorts plain integers; conversion only happens when a value is displayed.
+ */
+public final class EpochTime {
+
+    private EpochTime() {
+    }
+
+    /**
+     * Current time in epoch milliseconds
+     */
+    public static long nowMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Today's date as an epoch day in the system time zone
+     */
+    public static long todayEpochDay() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    /**
+     * Convert epoch milliseconds to a local date-time in the system time zone
+     */
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Convert an epoch day to a calendar date
+     */
+    public static LocalDate toLocalDate(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.stockvisualiser.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * JsonTokenizer - Single-pass pull tokenizer over a character stream
+ * Reads the input through one fixed buffer and reports one token at a time, so a document of any
+ * size is parsed in constant memory. The text of the current name or string stays in a reused
+ * buffer; callers compare or convert it in place and only create a String when they keep one.
+ * Nesting is not validated beyond what is needed to skip values.
+ */
+public final class JsonTokenizer {
+
+    /**
+     * Kinds of token reported by next()
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END_DOCUMENT
+    }
+
+    // Exact powers of ten; a decimal with at most 15 significant digits divided by one of these is
+    // correctly rounded, so the fast path agrees with Double.parseDouble
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+        1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    private final StringBuilder text = new StringBuilder(64);
+    private Token token;
+    // True when the next string inside the current object is a member name
+    private boolean expectName;
+    // Whether each open container is an object, so commas know what comes next
+    private boolean[] inObject = new boolean[32];
+    private int depth;
+
+    public JsonTokenizer(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Advance to the next token
+     * @throws IOException If the input is malformed or ends inside an object or array
+     */
+    public Token next() throws IOException {
+        int c = skipSeparators();
+        switch (c) {
+            case -1 -> {
+                if (depth > 0) {
+                    throw syntaxError("Unexpected end of input");
+                }
+                token = Token.END_DOCUMENT;
+            }
+            case '{' -> {
+                push(true);
+                expectName = true;
+                token = Token.BEGIN_OBJECT;
+            }
+            case '}' -> {
+                pop();
+                token = Token.END_OBJECT;
+            }
+            case '[' -> {
+                push(false);
+                expectName = false;
+                token = Token.BEGIN_ARRAY;
+            }
+            case ']' -> {
+                pop();
+                token = Token.END_ARRAY;
+            }
+            case '"' -> {
+                readString();
+                if (expectName) {
+                    expectName = false;
+                    token = Token.NAME;
+                } else {
+                    token = Token.STRING;
+                }
+            }
+            case 't' -> token = readLiteral("rue", Token.TRUE);
+            case 'f' -> token = readLiteral("alse", Token.FALSE);
+            case 'n' -> token = readLiteral("ull", Token.NULL);
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber((char) c);
+                    token = Token.NUMBER;
+                } else {
+                    throw syntaxError("Unexpected character '" + (char) c + "'");
+                }
+            }
+        }
+        return token;
+    }
+
+    /**
+     * The token last returned by next()
+     */
+    public Token token() {
+        return token;
+    }
+
+    /**
+     * Check the current name or string without creating a String
+     */
+    public boolean textEquals(String expected) {
+        if (text.length() != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The current name, string or number as a String
+     */
+    public String text() {
+        return text.toString();
+    }
+
+    /**
+     * The current name, string or number read as a double
+     * Plain decimals are converted in place; anything else goes through Double.parseDouble.
+     */
+    public double doubleValue() {
+        int length = text.length();
+        int i = 0;
+        boolean negative = length > 0 && text.charAt(0) == '-';
+        if (negative) {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.parseDouble(text.toString());
+            }
+        }
+        if (digits > 15 || scale >= POWERS_OF_TEN.length || length == (negative ? 1 : 0)) {
+            return Double.parseDouble(text.toString());
+        }
+
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * The current name or string read as an ISO date (yyyy-MM-dd) and returned as an epoch day
+     * @return The epoch day, or Long.MIN_VALUE if the text is not a date
+     */
+    public long epochDayValue() {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        int year = digitsAt(0, 4);
+        int month = digitsAt(5, 2);
+        int day = digitsAt(8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Skip the value that follows the current name, or the container just opened
+     * Call after NAME to skip its value, or after BEGIN_OBJECT/BEGIN_ARRAY to skip to the matching end.
+     */
+    public void skipValue() throws IOException {
+        int target = depth;
+        if (token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) {
+            target = depth - 1;
+        } else {
+            Token value = next();
+            if (value != Token.BEGIN_OBJECT && value != Token.BEGIN_ARRAY) {
+                return;
+            }
+        }
+        while (depth > target) {
+            next();
+        }
+    }
+
+    private int digitsAt(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private void push(boolean object) {
+        if (depth == inObject.length) {
+            boolean[] grown = new boolean[depth * 2];
+            System.arraycopy(inObject, 0, grown, 0, depth);
+            inObject = grown;
+        }
+        inObject[depth++] = object;
+    }
+
+    private void pop() throws IOException {
+        if (depth == 0) {
+            throw syntaxError("Unbalanced closing bracket");
+        }
+        depth--;
+    }
+
+    /**
+     * Skip whitespace, colons and commas; a comma inside an object means a name comes next
+     */
+    private int skipSeparators() throws IOException {
+        while (true) {
+            int c = read();
+            switch (c) {
+                case ' ', '\t', '\n', '\r', ':' -> {
+                }
+                case ',' -> expectName = depth > 0 && inObject[depth - 1];
+                default -> {
+                    return c;
+                }
+            }
+        }
+    }
+
+    private void readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            // Copy unescaped runs straight out of the buffer
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+                position++;
+            }
+            text.append(buffer, start, position - start);
+
+            int c = read();
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                text.append(readEscape());
+            } else if (c == -1) {
+                throw syntaxError("Unterminated string");
+            } else {
+                // The buffer ran out mid-run and read() refilled it; rescan from this char
+                position--;
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        return switch (c) {
+            case '"', '\\', '/' -> (char) c;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw syntaxError("Invalid unicode escape");
+                    }
+                    code = (code << 4) | digit;
+                }
+                yield (char) code;
+            }
+            default -> throw syntaxError("Invalid escape sequence");
+        };
+    }
+
+    private void readNumber(char first) throws IOException {
+        text.setLength(0);
+        text.append(first);
+        while (true) {
+            if (position == limit && !fill()) {
+                return;
+            }
+            char c = buffer[position];
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                text.append(c);
+                position++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private Token readLiteral(String rest, Token literal) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw syntaxError("Invalid literal");
+            }
+        }
+        return literal;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Malformed JSON: " + message);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.stockvisualiser.util;
+
+/**
+ * LttbDownsampler - Largest-Triangle-Three-Buckets downsampling of a time series
+ * Reduces a series to a point budget, usually the plot width in pixels, while keeping its visual
+ * shape. The points are split into equal buckets and from each bucket the point forming the largest
+ * triangle with the previously kept point and the average of the next bucket is kept. Peaks and
+ * troughs make large triangles, so they survive where taking every n-th point drops them.
+ * The first and last points are always kept. One pass over the data, no allocation besides the result.
+ */
+public final class LttbDownsampler {
+    private static final int MIN_THRESHOLD = 3;
+
+    private LttbDownsampler() {
+    }
+
+    /**
+     * Indices of the points to keep for a whole series
+     * @see #selectIndices(double[], double[], int, int, int)
+     */
+    public static int[] selectIndices(double[] x, double[] y, int threshold) {
+        return selectIndices(x, y, 0, x.length, threshold);
+    }
+
+    /**
+     * Indices of the points to keep for part of a series
+     * @param x Ascending x values, e.g. epoch days or milliseconds
+     * @param from First index of the range, inclusive
+     * @param to End of the range, exclusive
+     * @param threshold Number of points wanted; values below 3 are treated as 3
+     * @return Ascending indices into x and y; every index in the range if it already fits the budget
+     */
+    public static int[] selectIndices(double[] x, double[] y, int from, int to, int threshold) {
+        int length = to - from;
+        threshold = Math.max(threshold, MIN_THRESHOLD);
+        if (length <= threshold) {
+            int[] all = new int[Math.max(length, 0)];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = from + i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        // Buckets between the fixed first and last points
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int kept = from;
+        selected[0] = from;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket, the third corner of the triangle
+            int nextStart = from + (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min(from + (int) ((bucket + 2) * bucketSize) + 1, to);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            // Point of this bucket with the largest triangle; the constant factor 1/2 is left out
+            int start = from + (int) (bucket * bucketSize) + 1;
+            int end = from + (int) ((bucket + 1) * bucketSize) + 1;
+            double keptX = x[kept];
+            double keptY = y[kept];
+            double largestArea = -1;
+            int largest = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((keptX - averageX) * (y[i] - keptY) - (keptX - x[i]) * (averageY - keptY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    largest = i;
+                }
+            }
+            selected[bucket + 1] = largest;
+            kept = largest;
+        }
+
+        selected[threshold - 1] = to - 1;
+        return selected;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.stockvisualiser.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight - Shares one in-flight call among concurrent callers asking for the same key
+ * The first caller starts the call; anyone asking for the key before it completes gets the same
+ * result instead of starting their own. Once it completes the key is free again, so results are
+ * never cached here.
+ */
+public final class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+
+    /**
+     * Run the call for a key, or join the one already running
+     * @param call Starts the call; only invoked if none is in flight for the key
+     * @return A future of the shared result; completing it does not affect other callers
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            joined.increment();
+            return existing.copy();
+        }
+
+        started.increment();
+        try {
+            call.get().whenComplete((value, error) -> {
+                // Free the key first so a caller arriving after completion starts a fresh call
+                inFlight.remove(key, flight);
+                if (error != null) {
+                    flight.completeExceptionally(error);
+                } else {
+                    flight.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        return flight.copy();
+    }
+
+    /**
+     * Number of calls actually started
+     */
+    public long getStarted() {
+        return started.sum();
+    }
+
+    /**
+     * Number of callers that joined a call already in flight instead of starting one
+     */
+    public long getJoined() {
+        return joined.sum();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.stockvisualiser.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TimedLruCache - Bounded in-memory cache whose entries each expire at their own time
+ * When full, the least recently used entry is evicted, skipping pinned keys. Pinned entries still
+ * expire; pinning only keeps them from being pushed out by other keys. Safe for concurrent use.
+ */
+public final class TimedLruCache<K, V> {
+
+    /**
+     * Counters since the cache was created
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final int size;
+
+        private Stats(long hits, long misses, long evictions, long expirations, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.size = size;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        /** Entries pushed out to make room */
+        public long getEvictions() { return evictions; }
+        /** Entries dropped because their time was up */
+        public long getExpirations() { return expirations; }
+        public int getSize() { return size; }
+
+        /** Share of lookups served from the cache, between 0 and 1 */
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d entries, %d hits / %d misses (%.0f%%), %d evicted, %d expired",
+                size, hits, misses, getHitRatio() * 100, evictions, expirations);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    // Access order: iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private Set<K> pinned = Set.of();
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * @param maxEntries Number of entries kept before the least recently used one is evicted
+     */
+    public TimedLruCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get a value that has not expired yet
+     * @return The value, or null if absent or expired
+     */
+    public synchronized V get(K key, long nowMillis) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= nowMillis) {
+            entries.remove(key);
+            expirations++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Store a value until the given time, evicting least recently used entries if the cache is full
+     * @param expiresAt Epoch milliseconds after which the value is no longer returned
+     */
+    public synchronized void put(K key, V value, long expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            K candidate = eldest.next().getKey();
+            if (!candidate.equals(key) && !pinned.contains(candidate)) {
+                eldest.remove();
+                evictions++;
+            }
+        }
+    }
+
+    /**
+     * Replace the set of keys that are never evicted to make room
+     * If more keys are pinned than the cache holds, it grows past its bound rather than evict them.
+     */
+    public synchronized void setPinned(Collection<? extends K> keys) {
+        pinned = new HashSet<>(keys);
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, expirations, entries.size());
+    }
+}
@@ -5,6 +5,7 @@ module com.example.stockvisualiser {
     requires transitive javafx.graphics;
     requires transitive javafx.base;
     requires transitive java.sql;
+    requires java.net.http;
     requires jbcrypt;
 
     requires org.controlsfx.controls;
@@ -20,9 +21,11 @@ module com.example.stockvisualiser {
     opens com.example.stockvisualiser.model to javafx.base;
     
     exports com.example.stockvisualiser;
+    exports com.example.stockvisualiser.chart;
     exports com.example.stockvisualiser.controller;
     exports com.example.stockvisualiser.model;
     exports com.example.stockvisualiser.database;
+    exports com.example.stockvisualiser.market;
     exports com.example.stockvisualiser.service;
     exports com.example.stockvisualiser.util;
 }
\ No newline at end of file
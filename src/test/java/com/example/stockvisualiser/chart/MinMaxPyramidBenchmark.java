@@ -0,0 +1,65 @@
+package com.example.stockvisualiser.chart;
+
+import com.example.stockvisualiser.util.LttbDownsampler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MinMaxPyramidBenchmark - Point selection per PriceChart redraw, with and without the pyramid
+ * For a series zoomed out to all of it, compares LTTB over every visible point, as drawPlot did,
+ * with LTTB over the pyramid's candidates, as it does now. Also reports the one-off pyramid build.
+ * Run with: mvn test -Dgroups=benchmark -Dtest.excludedGroups=
+ */
+@Tag("benchmark")
+class MinMaxPyramidBenchmark {
+    // Plot width in pixels
+    private static final int BUDGET = 1_200;
+
+    @Test
+    void fullViewRedraw() {
+        for (int length : new int[] {100_000, 1_000_000, 5_000_000}) {
+            double[] times = new double[length];
+            for (int i = 0; i < length; i++) {
+                times[i] = i * 60_000.0;
+            }
+            double[] values = MinMaxPyramidTest.randomWalk(length, 5);
+
+            long start = System.nanoTime();
+            MinMaxPyramid pyramid = new MinMaxPyramid(values);
+            double buildMillis = (System.nanoTime() - start) / 1e6;
+
+            for (int i = 0; i < 20; i++) {
+                LttbDownsampler.selectIndices(times, values, 0, length, BUDGET);
+                pyramidSelect(pyramid, times, values, length);
+            }
+            int rounds = 20;
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                LttbDownsampler.selectIndices(times, values, 0, length, BUDGET);
+            }
+            double lttbMillis = (System.nanoTime() - start) / 1e6 / rounds;
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                pyramidSelect(pyramid, times, values, length);
+            }
+            double pyramidMillis = (System.nanoTime() - start) / 1e6 / rounds;
+
+            System.out.printf("%,10d points -> %d: LTTB over all %7.3f ms, pyramid + LTTB %6.3f ms (build once %6.1f ms)%n",
+                length, BUDGET, lttbMillis, pyramidMillis, buildMillis);
+            assertTrue(pyramidMillis < lttbMillis, length + " points: pyramid " + pyramidMillis + " ms, LTTB " + lttbMillis + " ms");
+        }
+    }
+
+    private static int[] pyramidSelect(MinMaxPyramid pyramid, double[] times, double[] values, int length) {
+        int[] candidates = pyramid.candidates(0, length, BUDGET);
+        double[] candidateTimes = new double[candidates.length];
+        double[] candidateValues = new double[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            candidateTimes[i] = times[candidates[i]];
+            candidateValues[i] = values[candidates[i]];
+        }
+        return LttbDownsampler.selectIndices(candidateTimes, candidateValues, BUDGET);
+    }
+}
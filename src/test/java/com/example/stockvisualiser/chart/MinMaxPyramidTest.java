@@ -0,0 +1,90 @@
+package com.example.stockvisualiser.chart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MinMaxPyramidTest - Which points of a range the pyramid hands to the chart
+ */
+class MinMaxPyramidTest {
+
+    @Test
+    void returnsEveryIndexWhenTheRangeFits() {
+        MinMaxPyramid pyramid = new MinMaxPyramid(randomWalk(10_000, 1));
+
+        assertArrayEquals(range(10, 50), pyramid.candidates(10, 50, 100));
+        assertArrayEquals(range(0, 400), pyramid.candidates(0, 400, 100));
+        assertArrayEquals(new int[] {7}, pyramid.candidates(7, 8, 100));
+        assertArrayEquals(new int[0], pyramid.candidates(5, 5, 100));
+    }
+
+    @Test
+    void handlesSeriesShorterThanOneBucket() {
+        MinMaxPyramid pyramid = new MinMaxPyramid(randomWalk(5, 2));
+
+        assertArrayEquals(range(0, 5), pyramid.candidates(0, 5, 1));
+        assertArrayEquals(new int[0], new MinMaxPyramid(new double[0]).candidates(0, 0, 100));
+    }
+
+    @Test
+    void keepsTheExtremesOfAnyRange() {
+        int length = 1_000_003;
+        double[] values = randomWalk(length, 3);
+        values[333_333] *= 1.2;
+        values[777_777] *= 0.8;
+        MinMaxPyramid pyramid = new MinMaxPyramid(values);
+        SplittableRandom random = new SplittableRandom(4);
+
+        for (int round = 0; round < 200; round++) {
+            int from = random.nextInt(length);
+            int to = from + 1 + random.nextInt(length - from);
+            int budget = 1 + random.nextInt(2_000);
+
+            int[] candidates = pyramid.candidates(from, to, budget);
+
+            assertEquals(from, candidates[0]);
+            assertEquals(to - 1, candidates[candidates.length - 1]);
+            assertTrue(candidates.length <= 4 * budget + 64, candidates.length + " candidates for a budget of " + budget);
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < candidates.length; i++) {
+                assertTrue(i == 0 || candidates[i] > candidates[i - 1], "indices not ascending at " + i);
+                min = Math.min(min, values[candidates[i]]);
+                max = Math.max(max, values[candidates[i]]);
+            }
+            double expectedMin = Double.POSITIVE_INFINITY;
+            double expectedMax = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                expectedMin = Math.min(expectedMin, values[i]);
+                expectedMax = Math.max(expectedMax, values[i]);
+            }
+            assertEquals(expectedMin, min, "minimum of [" + from + ", " + to + ")");
+            assertEquals(expectedMax, max, "maximum of [" + from + ", " + to + ")");
+        }
+    }
+
+    private static int[] range(int from, int to) {
+        int[] indices = new int[to - from];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = from + i;
+        }
+        return indices;
+    }
+
+    /** Prices moving about 0.05% per step, like a quiet trading day */
+    static double[] randomWalk(int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] values = new double[length];
+        double price = 100;
+        for (int i = 0; i < length; i++) {
+            price *= Math.exp(0.0005 * random.nextGaussian());
+            values[i] = price;
+        }
+        return values;
+    }
+}
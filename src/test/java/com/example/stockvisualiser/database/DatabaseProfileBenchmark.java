@@ -0,0 +1,136 @@
+package com.example.stockvisualiser.database;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DatabaseProfileBenchmark - Mixed read/write throughput of the pragma profiles
+ * One writer commits single-row price updates while READERS threads page through the stock list,
+ * against a file database opened with the old defaults (rollback journal, no pragmas) and with the
+ * durable and fast presets. Run with: mvn test -Dgroups=benchmark -Dtest.excludedGroups=
+ */
+@Tag("benchmark")
+class DatabaseProfileBenchmark {
+    private static final long MILLIS = Long.getLong("stockvisualiser.bench.millis", 3000);
+    private static final int READERS = 4;
+    private static final int STOCKS = 1000;
+
+    /** Settings before profiles existed; busy_timeout added so readers wait instead of failing */
+    private static final DatabaseProfile ROLLBACK = new DatabaseProfile(
+        "rollback", DatabaseProfile.JournalMode.DELETE, DatabaseProfile.Synchronous.FULL, 2000, 0,
+        DatabaseProfile.TempStore.DEFAULT, 5000, false
+    );
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mixedReadWriteThroughput() throws Exception {
+        Throughput rollback = run(ROLLBACK);
+        Throughput durable = run(DatabaseProfile.DURABLE);
+        Throughput fast = run(DatabaseProfile.FAST);
+        System.out.println("rollback: " + rollback);
+        System.out.println("durable:  " + durable);
+        System.out.println("fast:     " + fast);
+
+        // WAL lets readers run next to the writer, which the rollback journal cannot
+        assertTrue(durable.reads > rollback.reads, "durable reads " + durable.reads + " vs rollback " + rollback.reads);
+        assertTrue(fast.reads > rollback.reads, "fast reads " + fast.reads + " vs rollback " + rollback.reads);
+    }
+
+    private Throughput run(DatabaseProfile profile) throws Exception {
+        String url = "jdbc:sqlite:" + directory.resolve(profile.getName() + ".db");
+        ConnectionPool pool = new ConnectionPool(url, profile, READERS, 10_000, 16);
+        try {
+            try (ConnectionLease lease = pool.acquireWriter()) {
+                new SchemaMigrator(SchemaMigrations.all()).migrate(lease.getConnection());
+                lease.getConnection().setAutoCommit(false);
+                for (int i = 0; i < STOCKS; i++) {
+                    String symbol = "S" + i;
+                    lease.update("INSERT INTO stocks (symbol, company_name, sector, current_price, last_updated) "
+                        + "VALUES (?, ?, 'Tech', 10.0, 0)", pstmt -> {
+                            pstmt.setString(1, symbol);
+                            pstmt.setString(2, symbol + " Inc");
+                        });
+                }
+                lease.getConnection().commit();
+            }
+
+            LongAdder reads = new LongAdder();
+            LongAdder writes = new LongAdder();
+            AtomicReference<SQLException> failure = new AtomicReference<>();
+            long deadline = System.nanoTime() + MILLIS * 1_000_000;
+            List<Thread> threads = new ArrayList<>();
+
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        int stockId = 1 + ThreadLocalRandom.current().nextInt(STOCKS);
+                        double price = 10 + ThreadLocalRandom.current().nextDouble();
+                        try (ConnectionLease lease = pool.acquireWriter()) {
+                            lease.update("UPDATE stocks SET current_price = ?, last_updated = ? WHERE stock_id = ?", pstmt -> {
+                                pstmt.setDouble(1, price);
+                                pstmt.setLong(2, System.currentTimeMillis());
+                                pstmt.setInt(3, stockId);
+                            });
+                        }
+                        writes.increment();
+                    }
+                } catch (SQLException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+            for (int r = 0; r < READERS; r++) {
+                threads.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            int offset = ThreadLocalRandom.current().nextInt(STOCKS - 50);
+                            try (ConnectionLease lease = pool.acquireReader()) {
+                                lease.query("SELECT stock_id, symbol, current_price FROM stocks ORDER BY symbol LIMIT 50 OFFSET ?",
+                                    pstmt -> pstmt.setInt(1, offset), rs -> rs.getDouble(3));
+                            }
+                            reads.increment();
+                        }
+                    } catch (SQLException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertNull(failure.get(), () -> profile.getName() + " failed: " + failure.get());
+            return new Throughput(reads.sum(), writes.sum());
+        } finally {
+            pool.close();
+        }
+    }
+
+    private static final class Throughput {
+        private final long reads;
+        private final long writes;
+
+        private Throughput(long reads, long writes) {
+            this.reads = reads;
+            this.writes = writes;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = MILLIS / 1000.0;
+            return String.format("%8.0f reads/s, %6.0f writes/s", reads / seconds, writes / seconds);
+        }
+    }
+}
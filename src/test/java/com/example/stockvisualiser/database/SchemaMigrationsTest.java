@@ -0,0 +1,61 @@
+package com.example.stockvisualiser.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * SchemaMigrationsTest - The v3 table rebuild keeps AUTOINCREMENT counters
+ */
+class SchemaMigrationsTest {
+
+    @Test
+    void rebuildKeepsCounterPastDeletedIds() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+             Statement stmt = connection.createStatement()) {
+            new SchemaMigrator(SchemaMigrations.all().subList(0, 2)).migrate(connection);
+            for (int i = 1; i <= 5; i++) {
+                stmt.execute("INSERT INTO stocks (symbol, company_name, sector, current_price, last_updated) "
+                    + "VALUES ('S" + i + "', 'Company', 'Tech', 10.0, '2024-01-02T10:00:00')");
+            }
+            stmt.execute("DELETE FROM stocks WHERE stock_id IN (4, 5)");
+
+            new SchemaMigrator(SchemaMigrations.all()).migrate(connection);
+
+            stmt.execute("INSERT INTO stocks (symbol, company_name, sector, current_price, last_updated) "
+                + "VALUES ('NEW', 'Company', 'Tech', 10.0, 0)");
+            assertEquals(6, stockId(stmt, "NEW"));
+        }
+    }
+
+    @Test
+    void rebuildKeepsCounterOfEmptiedTable() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+             Statement stmt = connection.createStatement()) {
+            new SchemaMigrator(SchemaMigrations.all().subList(0, 2)).migrate(connection);
+            for (int i = 1; i <= 3; i++) {
+                stmt.execute("INSERT INTO stocks (symbol, company_name, sector, current_price, last_updated) "
+                    + "VALUES ('S" + i + "', 'Company', 'Tech', 10.0, '2024-01-02T10:00:00')");
+            }
+            stmt.execute("DELETE FROM stocks");
+
+            new SchemaMigrator(SchemaMigrations.all()).migrate(connection);
+
+            stmt.execute("INSERT INTO stocks (symbol, company_name, sector, current_price, last_updated) "
+                + "VALUES ('NEW', 'Company', 'Tech', 10.0, 0)");
+            assertEquals(4, stockId(stmt, "NEW"));
+        }
+    }
+
+    private static int stockId(Statement stmt, String symbol) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT stock_id FROM stocks WHERE symbol = '" + symbol + "'")) {
+            return rs.getInt(1);
+        }
+    }
+}
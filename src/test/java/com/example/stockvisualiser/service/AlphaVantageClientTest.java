@@ -0,0 +1,249 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.model.PriceBar;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AlphaVantageClientTest - The shared client against a local com.sun.net.httpserver stand-in
+ * The stand-in serves a 100-day TIME_SERIES_DAILY body, gzip-compressed when the request accepts it.
+ * It only speaks HTTP/1.1, so HTTP/2 is checked as the h2c upgrade the client asks for, and
+ * keep-alive as the number of client ports the server sees. The client only offers the upgrade until
+ * the server turns it down, and the concurrent fetches leave many idle connections behind, so the
+ * connection test runs first.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AlphaVantageClientTest {
+    private static final int BARS = 100;
+    private static final int CONCURRENT = 200;
+    private static final long HANDLER_DELAY_MS = 20;
+    private static final long REQUEST_TIMEOUT_MS = 1000;
+
+    private static final byte[] DAILY = dailySeries().getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DAILY_GZIP = gzip(DAILY);
+
+    private static HttpServer server;
+    private static AlphaVantageClient client;
+
+    private static final Set<InetSocketAddress> clientPorts = ConcurrentHashMap.newKeySet();
+    private static final Set<String> acceptEncodings = ConcurrentHashMap.newKeySet();
+    private static final Set<String> upgrades = ConcurrentHashMap.newKeySet();
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/query", AlphaVantageClientTest::handle);
+        server.start();
+
+        // Read once, when AlphaVantageClient is loaded below
+        System.setProperty("stockvisualiser.api.baseUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/query");
+        System.setProperty("stockvisualiser.http.requestTimeoutMs", String.valueOf(REQUEST_TIMEOUT_MS));
+        client = new AlphaVantageClient();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void resetRequests() {
+        clientPorts.clear();
+        acceptEncodings.clear();
+    }
+
+    @Test
+    @Order(2)
+    void decodesGzipResponses() throws IOException {
+        List<PriceBar> bars = client.query(daily("IBM"), ApiRequestScheduler.Priority.INTERACTIVE,
+            AlphaVantageParser::parseDailyBars);
+
+        assertEquals(Set.of("gzip"), acceptEncodings);
+        assertEquals(BARS, bars.size());
+        assertEquals(10.5, bars.get(BARS - 1).getClose());
+        assertTrue(DAILY_GZIP.length < DAILY.length / 4, "stand-in payload should compress well");
+    }
+
+    @Test
+    @Order(1)
+    void asksForHttp2AndReusesOneConnection() throws IOException {
+        for (int i = 0; i < 20; i++) {
+            client.query(daily("IBM"), ApiRequestScheduler.Priority.INTERACTIVE, body -> body.transferTo(Writer.nullWriter()));
+        }
+
+        assertEquals(Set.of("h2c"), upgrades);
+        assertEquals(1, clientPorts.size(), "sequential requests should share a kept-alive connection");
+    }
+
+    @Test
+    @Order(3)
+    void timesOutSlowResponses() {
+        long start = System.nanoTime();
+        IOException failure = assertThrows(IOException.class, () -> client.query(Map.of("function", "SLOW"),
+            ApiRequestScheduler.Priority.INTERACTIVE, body -> body.transferTo(Writer.nullWriter())));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertInstanceOf(HttpTimeoutException.class, failure);
+        assertTrue(elapsedMs < REQUEST_TIMEOUT_MS * 3, "timed out after " + elapsedMs + " ms");
+    }
+
+    @Test
+    @Order(4)
+    void parsesWhileTheBodyIsStillArriving() throws IOException {
+        CountDownLatch parsing = new CountDownLatch(1);
+        StreamingHandler.parsing = parsing;
+
+        List<PriceBar> bars = client.query(Map.of("function", "STREAM"), ApiRequestScheduler.Priority.INTERACTIVE,
+            body -> AlphaVantageParser.parseDailyBars(new FilterReader(body) {
+                @Override
+                public int read(char[] buffer, int offset, int length) throws IOException {
+                    int read = super.read(buffer, offset, length);
+                    parsing.countDown();
+                    return read;
+                }
+            }));
+
+        assertTrue(StreamingHandler.sawParserBeforeSecondHalf, "parser only started once the whole body was in");
+        assertEquals(BARS, bars.size());
+    }
+
+    @Test
+    @Order(5)
+    void fetchesManySymbolsConcurrently() {
+        long start = System.nanoTime();
+        List<CompletableFuture<List<PriceBar>>> fetches = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT; i++) {
+            fetches.add(client.queryAsync(daily("S" + i), ApiRequestScheduler.Priority.INTERACTIVE,
+                AlphaVantageParser::parseDailyBars));
+        }
+        for (CompletableFuture<List<PriceBar>> fetch : fetches) {
+            assertEquals(BARS, fetch.join().size());
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%d concurrent fetches in %d ms (%.0f req/s) over %d connections%n",
+            CONCURRENT, elapsedMs, CONCURRENT * 1000.0 / Math.max(elapsedMs, 1), clientPorts.size());
+        // One at a time would take CONCURRENT * HANDLER_DELAY_MS
+        assertTrue(elapsedMs < CONCURRENT * HANDLER_DELAY_MS / 2, "took " + elapsedMs + " ms");
+    }
+
+    private static Map<String, String> daily(String symbol) {
+        return Map.of("function", "TIME_SERIES_DAILY", "symbol", symbol);
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress());
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null) {
+            acceptEncodings.add(acceptEncoding);
+        }
+        String upgrade = exchange.getRequestHeaders().getFirst("Upgrade");
+        if (upgrade != null) {
+            upgrades.add(upgrade);
+        }
+
+        String query = exchange.getRequestURI().getQuery();
+        try {
+            if (query.contains("function=SLOW")) {
+                Thread.sleep(REQUEST_TIMEOUT_MS * 5);
+            } else if (query.contains("function=STREAM")) {
+                StreamingHandler.handle(exchange);
+                return;
+            } else {
+                Thread.sleep(HANDLER_DELAY_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        byte[] body = gzip ? DAILY_GZIP : DAILY;
+        if (gzip) {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Sends the first half of the body, then holds back the rest until the client's parser has read
+     */
+    private static final class StreamingHandler {
+        static volatile CountDownLatch parsing;
+        static volatile boolean sawParserBeforeSecondHalf;
+
+        static void handle(HttpExchange exchange) throws IOException {
+            sawParserBeforeSecondHalf = false;
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                int half = DAILY.length / 2;
+                out.write(DAILY, 0, half);
+                out.flush();
+                sawParserBeforeSecondHalf = parsing.await(5, TimeUnit.SECONDS);
+                out.write(DAILY, half, DAILY.length - half);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String dailySeries() {
+        StringBuilder json = new StringBuilder("{\"Meta Data\": {\"2. Symbol\": \"IBM\"}, \"Time Series (Daily)\": {");
+        LocalDate day = LocalDate.of(2026, 10, 15);
+        for (int i = 0; i < BARS; i++, day = day.minusDays(1)) {
+            if (i > 0) {
+                json.append(", ");
+            }
+            json.append('"').append(day).append("\": {\"1. open\": \"10.0000\", \"2. high\": \"11.0000\", ")
+                .append("\"3. low\": \"9.0000\", \"4. close\": \"10.5000\", \"5. volume\": \"1000\"}");
+        }
+        return json.append("}}").toString();
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.model.PriceBar;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AlphaVantageParserBenchmark - Streaming daily-series parser against the regex parser it replaced
+ * Parses a compact (100 bars) and a 20-year outputsize=full (5200 bars) payload both ways, checks
+ * they agree, and reports the time per parse. The regex path first collects the body into a String,
+ * as StockDataService did; the streaming path reads it as it comes.
+ * Run with: mvn test -Dgroups=benchmark -Dtest.excludedGroups=
+ */
+@Tag("benchmark")
+class AlphaVantageParserBenchmark {
+
+    // The parser before AlphaVantageParser, kept here as the baseline
+    private static final Pattern DAY_PATTERN =
+        Pattern.compile("\"(\\d{4}-\\d{2}-\\d{2})\":\\s*\\{([^}]*)\\}");
+    private static final Pattern FIELD_PATTERN =
+        Pattern.compile("\"\\d\\. (open|high|low|close|volume)\":\\s*\"([0-9.]+)\"");
+
+    @Test
+    void compactPayload() throws IOException {
+        compare("compact", AlphaVantageParserTest.dailySeries(100, 1), 2_000);
+    }
+
+    @Test
+    void fullTwentyYearPayload() throws IOException {
+        compare("full", AlphaVantageParserTest.dailySeries(5_200, 2), 100);
+    }
+
+    private static void compare(String name, String body, int rounds) throws IOException {
+        List<PriceBar> regex = regexDailyBars(new StringReader(body));
+        List<PriceBar> streaming = AlphaVantageParser.parseDailyBars(new StringReader(body));
+        assertEquals(regex.size(), streaming.size());
+        for (int i = 0; i < regex.size(); i++) {
+            assertEquals(regex.get(i).getEpochDay(), streaming.get(i).getEpochDay());
+            assertEquals(regex.get(i).getClose(), streaming.get(i).getClose());
+            assertEquals(regex.get(i).getVolume(), streaming.get(i).getVolume());
+        }
+
+        for (int i = 0; i < rounds; i++) {
+            regexDailyBars(new StringReader(body));
+            AlphaVantageParser.parseDailyBars(new StringReader(body));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            regexDailyBars(new StringReader(body));
+        }
+        double regexMicros = (System.nanoTime() - start) / 1000.0 / rounds;
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            AlphaVantageParser.parseDailyBars(new StringReader(body));
+        }
+        double streamingMicros = (System.nanoTime() - start) / 1000.0 / rounds;
+
+        System.out.printf("%-7s %5d bars, %,9d chars: regex %8.0f us, streaming %7.0f us (%.1fx)%n",
+            name, streaming.size(), body.length(), regexMicros, streamingMicros, regexMicros / streamingMicros);
+        assertTrue(streamingMicros < regexMicros, name + ": streaming " + streamingMicros + " us, regex " + regexMicros + " us");
+    }
+
+    private static List<PriceBar> regexDailyBars(Reader body) throws IOException {
+        StringWriter collected = new StringWriter();
+        body.transferTo(collected);
+        String json = collected.toString();
+
+        int timeSeriesIndex = json.indexOf("\"Time Series (Daily)\"");
+        if (timeSeriesIndex == -1) {
+            return null;
+        }
+        List<PriceBar> bars = new ArrayList<>();
+        Matcher dayMatcher = DAY_PATTERN.matcher(json);
+        dayMatcher.region(timeSeriesIndex, json.length());
+        while (dayMatcher.find()) {
+            double open = 0, high = 0, low = 0, close = -1;
+            long volume = 0;
+            Matcher fieldMatcher = FIELD_PATTERN.matcher(dayMatcher.group(2));
+            while (fieldMatcher.find()) {
+                String value = fieldMatcher.group(2);
+                switch (fieldMatcher.group(1)) {
+                    case "open" -> open = Double.parseDouble(value);
+                    case "high" -> high = Double.parseDouble(value);
+                    case "low" -> low = Double.parseDouble(value);
+                    case "close" -> close = Double.parseDouble(value);
+                    default -> volume = (long) Double.parseDouble(value);
+                }
+            }
+            if (close >= 0) {
+                bars.add(new PriceBar(LocalDate.parse(dayMatcher.group(1)).toEpochDay(), open, high, low, close, volume));
+            }
+        }
+        bars.sort(Comparator.comparingLong(PriceBar::getEpochDay));
+        return bars;
+    }
+}
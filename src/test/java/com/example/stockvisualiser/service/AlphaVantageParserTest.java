@@ -0,0 +1,172 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.model.ApiStockResult;
+import com.example.stockvisualiser.model.PriceBar;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AlphaVantageParserTest - Streaming parsers on Alpha Vantage response bodies
+ */
+class AlphaVantageParserTest {
+
+    @Test
+    void returnsDailyBarsOldestFirst() throws IOException {
+        List<PriceBar> bars = AlphaVantageParser.parseDailyBars(new StringReader(dailySeries(100, 1)));
+
+        assertEquals(100, bars.size());
+        for (int i = 1; i < bars.size(); i++) {
+            assertTrue(bars.get(i - 1).getEpochDay() < bars.get(i).getEpochDay(), "bars out of order at " + i);
+        }
+        assertEquals(LocalDate.of(2026, 10, 15).toEpochDay(), bars.get(99).getEpochDay());
+    }
+
+    @Test
+    void readsEveryField() throws IOException {
+        String body = """
+            {"Time Series (Daily)": {"2026-10-15": {"1. open": "10.5000", "2. high": "12.2500", "3. low": "9.7500",
+              "4. close": "11.0000", "5. volume": "123456"}}}""";
+
+        PriceBar bar = AlphaVantageParser.parseDailyBars(new StringReader(body)).get(0);
+
+        assertEquals(10.5, bar.getOpen());
+        assertEquals(12.25, bar.getHigh());
+        assertEquals(9.75, bar.getLow());
+        assertEquals(11.0, bar.getClose());
+        assertEquals(123456, bar.getVolume());
+    }
+
+    @Test
+    void decodesEscapedNamesInSearchResults() throws IOException {
+        String body = """
+            {"bestMatches": [
+              {"1. symbol": "BRK-B", "2. name": "Berkshire \\"Class B\\" \\u00c9tats\\/Unis", "3. type": "Equity", "4. region": "United States"},
+              {"1. symbol": "TSCO.LON", "2. name": "Tesco\\\\PLC", "4. region": "United Kingdom"}
+            ]}""";
+
+        List<ApiStockResult> results = AlphaVantageParser.parseSearchResults(new StringReader(body));
+
+        assertEquals(2, results.size());
+        assertEquals("Berkshire \"Class B\" États/Unis", results.get(0).getName());
+        assertEquals("Tesco\\PLC", results.get(1).getName());
+        assertEquals("Equity", results.get(1).getType());
+    }
+
+    @Test
+    void noticeBodiesYieldNoResult() throws IOException {
+        for (String notice : new String[] {"Note", "Information", "Error Message"}) {
+            String body = "{\"" + notice + "\": \"Thank you for using Alpha Vantage! Our standard API rate limit is 25 requests per day.\"}";
+
+            assertNull(AlphaVantageParser.parseDailyBars(new StringReader(body)), notice);
+            assertTrue(AlphaVantageParser.parseSearchResults(new StringReader(body)).isEmpty(), notice);
+            assertNull(AlphaVantageParser.parseGlobalQuote(new StringReader(body), 0), notice);
+        }
+    }
+
+    @Test
+    void truncatedBodyThrows() {
+        String body = dailySeries(100, 2);
+        String truncated = body.substring(0, body.length() / 2);
+
+        assertThrows(IOException.class, () -> AlphaVantageParser.parseDailyBars(new StringReader(truncated)));
+        assertThrows(IOException.class, () -> AlphaVantageParser.parseSearchResults(
+            new StringReader("{\"bestMatches\": [{\"1. symbol\": \"IBM\", \"2. name\": \"Intern")));
+    }
+
+    @Test
+    void sameBarsWhenTheReaderReturnsFewCharsPerCall() throws IOException {
+        String body = dailySeries(300, 3);
+        List<PriceBar> expected = AlphaVantageParser.parseDailyBars(new StringReader(body));
+
+        List<PriceBar> trickled = AlphaVantageParser.parseDailyBars(new TrickleReader(body, 7));
+
+        assertEquals(expected.size(), trickled.size());
+        for (int i = 0; i < expected.size(); i++) {
+            PriceBar a = expected.get(i);
+            PriceBar b = trickled.get(i);
+            assertEquals(a.getEpochDay(), b.getEpochDay());
+            assertEquals(a.getOpen(), b.getOpen());
+            assertEquals(a.getHigh(), b.getHigh());
+            assertEquals(a.getLow(), b.getLow());
+            assertEquals(a.getClose(), b.getClose());
+            assertEquals(a.getVolume(), b.getVolume());
+        }
+    }
+
+    /**
+     * A TIME_SERIES_DAILY body as the API sends it: indented, newest day first, weekends left out
+     */
+    static String dailySeries(int bars, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder json = new StringBuilder(bars * 200 + 400);
+        json.append("{\n    \"Meta Data\": {\n")
+            .append("        \"1. Information\": \"Daily Prices (open, high, low, close) and Volumes\",\n")
+            .append("        \"2. Symbol\": \"IBM\",\n")
+            .append("        \"3. Last Refreshed\": \"2026-10-15\",\n")
+            .append("        \"4. Output Size\": \"").append(bars > 100 ? "Full size" : "Compact").append("\",\n")
+            .append("        \"5. Time Zone\": \"US/Eastern\"\n    },\n")
+            .append("    \"Time Series (Daily)\": {\n");
+        LocalDate day = LocalDate.of(2026, 10, 15);
+        double close = 150;
+        for (int i = 0; i < bars; i++) {
+            if (i > 0) {
+                json.append(",\n");
+            }
+            double open = close * (1 + 0.01 * random.nextGaussian());
+            double high = Math.max(open, close) * (1 + 0.005 * random.nextDouble());
+            double low = Math.min(open, close) * (1 - 0.005 * random.nextDouble());
+            json.append("        \"").append(day).append("\": {\n")
+                .append("            \"1. open\": \"").append(String.format(Locale.ROOT, "%.4f", open)).append("\",\n")
+                .append("            \"2. high\": \"").append(String.format(Locale.ROOT, "%.4f", high)).append("\",\n")
+                .append("            \"3. low\": \"").append(String.format(Locale.ROOT, "%.4f", low)).append("\",\n")
+                .append("            \"4. close\": \"").append(String.format(Locale.ROOT, "%.4f", close)).append("\",\n")
+                .append("            \"5. volume\": \"").append(1_000_000 + random.nextInt(9_000_000)).append("\"\n")
+                .append("        }");
+            close = open;
+            day = day.minusDays(day.getDayOfWeek().getValue() == 1 ? 3 : 1);
+        }
+        return json.append("\n    }\n}").toString();
+    }
+
+    /**
+     * Hands out 1 to maxChars characters per read, like a slow network stream
+     */
+    static final class TrickleReader extends Reader {
+        private final String text;
+        private final int maxChars;
+        private final SplittableRandom random = new SplittableRandom(7);
+        private int position;
+
+        TrickleReader(String text, int maxChars) {
+            this.text = text;
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == text.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(length, 1 + random.nextInt(maxChars)), text.length() - position);
+            text.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.stockvisualiser.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PriceHistorySyncTest - Which series size a sync asks for
+ */
+class PriceHistorySyncTest {
+    // Thursday 2026-10-15, 18:00 New York time: the last close is that day
+    private static final long NOW = LocalDate.of(2026, 10, 15).atTime(18, 0)
+        .atZone(ZoneId.of("America/New_York")).toInstant().toEpochMilli();
+    private static final long LAST_CLOSE_DAY = LocalDate.of(2026, 10, 15).toEpochDay();
+
+    @Test
+    void firstSyncAsksForTheFullSeries() {
+        assertTrue(PriceHistorySync.needsFullSeries(null, NOW));
+    }
+
+    @Test
+    void recentStoreAsksForTheCompactSeries() {
+        assertFalse(PriceHistorySync.needsFullSeries(LAST_CLOSE_DAY - 1, NOW));
+        assertFalse(PriceHistorySync.needsFullSeries(LAST_CLOSE_DAY - 139, NOW));
+    }
+
+    @Test
+    void gapBeyondTheCompactSeriesAsksForTheFullSeries() {
+        assertTrue(PriceHistorySync.needsFullSeries(LAST_CLOSE_DAY - 140, NOW));
+        assertTrue(PriceHistorySync.needsFullSeries(LAST_CLOSE_DAY - 400, NOW));
+    }
+}
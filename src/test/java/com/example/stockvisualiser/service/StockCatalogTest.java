@@ -0,0 +1,87 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.model.Stock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * StockCatalogTest - Snapshots after price changes, inserts and deletes
+ * Works on the catalog of the test database; changes are applied to the cache only and dropped afterwards.
+ */
+class StockCatalogTest {
+    private final StockCatalog catalog = StockCatalog.getInstance();
+    private StockCatalog.Snapshot before;
+
+    @BeforeEach
+    void loadCatalog() throws SQLException {
+        catalog.invalidateAll();
+        before = catalog.getSnapshot();
+        assertTrue(before.size() >= 3, "test database should hold the sample stocks");
+    }
+
+    @AfterEach
+    void dropChanges() {
+        catalog.invalidateAll();
+    }
+
+    @Test
+    void priceChangeReplacesOnlyThatEntry() throws SQLException {
+        StockCatalog.Entry changed = before.getEntries().get(1);
+
+        catalog.updatePrice(changed.getStockId(), 123.45, 1_000L);
+        StockCatalog.Snapshot after = catalog.getSnapshot();
+
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(123.45, after.getById(changed.getStockId()).getCurrentPrice());
+        assertSame(after.getById(changed.getStockId()), after.getBySymbol(changed.getSymbol()));
+        assertSame(after.getById(changed.getStockId()), after.getEntries().get(1));
+        assertSame(changed, before.getById(changed.getStockId()), "the previous snapshot must not change");
+        for (int i = 0; i < before.size(); i++) {
+            if (i != 1) {
+                assertSame(before.getEntries().get(i), after.getEntries().get(i));
+            }
+        }
+    }
+
+    @Test
+    void batchPriceChangeKeepsSymbolOrder() throws SQLException {
+        List<StockCatalog.Entry> entries = before.getEntries();
+        catalog.updatePrices(Map.of(entries.get(0).getStockId(), 1.0, entries.get(2).getStockId(), 2.0), 1_000L);
+        StockCatalog.Snapshot after = catalog.getSnapshot();
+
+        assertEquals(1.0, after.getEntries().get(0).getCurrentPrice());
+        assertEquals(2.0, after.getEntries().get(2).getCurrentPrice());
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(before.getEntries().get(i).getSymbol(), after.getEntries().get(i).getSymbol());
+        }
+    }
+
+    @Test
+    void insertAndDeleteRebuildTheOrder() throws SQLException {
+        catalog.put(new Stock(-1, "AAAA", "First Inc", "Test", 1.0, 0L));
+        StockCatalog.Snapshot inserted = catalog.getSnapshot();
+
+        assertEquals(before.size() + 1, inserted.size());
+        assertEquals("AAAA", inserted.getEntries().get(0).getSymbol());
+        assertSame(inserted.getById(-1), inserted.getBySymbol("AAAA"));
+        assertSame(before.getEntries().get(0), inserted.getEntries().get(1));
+
+        catalog.remove(-1);
+        StockCatalog.Snapshot removed = catalog.getSnapshot();
+
+        assertEquals(before.size(), removed.size());
+        assertNull(removed.getById(-1));
+        assertNull(removed.getBySymbol("AAAA"));
+        assertSame(before.getEntries().get(0), removed.getEntries().get(0));
+    }
+}
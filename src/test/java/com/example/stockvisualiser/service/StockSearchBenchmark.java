@@ -0,0 +1,155 @@
+package com.example.stockvisualiser.service;
+
+import com.example.stockvisualiser.database.ConnectionLease;
+import com.example.stockvisualiser.database.DatabaseManager;
+import com.example.stockvisualiser.model.Stock;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * StockSearchBenchmark - Full-text search against the LIKE query it replaced
+ * Times StockService.searchStocksFullText and the former LIKE query over STOCKS generated stocks,
+ * both for all matches (as searchStocks asks) and for the first 50. FTS wins on selective terms,
+ * where LIKE has to scan every row. It loses on a word nearly every stock contains: bm25 has to rank
+ * every match before LIMIT applies, while LIKE walks the symbol index and stops after 50 rows.
+ * Run with: mvn test -Dgroups=benchmark -Dtest.excludedGroups=
+ */
+@Tag("benchmark")
+class StockSearchBenchmark {
+    private static final int STOCKS = 10_000;
+    private static final String SECTOR = "Benchmark";
+    private static final String[] WORDS = {
+        "Global", "Tech", "Energy", "Bio", "Systems", "Capital", "Holdings", "Pharma", "Motors", "Foods", "Retail", "Networks"
+    };
+
+    // The search before stocks_fts existed, plus an optional limit
+    private static final String LIKE_QUERY = "SELECT " + RowMappers.STOCK_COLUMNS + " FROM stocks "
+        + "WHERE symbol LIKE ? OR company_name LIKE ? ORDER BY symbol LIMIT ?";
+
+    private static final StockService stockService = new StockService();
+    private static String selectiveSymbol;
+
+    @BeforeAll
+    static void createStocks() throws SQLException {
+        Random random = new Random(1);
+        try (ConnectionLease lease = DatabaseManager.getInstance().acquireWriter()) {
+            lease.getConnection().setAutoCommit(false);
+            lease.update("DELETE FROM stocks WHERE sector = ?", pstmt -> pstmt.setString(1, SECTOR));
+            for (int i = 0; i < STOCKS; i++) {
+                StringBuilder symbol = new StringBuilder();
+                for (int length = 2 + random.nextInt(3); symbol.length() < length; ) {
+                    symbol.append((char) ('A' + random.nextInt(26)));
+                }
+                symbol.append(i);
+                String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " Inc";
+                if (i == STOCKS / 2) {
+                    selectiveSymbol = symbol.toString();
+                }
+                lease.update("INSERT INTO stocks (symbol, company_name, sector, current_price, last_updated) "
+                    + "VALUES (?, ?, ?, 10.0, 0)", pstmt -> {
+                        pstmt.setString(1, symbol.toString());
+                        pstmt.setString(2, name);
+                        pstmt.setString(3, SECTOR);
+                    });
+            }
+            lease.getConnection().commit();
+        }
+    }
+
+    @AfterAll
+    static void removeStocks() throws SQLException {
+        try (ConnectionLease lease = DatabaseManager.getInstance().acquireWriter()) {
+            lease.update("DELETE FROM stocks WHERE sector = ?", pstmt -> pstmt.setString(1, SECTOR));
+        }
+    }
+
+    @Test
+    void selectiveTermIsFasterWithFullText() throws SQLException {
+        String term = selectiveSymbol.toLowerCase();
+        List<Stock> matches = stockService.searchStocksFullText(term, 0);
+        assertEquals(selectiveSymbol, matches.get(0).getSymbol());
+
+        Timing all = compare(term, 0, 200);
+        Timing first50 = compare(term, 50, 200);
+        System.out.println("'" + term + "' all matches: " + all);
+        System.out.println("'" + term + "' first 50:    " + first50);
+        assertTrue(all.fullTextMicros < all.likeMicros, all.toString());
+        assertTrue(first50.fullTextMicros < first50.likeMicros, first50.toString());
+    }
+
+    @Test
+    void commonWordIsFasterWithLikeWhenLimited() throws SQLException {
+        // Every generated name ends in "Inc", so bm25 ranks all of them before LIMIT applies
+        assertEquals(50, stockService.searchStocksFullText("inc", 50).size());
+
+        Timing all = compare("inc", 0, 20);
+        Timing first50 = compare("inc", 50, 20);
+        System.out.println("'inc' all matches: " + all);
+        System.out.println("'inc' first 50:    " + first50);
+        assertTrue(first50.likeMicros < first50.fullTextMicros, first50.toString());
+    }
+
+    @Test
+    void twoWordsBothMatchAsPrefixes() throws SQLException {
+        List<Stock> matches = stockService.searchStocksFullText("pharma mot", 0);
+        assertTrue(!matches.isEmpty());
+        for (Stock stock : matches) {
+            String name = stock.getCompanyName().toLowerCase();
+            assertTrue(name.contains("pharma") && name.contains("mot"), stock.getCompanyName());
+        }
+        System.out.println("'pharma mot' all matches: " + compare("pharma mot", 0, 100));
+    }
+
+    private static Timing compare(String term, int limit, int rounds) throws SQLException {
+        String pattern = "%" + term + "%";
+        for (int i = 0; i < rounds; i++) {
+            stockService.searchStocksFullText(term, limit);
+            like(pattern, limit);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            stockService.searchStocksFullText(term, limit);
+        }
+        double fullTextMicros = (System.nanoTime() - start) / 1000.0 / rounds;
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            like(pattern, limit);
+        }
+        double likeMicros = (System.nanoTime() - start) / 1000.0 / rounds;
+        return new Timing(fullTextMicros, likeMicros);
+    }
+
+    private static List<Stock> like(String pattern, int limit) throws SQLException {
+        try (ConnectionLease lease = DatabaseManager.getInstance().acquireReader()) {
+            return lease.query(LIKE_QUERY, pstmt -> {
+                pstmt.setString(1, pattern);
+                pstmt.setString(2, pattern);
+                pstmt.setInt(3, limit > 0 ? limit : -1);
+            }, RowMappers.STOCK);
+        }
+    }
+
+    private static final class Timing {
+        private final double fullTextMicros;
+        private final double likeMicros;
+
+        private Timing(double fullTextMicros, double likeMicros) {
+            this.fullTextMicros = fullTextMicros;
+            this.likeMicros = likeMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("FTS %.0f us, LIKE %.0f us", fullTextMicros, likeMicros);
+        }
+    }
+}
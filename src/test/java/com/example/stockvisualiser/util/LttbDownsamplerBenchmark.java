@@ -0,0 +1,48 @@
+package com.example.stockvisualiser.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LttbDownsamplerBenchmark - LTTB time per series size, and what it keeps that every n-th point drops
+ * Each series is a random walk with a one-sample 20% spike at a third of its length, reduced to
+ * BUDGET points as the chart does for a plot BUDGET pixels wide.
+ * Run with: mvn test -Dgroups=benchmark -Dtest.excludedGroups=
+ */
+@Tag("benchmark")
+class LttbDownsamplerBenchmark {
+    private static final int BUDGET = 2_000;
+
+    @Test
+    void downsampleLargeSeries() {
+        for (int length : new int[] {100_000, 1_000_000, 10_000_000}) {
+            double[] x = LttbDownsamplerTest.sequence(length);
+            double[] y = LttbDownsamplerTest.randomWalk(length, 5);
+            int spike = length / 3;
+            y[spike] *= 1.2;
+
+            for (int i = 0; i < 20; i++) {
+                LttbDownsampler.selectIndices(x, y, BUDGET);
+            }
+            int rounds = length >= 10_000_000 ? 10 : 50;
+            int[] selected = null;
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                selected = LttbDownsampler.selectIndices(x, y, BUDGET);
+            }
+            double millis = (System.nanoTime() - start) / 1e6 / rounds;
+
+            boolean lttbKept = false;
+            for (int index : selected) {
+                lttbKept |= index == spike;
+            }
+            int stride = (length + BUDGET - 1) / BUDGET;
+            boolean strideKept = spike % stride == 0;
+            System.out.printf("%,11d points -> %d: %6.2f ms (%.0f M points/s); spike kept by LTTB %b, every %d-th point %b%n",
+                length, BUDGET, millis, length / millis / 1000, lttbKept, stride, strideKept);
+            assertTrue(lttbKept, "LTTB dropped the spike in " + length + " points");
+        }
+    }
+}
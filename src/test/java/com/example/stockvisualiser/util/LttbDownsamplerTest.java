@@ -0,0 +1,114 @@
+package com.example.stockvisualiser.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LttbDownsamplerTest - Which points LTTB keeps
+ */
+class LttbDownsamplerTest {
+
+    @Test
+    void keepsFirstAndLastPoints() {
+        double[] x = sequence(10_000);
+        double[] y = randomWalk(10_000, 1);
+
+        int[] selected = LttbDownsampler.selectIndices(x, y, 100);
+
+        assertEquals(100, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(9_999, selected[99]);
+        assertAscending(selected, 0, 10_000);
+    }
+
+    @Test
+    void keepsOneSampleSpike() {
+        double[] x = sequence(10_000);
+        double[] y = randomWalk(10_000, 2);
+        y[3_333] *= 1.2;
+
+        int[] selected = LttbDownsampler.selectIndices(x, y, 100);
+
+        assertTrue(contains(selected, 3_333), "spike was dropped");
+    }
+
+    @Test
+    void returnsEveryIndexWhenTheSeriesFits() {
+        double[] x = sequence(5);
+        double[] y = randomWalk(5, 3);
+
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, LttbDownsampler.selectIndices(x, y, 10));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, LttbDownsampler.selectIndices(x, y, 5));
+        assertArrayEquals(new int[0], LttbDownsampler.selectIndices(new double[0], new double[0], 10));
+    }
+
+    @Test
+    void treatsThresholdsBelowThreeAsThree() {
+        double[] x = sequence(100);
+        double[] y = randomWalk(100, 4);
+
+        int[] selected = LttbDownsampler.selectIndices(x, y, 1);
+
+        assertEquals(3, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(99, selected[2]);
+    }
+
+    @Test
+    void downsamplesOnlyTheRequestedRange() {
+        double[] x = sequence(10_000);
+        double[] y = randomWalk(10_000, 5);
+        y[2_500] *= 1.2;
+        y[7_000] *= 1.2;
+
+        int[] selected = LttbDownsampler.selectIndices(x, y, 2_000, 5_000, 50);
+
+        assertEquals(50, selected.length);
+        assertEquals(2_000, selected[0]);
+        assertEquals(4_999, selected[49]);
+        assertAscending(selected, 2_000, 5_000);
+        assertTrue(contains(selected, 2_500), "spike inside the range was dropped");
+        assertArrayEquals(new int[] {40, 41, 42}, LttbDownsampler.selectIndices(x, y, 40, 43, 10));
+    }
+
+    private static void assertAscending(int[] indices, int from, int to) {
+        for (int i = 0; i < indices.length; i++) {
+            assertTrue(indices[i] >= from && indices[i] < to, "index " + indices[i] + " outside the range");
+            assertTrue(i == 0 || indices[i] > indices[i - 1], "indices not ascending at " + i);
+        }
+    }
+
+    private static boolean contains(int[] indices, int index) {
+        for (int i : indices) {
+            if (i == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static double[] sequence(int length) {
+        double[] x = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i;
+        }
+        return x;
+    }
+
+    /** Prices moving about 0.05% per step, like a quiet trading day */
+    static double[] randomWalk(int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] y = new double[length];
+        double price = 100;
+        for (int i = 0; i < length; i++) {
+            price *= Math.exp(0.0005 * random.nextGaussian());
+            y[i] = price;
+        }
+        return y;
+    }
+}